@@ -116,6 +116,16 @@ public abstract class ObservableImpl<E> implements Observable<E> {
 		lastValue = value;
 	}
 	
+	/**
+	 * Records the current effective value of this observable value as its
+	 * last known value, such that the value it holds now is not registered
+	 * as a change by the next update. Used by observable values that are
+	 * configured after they are instantiated.
+	 */
+	protected void resetLastValue() {
+		lastValue = getValue();
+	}
+	
 	/**
 	 * Returns the effective value of this observable value. Used for
 	 * detecting changes for the change listener.
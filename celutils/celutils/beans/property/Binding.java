@@ -22,6 +22,13 @@ public final class Binding<T> implements java.io.Serializable {
 	private T rootOld;
 	private T guestOld;
 	
+	/**
+	 * The versions of each bound property after the previous update. Used for
+	 * skipping updates in which neither property has changed.
+	 */
+	private long rootVersion;
+	private long guestVersion;
+	
 	/**
 	 * Both bound properties. The root property is the one that owns the property
 	 * binding. See <a href="#{@link}">{@link Property#bind(Property, BindingOrder)}</a>.
@@ -37,6 +44,12 @@ public final class Binding<T> implements java.io.Serializable {
 	 */
 	private final BindingOrder order;
 	
+	/**
+	 * The index of this binding in the list holding it. See <a href="#{@link}">
+	 * {@link BindingSet}</a>.
+	 */
+	int index;
+	
 	/**
 	 * Package-level constructor.
 	 * <p>
@@ -53,9 +66,9 @@ public final class Binding<T> implements java.io.Serializable {
 		this.guest = guest;
 		this.order = order;
 		
-		sync();
-		rootOld = root.get();
-		guestOld = guest.get();
+		sync(root.get(), guest.get());
+		rootVersion = root.getVersion();
+		guestVersion = guest.getVersion();
 	}
 	
 	/**
@@ -97,41 +110,47 @@ public final class Binding<T> implements java.io.Serializable {
 	 * synchronization, if the properties are not equal, then the property
 	 * without precedence according to the binding order is set to the value
 	 * of the property with precedence.
+	 * <p>
+	 * If both properties keep a version, and neither version has changed
+	 * since the previous update, then the update is skipped without reading
+	 * either property. Otherwise each property is read only once.
 	 */
 	public void update() {
+		long rootVersion = root.getVersion();
+		long guestVersion = guest.getVersion();
+		if(rootVersion != -1 && guestVersion != -1 && rootVersion == this.rootVersion && guestVersion == this.guestVersion)
+			return;
+		
 		T rootNew = root.get();
 		T guestNew = guest.get();
 		
 		switch(order) {
 		case BIDIRECTIONAL_DOMINANT:
 			if(!root.equals(rootOld, rootNew) && !root.equals(guestNew, rootNew)) {
-				guest.set(rootNew);
-				guestNew = rootNew;
+				guestNew = assign(guest, rootNew);
 			}
 			else if(!root.equals(guestOld, guestNew) && !root.equals(guestNew, rootNew)) {
-				root.set(guestNew);
-				rootNew = guestNew;
+				rootNew = assign(root, guestNew);
 			}
 			break;
 		case BIDIRECTIONAL_RECESSIVE:
 			if(!root.equals(guestOld, guestNew) && !root.equals(guestNew, rootNew)) {
-				root.set(guestNew);
-				rootNew = guestNew;
+				rootNew = assign(root, guestNew);
 			}
 			else if(!root.equals(rootOld, rootNew) && !root.equals(guestNew, rootNew)) {
-				guest.set(rootNew);
-				guestNew = rootNew;
+				guestNew = assign(guest, rootNew);
 			}
 			break;
 		case DOMINANT:
+		case DOMINANT_PUSH:
 		case RECESSIVE:
 		default:
 			break;
 		}
 		
-		sync();
-		rootOld = rootNew;
-		guestOld = guestNew;
+		sync(rootNew, guestNew);
+		this.rootVersion = root.getVersion();
+		this.guestVersion = guest.getVersion();
 	}
 	
 	/**
@@ -139,16 +158,36 @@ public final class Binding<T> implements java.io.Serializable {
 	 * <p>
 	 * During synchronization, the property without precedence according to the
 	 * binding order is set to the value of the property with precedence if they
-	 * are not already equal.
+	 * are not already equal. The values that both properties then hold are
+	 * remembered for the next update.
+	 * 
+	 * @param rootValue		The current value of the root property.
+	 * @param guestValue	The current value of the guest property.
 	 */
-	private void sync() {
-		if(root.equals(root.get(), guest.get())) return;
-		if(order == BindingOrder.DOMINANT || order == BindingOrder.BIDIRECTIONAL_DOMINANT) {
-			guest.set(root.get());
-		}
-		else {
-			root.set(guest.get());
+	private void sync(T rootValue, T guestValue) {
+		if(!root.equals(rootValue, guestValue)) {
+			if(order == BindingOrder.DOMINANT || order == BindingOrder.BIDIRECTIONAL_DOMINANT || order == BindingOrder.DOMINANT_PUSH)
+				guestValue = assign(guest, rootValue);
+			else
+				rootValue = assign(root, guestValue);
 		}
+		rootOld = rootValue;
+		guestOld = guestValue;
+	}
+	
+	/**
+	 * Sets the given property of this binding to the given value, and
+	 * returns the value that the property then holds. A property that keeps
+	 * no version is read again, as its setter may coerce the value, while a
+	 * versioned property is taken to hold the value it was set to.
+	 * 
+	 * @param property	The property to set.
+	 * @param value		The value to set the property to.
+	 * @return			The value of the property after it was set.
+	 */
+	private T assign(Property<T> property, T value) {
+		property.set(value);
+		return property.getVersion() == -1 ? property.get() : value;
 	}
 	
 }
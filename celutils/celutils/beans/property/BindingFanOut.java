@@ -0,0 +1,92 @@
+package celutils.beans.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Package-level class.
+ * <p>
+ * The bindings of a root property with the <a href="#{@link}">{@link
+ * BindingOrder#DOMINANT_PUSH}</a> binding order. Rather than having each
+ * binding poll the root property, the root pushes its value to all of
+ * the guest properties in a single pass when it changes.
+ * <p>
+ * The value of the root property is read at most once per update, and
+ * not at all if the root keeps a version that has not changed since the
+ * previous update. The guest properties are never read.
+ * 
+ * @param <T>	The property type of the bound properties.
+ * 
+ * @author Max D
+ */
+final class BindingFanOut<T> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -6108357924317741265L;
+	
+	/**
+	 * The bindings to the guest properties.
+	 */
+	private final List<Binding<T>> bindings;
+	
+	/**
+	 * The value last pushed to the guest properties, and the version of the
+	 * root property when it was read.
+	 */
+	private T value;
+	private long version;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new fan-out with no bindings.
+	 */
+	BindingFanOut() {
+		this.bindings = new ArrayList<Binding<T>>();
+	}
+	
+	/**
+	 * Adds a binding to this fan-out. The guest property of the binding
+	 * has already been set to the value of the root property.
+	 * 
+	 * @param binding	The binding to add.
+	 */
+	void add(Binding<T> binding) {
+		Property<T> root = binding.getRoot();
+		push(root);
+		binding.index = bindings.size();
+		bindings.add(binding);
+		value = root.get();
+		version = root.getVersion();
+	}
+	
+	/**
+	 * Removes a binding from this fan-out.
+	 * 
+	 * @param binding	The binding to remove.
+	 */
+	void remove(Binding<T> binding) {
+		BindingSet.remove(bindings, binding);
+	}
+	
+	/**
+	 * Sets every guest property to the value of the given root property
+	 * if it has changed since it was last pushed.
+	 * 
+	 * @param root	The root property of the bindings.
+	 */
+	void push(Property<T> root) {
+		if(bindings.isEmpty())
+			return;
+		long version = root.getVersion();
+		if(version != -1 && version == this.version)
+			return;
+		T value = root.get();
+		this.version = version;
+		if(root.equals(value, this.value))
+			return;
+		this.value = value;
+		for(Binding<T> binding : bindings)
+			binding.getGuest().set(value);
+	}
+	
+}
@@ -59,6 +59,21 @@ public enum BindingOrder {
 	 * take precedence with a bidirectional-recessive binding order,
 	 * and therefore will be set to the value of the guest property.
 	 */
-	BIDIRECTIONAL_RECESSIVE;
+	BIDIRECTIONAL_RECESSIVE,
+	
+	/**
+	 * Indicates that the root property of this binding should
+	 * have total precedence over the other, as with a dominant
+	 * binding order, but that its changes should be pushed to
+	 * the guest property rather than polled by the binding.
+	 * <p>
+	 * All of the guests bound to a root with a dominant-push
+	 * binding order are set in a single pass when the value of
+	 * the root changes, and are otherwise never read. A guest
+	 * property changed by other means therefore keeps its value
+	 * until the root property changes again. This is best used
+	 * for a root property with a large number of guests.
+	 */
+	DOMINANT_PUSH;
 	
 }
@@ -0,0 +1,125 @@
+package celutils.beans.property;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Package-level class.
+ * <p>
+ * The bindings owned by a root property, indexed by the identity of
+ * their guest properties. Binding and unbinding a guest property run
+ * in constant time, however many bindings the root property has, and
+ * a guest property is bound at most once.
+ * <p>
+ * The bindings with the <a href="#{@link}">{@link BindingOrder#DOMINANT_PUSH}</a>
+ * binding order are kept in a <a href="#{@link}">{@link BindingFanOut}</a>,
+ * while the others are kept in an array and updated one by one. Unbinding
+ * moves the last binding of the array into the place of the removed one,
+ * so the order in which the bindings are updated is unspecified.
+ * 
+ * @param <T>	The property type of the bound properties.
+ * 
+ * @author Max D
+ */
+final class BindingSet<T> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = 4671950283645528164L;
+	
+	/**
+	 * The bindings, by the identity of their guest properties.
+	 */
+	private final Map<Property<T>, Binding<T>> guests;
+	
+	/**
+	 * The bindings that are updated one by one.
+	 */
+	private final List<Binding<T>> bindings;
+	
+	/**
+	 * The bindings with a dominant-push binding order.
+	 */
+	private final BindingFanOut<T> fanOut;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new empty set of bindings.
+	 */
+	BindingSet() {
+		this.guests = new IdentityHashMap<Property<T>, Binding<T>>();
+		this.bindings = new ArrayList<Binding<T>>();
+		this.fanOut = new BindingFanOut<T>();
+	}
+	
+	/**
+	 * Binds the given guest property to the given root property. Nothing
+	 * happens if the guest property is already bound with the same binding
+	 * order, and the previous binding is replaced if it is bound with a
+	 * different binding order.
+	 * 
+	 * @param root	The root property owning this set.
+	 * @param guest	The guest property to bind.
+	 * @param order	The binding order.
+	 */
+	void add(Property<T> root, Property<T> guest, BindingOrder order) {
+		Binding<T> existing = guests.get(guest);
+		if(existing != null) {
+			if(existing.getOrder() == order)
+				return;
+			remove(guest);
+		}
+		
+		Binding<T> binding = new Binding<T>(root, guest, order);
+		guests.put(guest, binding);
+		if(order == BindingOrder.DOMINANT_PUSH)
+			fanOut.add(binding);
+		else {
+			binding.index = bindings.size();
+			bindings.add(binding);
+		}
+	}
+	
+	/**
+	 * Unbinds the given guest property, if it is bound.
+	 * 
+	 * @param guest	The guest property to unbind.
+	 */
+	void remove(Property<T> guest) {
+		Binding<T> binding = guests.remove(guest);
+		if(binding == null)
+			return;
+		if(binding.getOrder() == BindingOrder.DOMINANT_PUSH)
+			fanOut.remove(binding);
+		else
+			remove(bindings, binding);
+	}
+	
+	/**
+	 * Updates every binding.
+	 * 
+	 * @param root	The root property owning this set.
+	 */
+	void update(Property<T> root) {
+		for(int i = 0; i < bindings.size(); i++)
+			bindings.get(i).update();
+		fanOut.push(root);
+	}
+	
+	/**
+	 * Removes a binding from a list of bindings by moving the last binding
+	 * of the list into its place.
+	 * 
+	 * @param bindings	The list of bindings, in which every binding holds its index.
+	 * @param binding	The binding to remove.
+	 */
+	static <T> void remove(List<Binding<T>> bindings, Binding<T> binding) {
+		Binding<T> last = bindings.remove(bindings.size() - 1);
+		if(last != binding) {
+			last.index = binding.index;
+			bindings.set(binding.index, last);
+		}
+	}
+	
+}
@@ -1,9 +1,15 @@
 package celutils.beans.property;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import celutils.beans.observable.ChangeListener;
-import celutils.beans.observable.EventListener;
+import celutils.beans.observable.ObservableImpl;
+import celutils.collections.ObservableArrayList;
+import celutils.misc.IClock;
 
 /**
  * A utility class used for creating property implementations
@@ -76,13 +82,425 @@ public final class Bindings {
 		return new PropertyBinding<T>();
 	}
 	
+	/**
+	 * Returns a new special-purpose property holding the value that the
+	 * given table maps the value of the key property to, or null if the
+	 * table does not contain the key.
+	 * <p>
+	 * The table is copied into a hash table, such that the value is found
+	 * in constant time however many entries there are, and the property
+	 * caches the value until the key property changes. Entries may be added
+	 * afterwards through <a href="#{@link}">{@link SelectBinding#on(Object, Object)}</a>.
+	 * 
+	 * @param <K>	The type of the key.
+	 * @param <T>	The type of data that this property will hold.
+	 * @param key	The key property.
+	 * @param table	The values that this property will hold for each key.
+	 * @return		The newly created special-purpose property.
+	 */
+	public static <K, T> SelectBinding<K, T> select(Property<K> key, Map<? extends K, ? extends T> table) {
+		SelectBinding<K, T> binding = new SelectBinding<K, T>(key, false);
+		for(Map.Entry<? extends K, ? extends T> entry : table.entrySet())
+			binding.on(entry.getKey(), entry.getValue());
+		return binding;
+	}
+	
+	/**
+	 * Returns a new catalyst for a special-purpose property holding one
+	 * of many values depending on the enum constant held by the given key
+	 * property.
+	 * <p>
+	 * The values are indexed by the ordinals of the constants, such that the
+	 * value is found with a single array access, rather than by walking a
+	 * chain of conditions, and the property caches the value until the key
+	 * property changes.
+	 * 
+	 * @param <E>	The enum type of the key.
+	 * @param key	The key property.
+	 * @return		The new catalyst.
+	 */
+	public static <E extends Enum<E>> SwitchCondition<E> switchOn(Property<E> key) {
+		return new SwitchCondition<E>(key);
+	}
+	
+	/**
+	 * Returns a new property reflecting the value of the given property,
+	 * whose changes are limited in rate. See <a href="#{@link}">{@link
+	 * TimedProperty}</a>.
+	 * 
+	 * @param <T>		The type of data that the property holds.
+	 * @param property	The source property.
+	 * @param limit		The rate limit.
+	 * @param period	The period of the rate limit.
+	 * @param unit		The unit of the period.
+	 * @param clock		The clock measuring the period.
+	 * @return			The timed property.
+	 */
+	public static <T> TimedProperty<T> timed(Property<T> property, RateLimit limit, long period, TimeUnit unit, IClock clock) {
+		return new TimedProperty<T>(property, limit, period, unit, clock);
+	}
+	
+	/**
+	 * Returns a new property reflecting the value of the given property,
+	 * which only changes once the given property has not changed for the
+	 * given period. See <a href="#{@link}">{@link RateLimit#DEBOUNCE}</a>.
+	 * 
+	 * @param <T>		The type of data that the property holds.
+	 * @param property	The source property.
+	 * @param period	The period without changes.
+	 * @param unit		The unit of the period.
+	 * @return			The timed property.
+	 */
+	public static <T> TimedProperty<T> debounce(Property<T> property, long period, TimeUnit unit) {
+		return timed(property, RateLimit.DEBOUNCE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new property reflecting the value of the given property,
+	 * which changes at most once per given period. See <a href="#{@link}">
+	 * {@link RateLimit#THROTTLE}</a>.
+	 * 
+	 * @param <T>		The type of data that the property holds.
+	 * @param property	The source property.
+	 * @param period	The minimum period between changes.
+	 * @param unit		The unit of the period.
+	 * @return			The timed property.
+	 */
+	public static <T> TimedProperty<T> throttle(Property<T> property, long period, TimeUnit unit) {
+		return timed(property, RateLimit.THROTTLE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new property reflecting the value of the given property,
+	 * which takes the latest value of the given property once every given
+	 * period. See <a href="#{@link}">{@link RateLimit#SAMPLE}</a>.
+	 * 
+	 * @param <T>		The type of data that the property holds.
+	 * @param property	The source property.
+	 * @param period	The sampling period.
+	 * @param unit		The unit of the period.
+	 * @return			The timed property.
+	 */
+	public static <T> TimedProperty<T> sample(Property<T> property, long period, TimeUnit unit) {
+		return timed(property, RateLimit.SAMPLE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new change listener passing the changes it receives on to
+	 * the given listener, limited in rate. See <a href="#{@link}">{@link
+	 * TimedListener}</a>.
+	 * 
+	 * @param <T>		The type specified by the observable value.
+	 * @param listener	The listener to pass the changes on to.
+	 * @param limit		The rate limit.
+	 * @param period	The period of the rate limit.
+	 * @param unit		The unit of the period.
+	 * @param clock		The clock measuring the period.
+	 * @return			The timed listener.
+	 */
+	public static <T> TimedListener<T> timed(ChangeListener<T> listener, RateLimit limit, long period, TimeUnit unit, IClock clock) {
+		return new TimedListener<T>(listener, limit, period, unit, clock);
+	}
+	
+	/**
+	 * Returns a new change listener passing the changes it receives on to
+	 * the given listener once no change was received for the given period.
+	 * See <a href="#{@link}">{@link RateLimit#DEBOUNCE}</a>.
+	 * 
+	 * @param <T>		The type specified by the observable value.
+	 * @param listener	The listener to pass the changes on to.
+	 * @param period	The period without changes.
+	 * @param unit		The unit of the period.
+	 * @return			The timed listener.
+	 */
+	public static <T> TimedListener<T> debounce(ChangeListener<T> listener, long period, TimeUnit unit) {
+		return timed(listener, RateLimit.DEBOUNCE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new change listener passing the changes it receives on to
+	 * the given listener at most once per given period. See <a href="#{@link}">
+	 * {@link RateLimit#THROTTLE}</a>.
+	 * 
+	 * @param <T>		The type specified by the observable value.
+	 * @param listener	The listener to pass the changes on to.
+	 * @param period	The minimum period between changes.
+	 * @param unit		The unit of the period.
+	 * @return			The timed listener.
+	 */
+	public static <T> TimedListener<T> throttle(ChangeListener<T> listener, long period, TimeUnit unit) {
+		return timed(listener, RateLimit.THROTTLE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new change listener passing the changes it receives on to
+	 * the given listener once every given period. See <a href="#{@link}">
+	 * {@link RateLimit#SAMPLE}</a>.
+	 * 
+	 * @param <T>		The type specified by the observable value.
+	 * @param listener	The listener to pass the changes on to.
+	 * @param period	The sampling period.
+	 * @param unit		The unit of the period.
+	 * @return			The timed listener.
+	 */
+	public static <T> TimedListener<T> sample(ChangeListener<T> listener, long period, TimeUnit unit) {
+		return timed(listener, RateLimit.SAMPLE, period, unit, IClock.SYSTEM);
+	}
+	
+	/**
+	 * Returns a new property reflecting the value at the end of the given
+	 * path of properties, starting from the given root property. See
+	 * <a href="#{@link}">{@link PathProperty}</a>.
+	 * <p>
+	 * The names of the properties along the path may be given separately or
+	 * separated by dots, such that {@code path(order, "customer.address.city")}
+	 * and {@code path(order, "customer", "address", "city")} are equivalent.
+	 * 
+	 * @param <T>	The type of data held by the property at the end of the path.
+	 * @param root	The root property, holding the first bean.
+	 * @param path	The names of the properties along the path, below the root property.
+	 * @return		The path property.
+	 */
+	public static <T> PathProperty<T> path(Property<?> root, String... path) {
+		List<String> names = new ArrayList<String>();
+		for(String name : path) {
+			for(String part : name.split("\\.")) {
+				if(part.isEmpty())
+					throw new IllegalArgumentException("Empty property name in path: " + name);
+				names.add(part);
+			}
+		}
+		return new PathProperty<T>(root, names.toArray(new String[0]));
+	}
+	
+	/**
+	 * Returns a numeric expression holding the value of the given numeric
+	 * property, from which larger expressions can be built.
+	 * 
+	 * @param property	The numeric property.
+	 * @return			The expression of the property.
+	 * @see NumberExpression
+	 */
+	public static NumberExpression number(Property<? extends Number> property) {
+		return property instanceof NumberExpression ? (NumberExpression) property : new NumberExpression(ExpressionNode.number(property));
+	}
+	
+	/**
+	 * Returns a numeric expression holding the given constant, from which
+	 * larger expressions can be built.
+	 * 
+	 * @param value	The constant.
+	 * @return		The expression of the constant.
+	 * @see NumberExpression
+	 */
+	public static NumberExpression number(double value) {
+		return new NumberExpression(ExpressionNode.constant(value));
+	}
+	
+	/**
+	 * Returns a boolean expression holding the value of the given boolean
+	 * property, from which larger expressions can be built.
+	 * 
+	 * @param property	The boolean property.
+	 * @return			The expression of the property.
+	 * @see BooleanExpression
+	 */
+	public static BooleanExpression condition(Property<Boolean> property) {
+		return property instanceof BooleanExpression ? (BooleanExpression) property : new BooleanExpression(ExpressionNode.bool(property));
+	}
+	
+	/**
+	 * Returns a numeric expression holding the sum of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#add(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the sum.
+	 */
+	public static NumberExpression add(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).add(b);
+	}
+	
+	/**
+	 * Returns a numeric expression holding the difference of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#subtract(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the difference.
+	 */
+	public static NumberExpression subtract(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).subtract(b);
+	}
+	
+	/**
+	 * Returns a numeric expression holding the product of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#multiply(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the product.
+	 */
+	public static NumberExpression multiply(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).multiply(b);
+	}
+	
+	/**
+	 * Returns a numeric expression holding the quotient of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#divide(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the quotient.
+	 */
+	public static NumberExpression divide(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).divide(b);
+	}
+	
+	/**
+	 * Returns a numeric expression holding the minimum of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#min(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the minimum.
+	 */
+	public static NumberExpression min(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).min(b);
+	}
+	
+	/**
+	 * Returns a numeric expression holding the maximum of the given numeric
+	 * properties. See <a href="#{@link}">{@link NumberExpression#max(Property)}</a>.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the maximum.
+	 */
+	public static NumberExpression max(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).max(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is less than the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression lessThan(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).lessThan(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is less than or equal to the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression lessThanOrEqual(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).lessThanOrEqual(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is greater than the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression greaterThan(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).greaterThan(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is greater than or equal to the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression greaterThanOrEqual(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).greaterThanOrEqual(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is equal to the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression isEqualTo(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).isEqualTo(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not the first numeric
+	 * property is not equal to the second.
+	 * 
+	 * @param a	The first numeric property.
+	 * @param b	The second numeric property.
+	 * @return	The expression of the comparison.
+	 */
+	public static BooleanExpression isNotEqualTo(Property<? extends Number> a, Property<? extends Number> b) {
+		return number(a).isNotEqualTo(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding the conjunction of the given
+	 * boolean properties.
+	 * 
+	 * @param a	The first boolean property.
+	 * @param b	The second boolean property.
+	 * @return	The expression of the conjunction.
+	 */
+	public static BooleanExpression and(Property<Boolean> a, Property<Boolean> b) {
+		return condition(a).and(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding the disjunction of the given
+	 * boolean properties.
+	 * 
+	 * @param a	The first boolean property.
+	 * @param b	The second boolean property.
+	 * @return	The expression of the disjunction.
+	 */
+	public static BooleanExpression or(Property<Boolean> a, Property<Boolean> b) {
+		return condition(a).or(b);
+	}
+	
+	/**
+	 * Returns a boolean expression holding the negation of the given
+	 * boolean property.
+	 * 
+	 * @param a	The boolean property.
+	 * @return	The expression of the negation.
+	 */
+	public static BooleanExpression not(Property<Boolean> a) {
+		return condition(a).not();
+	}
+	
 	/**
 	 * A special-purpose property class used for binding conditions for
 	 * other special-purpose binding properties.
+	 * <p>
+	 * A binding condition caches the value of its underlying condition,
+	 * which is only read again once the version of the condition changes,
+	 * or on every read if the condition keeps no version. It is observable
+	 * like any other property, and can serve as the root of dominant
+	 * bindings, although it cannot be set.
 	 * 
 	 * @author Max D
 	 */
-	public static final class BindingCondition implements Property<Boolean> {
+	public static final class BindingCondition extends ObservableImpl<Boolean> implements Property<Boolean> {
 		
 		private static final long serialVersionUID = 887185735094188407L;
 		
@@ -92,53 +510,44 @@ public final class Bindings {
 		private final Property<Boolean> condition;
 		
 		/**
-		 * Creates a new binding condition based on the given condition.
-		 * 
-		 * @param condition	The condition upon which the binding is based.
+		 * The cached value of the condition, and the version of the
+		 * condition when it was read
 		 */
-		
-		private BindingCondition(Property<Boolean> condition) {
-			this.condition = condition;
-		}
+		private Boolean value;
+		private long version;
 		
 		/**
-		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The bindings of this property, by guest property
 		 */
-		@Override
-		public void addListener(ChangeListener<Boolean> listener) {
-			throw new UnsupportedOperationException("addListener");
-		}
-		
-		/**
-		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
-		 */
-		@Override
-		public void removeListener(ChangeListener<Boolean> listener) {
-			throw new UnsupportedOperationException("removeListener");
-		}
+		private final BindingSet<Boolean> bindings;
 		
 		/**
-		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * Creates a new binding condition based on the given condition.
+		 * 
+		 * @param condition	The condition upon which the binding is based.
 		 */
-		@Override
-		public Collection<ChangeListener<Boolean>> getListeners() {
-			throw new UnsupportedOperationException("getListeners");
+		private BindingCondition(Property<Boolean> condition) {
+			super(new ObservableArrayList<>(), new ObservableArrayList<>(), condition.get());
+			this.condition = condition;
+			this.value = condition.get();
+			this.version = condition.getVersion();
+			this.bindings = new BindingSet<Boolean>();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The condition is only read if its version has changed since it
+		 * was last read.
 		 */
 		@Override
-		public void addEventListener(EventListener listener) {
-			throw new UnsupportedOperationException("addEventListener");
+		public Boolean get() {
+			long version = condition.getVersion();
+			if(version == -1 || version != this.version) {
+				this.value = condition.get();
+				this.version = version;
+			}
+			return value;
 		}
 		
 		/**
@@ -147,65 +556,58 @@ public final class Bindings {
 		 * NOTE: Unsupported operation for this property implementation.
 		 */
 		@Override
-		public void removeEventListener(EventListener listener) {
-			throw new UnsupportedOperationException("removeEventListener");
+		public void set(Boolean value) {
+			throw new UnsupportedOperationException("set");
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The version of a binding condition is that of its condition.
 		 */
 		@Override
-		public Collection<EventListener> getEventListeners() {
-			throw new UnsupportedOperationException("getEventListeners");
+		public long getVersion() {
+			return condition.getVersion();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
-		public Boolean get() {
-			return condition.get();
+		protected Boolean getValue() {
+			return get();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
-		 */
-		@Override
-		public void set(Boolean value) {
-			throw new UnsupportedOperationException("set");
-		}
-		
-		/**
-		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * As this property cannot be set, the binding order must give it
+		 * precedence over the guest property.
 		 */
 		@Override
 		public void bind(Property<Boolean> property, BindingOrder order) {
-			throw new UnsupportedOperationException("bind");
+			this.bindings.add(this, property, order);
 		}
 		
 		/**
 		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
 		 */
 		@Override
 		public void unbind(Property<Boolean> property) {
-			throw new UnsupportedOperationException("unbind");
+			this.bindings.remove(property);
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: This method has no effect in this property implementation
+		 * The change listeners of this property are executed if the value
+		 * of its condition has changed, but the condition itself is not
+		 * updated.
 		 */
 		@Override
 		public void update() {
+			super.update();
+			bindings.update(this);
 		}
 		
 		/**
@@ -221,7 +623,18 @@ public final class Bindings {
 		
 	}
 	
-	public static final class PropertyBinding<T> implements Property<T> {
+	/**
+	 * A special-purpose property class holding one of two values depending
+	 * on a binding condition.
+	 * <p>
+	 * A property binding caches its selected value, which is only selected
+	 * again once the version of its condition changes, or once the property
+	 * is reconfigured. It is observable like any other property, and can
+	 * serve as the root of dominant bindings, although it cannot be set.
+	 * 
+	 * @author Max D
+	 */
+	public static final class PropertyBinding<T> extends ObservableImpl<T> implements Property<T> {
 		
 		private static final long serialVersionUID = 3391680427931946069L;
 		
@@ -237,23 +650,48 @@ public final class Bindings {
 		private T whenTrue;
 		private T whenFalse;
 		
+		/**
+		 * The number of times this property has been reconfigured.
+		 */
+		private long modifications;
+		
+		/**
+		 * The cached selected value, and the version of this property when
+		 * it was selected.
+		 */
+		private T value;
+		private long version = -1;
+		
+		/**
+		 * The bindings of this property, by guest property
+		 */
+		private final BindingSet<T> bindings;
+		
 		/**
 		 * Creates a new property with no conditions or values.
 		 */
 		private PropertyBinding() {
+			super(new ObservableArrayList<>(), new ObservableArrayList<>(), null);
 			this.condition = null;
 			this.whenTrue = null;
 			this.whenFalse = null;
+			this.bindings = new BindingSet<T>();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The value is only selected again if the version of this property
+		 * has changed since it was last selected.
 		 */
 		@Override
-		public void addListener(ChangeListener<T> listener) {
-			throw new UnsupportedOperationException("addListener");
+		public T get() {
+			long version = getVersion();
+			if(version == -1 || version != this.version) {
+				this.value = condition == null || condition.get() ? whenTrue : whenFalse;
+				this.version = version;
+			}
+			return value;
 		}
 		
 		/**
@@ -262,56 +700,255 @@ public final class Bindings {
 		 * NOTE: Unsupported operation for this property implementation.
 		 */
 		@Override
-		public void removeListener(ChangeListener<T> listener) {
-			throw new UnsupportedOperationException("removeListener");
+		public void set(T value) {
+			throw new UnsupportedOperationException("set");
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The version of a property binding combines the number of times it
+		 * has been reconfigured, in its upper 32 bits, with the version of its
+		 * condition, and is {@code -1} if the condition keeps no version.
 		 */
 		@Override
-		public Collection<ChangeListener<T>> getListeners() {
-			throw new UnsupportedOperationException("getListeners");
+		public long getVersion() {
+			long version = condition == null ? 0 : condition.getVersion();
+			return version == -1 ? -1 : (modifications << 32) + version;
 		}
 		
 		/**
 		 * {@inheritDoc}
-		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
 		 */
 		@Override
-		public void addEventListener(EventListener listener) {
-			throw new UnsupportedOperationException("addEventListener");
+		protected T getValue() {
+			return get();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * As this property cannot be set, the binding order must give it
+		 * precedence over the guest property.
 		 */
 		@Override
-		public void removeEventListener(EventListener listener) {
-			throw new UnsupportedOperationException("removeEventListener");
+		public void bind(Property<T> property, BindingOrder order) {
+			this.bindings.add(this, property, order);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void unbind(Property<T> property) {
+			this.bindings.remove(property);
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The change listeners of this property are executed if its selected
+		 * value has changed, but its condition is not updated.
 		 */
 		@Override
-		public Collection<EventListener> getEventListeners() {
-			throw new UnsupportedOperationException("getEventListeners");
+		public void update() {
+			super.update();
+			bindings.update(this);
+		}
+		
+		/**
+		 * Sets the condition of this property.
+		 * 
+		 * @param condition	The condition that this property will contain.
+		 * @return			This property.
+		 */
+		public PropertyBinding<T> when(BindingCondition condition) {
+			this.condition = condition;
+			reconfigured();
+			return this;
+		}
+		
+		/**
+		 * Sets the <i>when-true</i> value of this property.
+		 * 
+		 * @param value	The <i>when-true</i> that this property will contain.
+		 * @return		This property.
+		 */
+		public PropertyBinding<T> then(T value) {
+			this.whenTrue = value;
+			reconfigured();
+			return this;
+		}
+		
+		/**
+		 * Sets the <i>when-false</i> value of this property.
+		 * 
+		 * @param value	The <i>when-false</i> that this property will contain.
+		 * @return		This property.
+		 */
+		public PropertyBinding<T> otherwise(T value) {
+			this.whenFalse = value;
+			reconfigured();
+			return this;
+		}
+		
+		/**
+		 * Counts a reconfiguration of this property, and takes the value
+		 * that it then holds as its last known value, so that configuring
+		 * the property is not registered as a change by the next update.
+		 */
+		private void reconfigured() {
+			this.modifications++;
+			resetLastValue();
+		}
+		
+	}
+	
+	/**
+	 * A catalyst for special-purpose properties holding one of many values
+	 * depending on the enum constant held by a key property.
+	 * 
+	 * @author Max D
+	 */
+	public static final class SwitchCondition<E extends Enum<E>> {
+		
+		/**
+		 * The key property upon which the created properties are based.
+		 */
+		private final Property<E> key;
+		
+		/**
+		 * Creates a new catalyst based on the given key property.
+		 * 
+		 * @param key	The key property.
+		 */
+		private SwitchCondition(Property<E> key) {
+			this.key = key;
+		}
+		
+		/**
+		 * Returns a new binding-intended property based upon the key of this
+		 * catalyst, holding the given value for the given constant.
+		 * 
+		 * @param <T>		The type of data that this property will contain
+		 * @param constant	The constant for which the property holds the value.
+		 * @param value		The value for the constant.
+		 * @return			The newly created binding-intended property.
+		 */
+		public <T> SelectBinding<E, T> on(E constant, T value) {
+			return new SelectBinding<E, T>(key, true).on(constant, value);
+		}
+		
+	}
+	
+	/**
+	 * A special-purpose property class holding one of many values depending
+	 * on the value of a key property.
+	 * <p>
+	 * The values are looked up in constant time, either in a hash table or,
+	 * for enum keys, in an array indexed by the ordinals of the constants.
+	 * The selected value is cached, and is only looked up again once the
+	 * version of the key property changes, or once the property is
+	 * reconfigured. It is observable like any other property, and can serve
+	 * as the root of dominant bindings, although it cannot be set.
+	 * 
+	 * @author Max D
+	 */
+	public static final class SelectBinding<K, T> extends ObservableImpl<T> implements Property<T> {
+		
+		private static final long serialVersionUID = -6049384211573905247L;
+		
+		/**
+		 * The key property upon which this property is based.
+		 */
+		private final Property<K> key;
+		
+		/**
+		 * Whether the values are indexed by the ordinals of enum keys.
+		 */
+		private final boolean ordinal;
+		
+		/**
+		 * The values of this property for each key, either hashed or indexed
+		 * by ordinal.
+		 */
+		private final HashMap<K, T> table;
+		private Object[] values;
+		
+		/**
+		 * Whether a value was given for each constant, indexed by ordinal.
+		 */
+		private boolean[] present;
+		
+		/**
+		 * The value that this property will reflect when there is none for
+		 * the key.
+		 */
+		private T otherwise;
+		
+		/**
+		 * The number of times this property has been reconfigured.
+		 */
+		private long modifications;
+		
+		/**
+		 * The cached selected value, and the version of this property when
+		 * it was selected.
+		 */
+		private T value;
+		private long version = -1;
+		
+		/**
+		 * The bindings of this property, by guest property
+		 */
+		private final BindingSet<T> bindings;
+		
+		/**
+		 * Creates a new property with no values.
+		 * 
+		 * @param key		The key property.
+		 * @param ordinal	Whether the values are indexed by the ordinals of enum keys.
+		 */
+		private SelectBinding(Property<K> key, boolean ordinal) {
+			super(new ObservableArrayList<>(), new ObservableArrayList<>(), null);
+			this.key = key;
+			this.ordinal = ordinal;
+			this.table = ordinal ? null : new HashMap<K, T>();
+			this.values = null;
+			this.present = null;
+			this.otherwise = null;
+			this.bindings = new BindingSet<T>();
 		}
 		
 		/**
 		 * {@inheritDoc}
+		 * <p>
+		 * The value is only looked up again if the version of this property
+		 * has changed since it was last selected.
 		 */
 		@Override
 		public T get() {
-			return condition == null || condition.get() ? whenTrue : whenFalse;
+			long version = getVersion();
+			if(version == -1 || version != this.version) {
+				this.value = lookup(key.get());
+				this.version = version;
+			}
+			return value;
+		}
+		
+		/**
+		 * Looks up the value of this property for the given key.
+		 */
+		@SuppressWarnings("unchecked")
+		private T lookup(K key) {
+			if(!ordinal) {
+				T value = table.get(key);
+				return value != null || table.containsKey(key) ? value : otherwise;
+			}
+			if(key == null || values == null)
+				return otherwise;
+			int index = ((Enum<?>) key).ordinal();
+			return present[index] ? (T) values[index] : otherwise;
 		}
 		
 		/**
@@ -327,63 +964,100 @@ public final class Bindings {
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * The version of a select binding combines the number of times it has
+		 * been reconfigured, in its upper 32 bits, with the version of its key
+		 * property, and is {@code -1} if the key property keeps no version.
 		 */
 		@Override
-		public void bind(Property<T> property, BindingOrder order) {
-			throw new UnsupportedOperationException("bind");
+		public long getVersion() {
+			long version = key.getVersion();
+			return version == -1 ? -1 : (modifications << 32) + version;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected T getValue() {
+			return get();
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: Unsupported operation for this property implementation.
+		 * As this property cannot be set, the binding order must give it
+		 * precedence over the guest property.
+		 */
+		@Override
+		public void bind(Property<T> property, BindingOrder order) {
+			this.bindings.add(this, property, order);
+		}
+		
+		/**
+		 * {@inheritDoc}
 		 */
 		@Override
 		public void unbind(Property<T> property) {
-			throw new UnsupportedOperationException("unbind");
+			this.bindings.remove(property);
 		}
 		
 		/**
 		 * {@inheritDoc}
 		 * <p>
-		 * NOTE: This method has no effect in this property implementation
+		 * The change listeners of this property are executed if its selected
+		 * value has changed, but its key property is not updated.
 		 */
 		@Override
 		public void update() {
+			super.update();
+			bindings.update(this);
 		}
 		
 		/**
-		 * Sets the condition of this property.
+		 * Sets the value of this property for the given key.
 		 * 
-		 * @param condition	The condition that this property will contain.
-		 * @return			This property.
+		 * @param key	The key, which must not be null for enum-keyed properties.
+		 * @param value	The value that this property will contain for the key.
+		 * @return		This property.
 		 */
-		public PropertyBinding<T> when(BindingCondition condition) {
-			this.condition = condition;
+		public SelectBinding<K, T> on(K key, T value) {
+			if(ordinal) {
+				Enum<?> constant = (Enum<?>) key;
+				if(values == null) {
+					int length = constant.getDeclaringClass().getEnumConstants().length;
+					values = new Object[length];
+					present = new boolean[length];
+				}
+				values[constant.ordinal()] = value;
+				present[constant.ordinal()] = true;
+			}
+			else
+				table.put(key, value);
+			reconfigured();
 			return this;
 		}
 		
 		/**
-		 * Sets the <i>when-true</i> value of this property.
+		 * Sets the value of this property for the keys that it holds no
+		 * value for.
 		 * 
-		 * @param value	The <i>when-true</i> that this property will contain.
+		 * @param value	The value that this property will contain for other keys.
 		 * @return		This property.
 		 */
-		public PropertyBinding<T> then(T value) {
-			this.whenTrue = value;
+		public SelectBinding<K, T> otherwise(T value) {
+			this.otherwise = value;
+			reconfigured();
 			return this;
 		}
 		
 		/**
-		 * Sets the <i>when-false</i> value of this property.
-		 * 
-		 * @param value	The <i>when-false</i> that this property will contain.
-		 * @return		This property.
+		 * Counts a reconfiguration of this property, and takes the value
+		 * that it then holds as its last known value, so that configuring
+		 * the property is not registered as a change by the next update.
 		 */
-		public PropertyBinding<T> otherwise(T value) {
-			this.whenFalse = value;
-			return this;
+		private void reconfigured() {
+			this.modifications++;
+			resetLastValue();
 		}
 		
 	}
@@ -0,0 +1,166 @@
+package celutils.beans.property;
+
+/**
+ * A read-only property holding the value of a logical expression over
+ * boolean properties and comparisons of numeric expressions.
+ * <p>
+ * Expressions are built with the methods of this class, of <a href=
+ * "#{@link}">{@link NumberExpression}</a> and of <a href="#{@link}">
+ * {@link Bindings}</a>, such as {@code Bindings.number(count).greaterThan(0)
+ * .and(enabled)}. As with numeric expressions, every expression holds a
+ * single tree of operations that is evaluated in a single pass on primitive
+ * values, and only once a property at a leaf of the tree has changed.
+ * <p>
+ * Boolean properties holding null are read as false. Expressions can be
+ * used as the conditions of <a href="#{@link}">{@link Bindings#when(Property)}
+ * </a>, and can be observed and bound, as long as they are never set.
+ * 
+ * @see NumberExpression
+ * @author Max D
+ */
+public final class BooleanExpression extends ExternalProperty<Boolean> {
+	
+	private static final long serialVersionUID = -3307815826640296121L;
+	
+	/**
+	 * The evaluator of this expression.
+	 */
+	private final ExpressionEvaluator<Boolean> evaluator;
+	
+	/**
+	 * The root of the tree of this expression.
+	 */
+	private final ExpressionNode node;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new expression given the root of its tree.
+	 * 
+	 * @param node	The root of the tree of the expression.
+	 */
+	BooleanExpression(ExpressionNode node) {
+		this(new Evaluator(node, false));
+	}
+	
+	/**
+	 * Creates a new expression given its evaluator.
+	 */
+	private BooleanExpression(ExpressionEvaluator<Boolean> evaluator) {
+		super(evaluator, value -> {
+			throw new UnsupportedOperationException("set");
+		});
+		this.evaluator = evaluator;
+		this.node = evaluator.node;
+	}
+	
+	/**
+	 * Returns the root of the tree of this expression.
+	 * 
+	 * @return	The root of the tree of this expression.
+	 */
+	ExpressionNode getNode() {
+		return node;
+	}
+	
+	/**
+	 * Returns an expression holding the conjunction of this expression
+	 * and the given property.
+	 * 
+	 * @param other	The boolean property to combine with.
+	 * @return		The expression of the conjunction.
+	 */
+	public BooleanExpression and(Property<Boolean> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.AND, node, ExpressionNode.bool(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the disjunction of this expression
+	 * and the given property.
+	 * 
+	 * @param other	The boolean property to combine with.
+	 * @return		The expression of the disjunction.
+	 */
+	public BooleanExpression or(Property<Boolean> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.OR, node, ExpressionNode.bool(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the negation of this expression.
+	 * 
+	 * @return	The expression of the negation.
+	 */
+	public BooleanExpression not() {
+		return new BooleanExpression(ExpressionNode.unary(ExpressionNode.NOT, node));
+	}
+	
+	/**
+	 * Returns an expression with the same tree as this expression, which is
+	 * evaluated by straight-line code generated at runtime rather than by
+	 * interpreting the tree. The generated code reads every property at the
+	 * leaves of the tree once, and then computes the value on primitives
+	 * without branching or dispatching between nodes, so that the whole
+	 * computation can be inlined by the just-in-time compiler.
+	 * <p>
+	 * The code is defined as a hidden class of this package. If the runtime
+	 * does not support hidden classes, or the class cannot be defined, then
+	 * the returned expression interprets the tree like this one.
+	 * 
+	 * @return	The compiled expression.
+	 */
+	public BooleanExpression compile() {
+		return evaluator.isCompiled() ? this : new BooleanExpression(new Evaluator(node, true));
+	}
+	
+	/**
+	 * Returns whether or not this expression is evaluated by code generated
+	 * at runtime. See <a href="#{@link}">{@link #compile()}</a>.
+	 * 
+	 * @return	Whether or not this expression is compiled.
+	 */
+	public boolean isCompiled() {
+		return evaluator.isCompiled();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of an expression changes whenever the version of any
+	 * property at its leaves changes, and is {@code -1} if any of those
+	 * properties keeps no version.
+	 */
+	@Override
+	public long getVersion() {
+		return evaluator.getVersion();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<Boolean> getPropertyType() {
+		return Boolean.class;
+	}
+	
+	/**
+	 * The evaluator of a boolean expression.
+	 */
+	private static final class Evaluator extends ExpressionEvaluator<Boolean> {
+		
+		private static final long serialVersionUID = 2279131874461850312L;
+		
+		private Evaluator(ExpressionNode node, boolean compiled) {
+			super(node, compiled);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Boolean evaluate(Boolean previous) {
+			return Boolean.valueOf(code.test(leaves));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,32 @@
+package celutils.beans.property;
+
+/**
+ * Package-level interface.
+ * <p>
+ * The code evaluating the tree of an expression. It is implemented by the
+ * tree itself, which interprets its nodes, and by the classes generated by
+ * <a href="#{@link}">{@link ExpressionCompiler}</a>.
+ * 
+ * @author Max D
+ */
+interface ExpressionCode {
+	
+	/**
+	 * Evaluates a numeric expression.
+	 * 
+	 * @param leaves	The properties at the leaves of the expression, in the order
+	 * 					collected by <a href="#{@link}">{@link ExpressionNode#collectLeaves(java.util.List)}</a>.
+	 * @return			The value of the expression.
+	 */
+	public double number(Property<?>[] leaves);
+	
+	/**
+	 * Evaluates a boolean expression.
+	 * 
+	 * @param leaves	The properties at the leaves of the expression, in the order
+	 * 					collected by <a href="#{@link}">{@link ExpressionNode#collectLeaves(java.util.List)}</a>.
+	 * @return			The value of the expression.
+	 */
+	public boolean test(Property<?>[] leaves);
+	
+}
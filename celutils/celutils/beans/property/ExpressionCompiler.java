@@ -0,0 +1,558 @@
+package celutils.beans.property;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Package-level class.
+ * <p>
+ * Compiles the tree of an expression into a class implementing <a href=
+ * "#{@link}">{@link ExpressionCode}</a>, defined at runtime as a hidden
+ * class of this package.
+ * <p>
+ * The generated code first reads every property at the leaves of the tree
+ * into a local variable, and then computes the value of the tree on those
+ * variables. Comparisons are computed arithmetically from the results of
+ * the {@code dcmpl} and {@code dcmpg} instructions, and conjunctions and
+ * disjunctions with bitwise operations, so that the code is straight-line,
+ * and needs no stack map frames. Unlike the interpreter, the operands of a
+ * conjunction or disjunction are therefore both evaluated, which has no
+ * visible effect as long as reading a property has none.
+ * <p>
+ * Hidden classes are defined reflectively, so that this class may be loaded
+ * by runtimes that do not support them. Whenever a class cannot be defined,
+ * the tree is returned to be interpreted instead.
+ * 
+ * @author Max D
+ */
+final class ExpressionCompiler {
+	
+	/**
+	 * The method defining hidden classes, and the empty array of options
+	 * given to it, or null if the runtime does not support hidden classes.
+	 */
+	private static final Method DEFINE_HIDDEN_CLASS;
+	private static final Object NO_OPTIONS;
+	
+	static {
+		Method define = null;
+		Object options = null;
+		try {
+			Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			options = Array.newInstance(option, 0);
+			define = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass());
+		}
+		catch(ReflectiveOperationException | LinkageError e) {
+			define = null;
+		}
+		DEFINE_HIDDEN_CLASS = define;
+		NO_OPTIONS = options;
+	}
+	
+	/**
+	 * The internal names and descriptors used by the generated code.
+	 */
+	private static final String NAME = "celutils/beans/property/CompiledExpression";
+	private static final String OWNER = "celutils/beans/property/ExpressionCompiler";
+	private static final String CODE = "celutils/beans/property/ExpressionCode";
+	private static final String LEAVES = "[Lcelutils/beans/property/Property;";
+	private static final String READ = "(Lcelutils/beans/property/Property;)";
+	
+	/**
+	 * The opcodes used by the generated code.
+	 */
+	private static final int ICONST_M1 = 0x02, ICONST_0 = 0x03, ICONST_1 = 0x04, DCONST_0 = 0x0e, DCONST_1 = 0x0f;
+	private static final int BIPUSH = 0x10, SIPUSH = 0x11, LDC2_W = 0x14;
+	private static final int ILOAD = 0x15, DLOAD = 0x18, ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, AALOAD = 0x32;
+	private static final int ISTORE = 0x36, DSTORE = 0x39, DUP = 0x59;
+	private static final int DADD = 0x63, ISUB = 0x64, DSUB = 0x67, IMUL = 0x68, DMUL = 0x6b, DDIV = 0x6f;
+	private static final int INEG = 0x74, DNEG = 0x77, IUSHR = 0x7c, IAND = 0x7e, IOR = 0x80, IXOR = 0x82;
+	private static final int DCMPL = 0x97, DCMPG = 0x98;
+	private static final int IRETURN = 0xac, DRETURN = 0xaf, RETURN = 0xb1;
+	private static final int INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, WIDE = 0xc4;
+	
+	/**
+	 * The maximum length of the code of a method.
+	 */
+	private static final int MAX_CODE = 65535;
+	
+	/**
+	 * Private constructor, as this is a utility class.
+	 */
+	private ExpressionCompiler() {
+	}
+	
+	/**
+	 * Compiles the given expression tree, or returns the tree itself to be
+	 * interpreted if it cannot be compiled.
+	 * 
+	 * @param node		The root of the tree of the expression.
+	 * @param leaves	The properties at the leaves of the tree, in the order
+	 * 					in which they are given to the generated code.
+	 * @return			The code evaluating the expression.
+	 */
+	static ExpressionCode compile(ExpressionNode node, Property<?>[] leaves) {
+		if(DEFINE_HIDDEN_CLASS == null || leaves.length > Short.MAX_VALUE)
+			return node;
+		try {
+			byte[] bytes = new ClassWriter(node, leaves).write();
+			if(bytes == null)
+				return node;
+			MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(MethodHandles.lookup(), bytes, false, NO_OPTIONS);
+			return (ExpressionCode) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+		}
+		catch(Throwable e) {
+			return node;
+		}
+	}
+	
+	/**
+	 * Reads a numeric property for the generated code. A property holding
+	 * null is read as {@code NaN}.
+	 * 
+	 * @param property	The property to read.
+	 * @return			The value of the property.
+	 */
+	static double number(Property<?> property) {
+		Number value = (Number) property.get();
+		return value == null ? Double.NaN : value.doubleValue();
+	}
+	
+	/**
+	 * Reads a boolean property for the generated code. A property holding
+	 * null is read as false.
+	 * 
+	 * @param property	The property to read.
+	 * @return			The value of the property.
+	 */
+	static boolean bool(Property<?> property) {
+		return Boolean.TRUE.equals(property.get());
+	}
+	
+	/**
+	 * Writes the class file of a compiled expression.
+	 */
+	private static final class ClassWriter {
+		
+		private final ExpressionNode node;
+		private final Property<?>[] leaves;
+		
+		/**
+		 * The constant pool, and the indices of its entries by their contents.
+		 */
+		private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+		private final DataOutputStream poolOut = new DataOutputStream(pool);
+		private final Map<Object, Integer> entries = new HashMap<Object, Integer>();
+		private int poolCount = 1;
+		
+		/**
+		 * The local variables holding the value of each leaf property, for
+		 * numeric and boolean leaves respectively.
+		 */
+		private final Map<Property<?>, Integer> numberSlots = new IdentityHashMap<Property<?>, Integer>();
+		private final Map<Property<?>, Integer> boolSlots = new IdentityHashMap<Property<?>, Integer>();
+		private int locals = 2;
+		
+		/**
+		 * The code of the method being written, and its current and maximum
+		 * operand stack depths.
+		 */
+		private ByteArrayOutputStream code;
+		private int stack;
+		private int maxStack;
+		
+		private ClassWriter(ExpressionNode node, Property<?>[] leaves) {
+			this.node = node;
+			this.leaves = leaves;
+		}
+		
+		/**
+		 * Writes the class file, or returns null if the code of the expression
+		 * is too large for a single method.
+		 */
+		private byte[] write() throws IOException {
+			int thisClass = classEntry(NAME);
+			int superClass = classEntry("java/lang/Object");
+			int codeInterface = classEntry(CODE);
+			
+			byte[] constructor = method("<init>", "()V", constructorCode());
+			byte[] number = method("number", "(" + LEAVES + ")D", node.isNumeric() ? expressionCode() : defaultCode(true));
+			byte[] test = method("test", "(" + LEAVES + ")Z", node.isNumeric() ? defaultCode(false) : expressionCode());
+			if(constructor == null || number == null || test == null)
+				return null;
+				
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(52);
+			out.writeShort(poolCount);
+			out.write(pool.toByteArray());
+			out.writeShort(0x0010 | 0x0020);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(1);
+			out.writeShort(codeInterface);
+			out.writeShort(0);
+			out.writeShort(3);
+			out.write(constructor);
+			out.write(number);
+			out.write(test);
+			out.writeShort(0);
+			return bytes.toByteArray();
+		}
+		
+		/**
+		 * Writes the code of the constructor.
+		 */
+		private byte[] constructorCode() throws IOException {
+			begin();
+			op(ALOAD_0, 1);
+			invoke(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", -1);
+			op(RETURN, 0);
+			return code.toByteArray();
+		}
+		
+		/**
+		 * Writes the code of the method that does not apply to the type of
+		 * the expression, which returns zero.
+		 */
+		private byte[] defaultCode(boolean numeric) throws IOException {
+			begin();
+			if(numeric) {
+				op(DCONST_0, 2);
+				op(DRETURN, -2);
+			}
+			else {
+				op(ICONST_0, 1);
+				op(IRETURN, -1);
+			}
+			return code.toByteArray();
+		}
+		
+		/**
+		 * Writes the code evaluating the expression, which first reads every
+		 * leaf into a local variable.
+		 */
+		private byte[] expressionCode() throws IOException {
+			begin();
+			numberSlots.clear();
+			boolSlots.clear();
+			locals = 2;
+			load(node);
+			emit(node);
+			if(node.isNumeric())
+				op(DRETURN, -2);
+			else
+				op(IRETURN, -1);
+			return code.size() > MAX_CODE ? null : code.toByteArray();
+		}
+		
+		/**
+		 * Writes the code reading every leaf below the given node into its
+		 * local variable.
+		 */
+		private void load(ExpressionNode node) throws IOException {
+			if(node.op == ExpressionNode.NUMBER || node.op == ExpressionNode.BOOLEAN) {
+				boolean numeric = node.op == ExpressionNode.NUMBER;
+				Map<Property<?>, Integer> slots = numeric ? numberSlots : boolSlots;
+				if(slots.containsKey(node.property))
+					return;
+				op(ALOAD_1, 1);
+				push(indexOf(node.property));
+				op(AALOAD, -1);
+				int slot = locals;
+				if(numeric) {
+					invoke(INVOKESTATIC, OWNER, "number", READ + "D", 1);
+					local(DSTORE, slot, -2);
+					locals += 2;
+				}
+				else {
+					invoke(INVOKESTATIC, OWNER, "bool", READ + "Z", 0);
+					local(ISTORE, slot, -1);
+					locals += 1;
+				}
+				slots.put(node.property, slot);
+				return;
+			}
+			if(node.left != null)
+				load(node.left);
+			if(node.right != null)
+				load(node.right);
+		}
+		
+		/**
+		 * Writes the code computing the value of the given node.
+		 */
+		private void emit(ExpressionNode node) throws IOException {
+			switch(node.op) {
+			case ExpressionNode.NUMBER:
+				local(DLOAD, numberSlots.get(node.property), 2);
+				return;
+			case ExpressionNode.BOOLEAN:
+				local(ILOAD, boolSlots.get(node.property), 1);
+				return;
+			case ExpressionNode.CONSTANT:
+				if(Double.doubleToRawLongBits(node.constant) == 0L)
+					op(DCONST_0, 2);
+				else if(node.constant == 1.0)
+					op(DCONST_1, 2);
+				else {
+					op(LDC2_W, 2);
+					u2(doubleEntry(node.constant));
+				}
+				return;
+			case ExpressionNode.TRUE:
+				op(ICONST_1, 1);
+				return;
+			case ExpressionNode.FALSE:
+				op(ICONST_0, 1);
+				return;
+			case ExpressionNode.NEGATE:
+				emit(node.left);
+				op(DNEG, 0);
+				return;
+			case ExpressionNode.NOT:
+				emit(node.left);
+				op(ICONST_1, 1);
+				op(IXOR, -1);
+				return;
+			default:
+				break;
+			}
+			
+			emit(node.left);
+			emit(node.right);
+			switch(node.op) {
+			case ExpressionNode.ADD:		op(DADD, -2); break;
+			case ExpressionNode.SUBTRACT:	op(DSUB, -2); break;
+			case ExpressionNode.MULTIPLY:	op(DMUL, -2); break;
+			case ExpressionNode.DIVIDE:		op(DDIV, -2); break;
+			case ExpressionNode.MIN:		invoke(INVOKESTATIC, "java/lang/Math", "min", "(DD)D", -2); break;
+			case ExpressionNode.MAX:		invoke(INVOKESTATIC, "java/lang/Math", "max", "(DD)D", -2); break;
+			case ExpressionNode.AND:		op(IAND, -1); break;
+			case ExpressionNode.OR:			op(IOR, -1); break;
+			
+			/* dcmpg yields 1 if either operand is NaN, so a < b iff the result is negative */
+			case ExpressionNode.LESS:
+				op(DCMPG, -3);
+				signBit();
+				break;
+				
+			/* a <= b iff dcmpg yields 0 or -1, that is iff its result minus 1 is negative */
+			case ExpressionNode.LESS_OR_EQUAL:
+				op(DCMPG, -3);
+				op(ICONST_1, 1);
+				op(ISUB, -1);
+				signBit();
+				break;
+				
+			/* dcmpl yields -1 if either operand is NaN, so a > b iff its negation is negative */
+			case ExpressionNode.GREATER:
+				op(DCMPL, -3);
+				op(INEG, 0);
+				signBit();
+				break;
+				
+			/* a >= b iff dcmpl yields 0 or 1, that is iff its complement is negative */
+			case ExpressionNode.GREATER_OR_EQUAL:
+				op(DCMPL, -3);
+				op(ICONST_M1, 1);
+				op(IXOR, -1);
+				signBit();
+				break;
+				
+			/* The square of the result of dcmpl is 0 iff a == b, and 1 otherwise */
+			case ExpressionNode.EQUAL:
+				op(DCMPL, -3);
+				op(DUP, 1);
+				op(IMUL, -1);
+				op(ICONST_1, 1);
+				op(IXOR, -1);
+				break;
+			case ExpressionNode.NOT_EQUAL:
+				op(DCMPL, -3);
+				op(DUP, 1);
+				op(IMUL, -1);
+				break;
+			default:
+				throw new IllegalStateException("Unknown operation " + node.op);
+			}
+		}
+		
+		/**
+		 * Writes the code replacing the integer on the stack by its sign bit.
+		 */
+		private void signBit() {
+			op(BIPUSH, 1);
+			code.write(31);
+			op(IUSHR, -1);
+		}
+		
+		/**
+		 * Returns the index of the given leaf property.
+		 */
+		private int indexOf(Property<?> property) {
+			for(int i = 0; i < leaves.length; i++) {
+				if(leaves[i] == property)
+					return i;
+			}
+			throw new IllegalStateException("Unknown leaf");
+		}
+		
+		/**
+		 * Starts writing the code of a method.
+		 */
+		private void begin() {
+			code = new ByteArrayOutputStream();
+			stack = 0;
+			maxStack = 0;
+		}
+		
+		/**
+		 * Writes an instruction, given its effect on the depth of the stack.
+		 */
+		private void op(int opcode, int effect) {
+			code.write(opcode);
+			stack += effect;
+			maxStack = Math.max(maxStack, stack);
+		}
+		
+		/**
+		 * Writes an instruction pushing an integer constant.
+		 */
+		private void push(int value) {
+			if(value <= 5)
+				op(ICONST_0 + value, 1);
+			else if(value <= Byte.MAX_VALUE) {
+				op(BIPUSH, 1);
+				code.write(value);
+			}
+			else {
+				op(SIPUSH, 1);
+				u2(value);
+			}
+		}
+		
+		/**
+		 * Writes an instruction accessing a local variable.
+		 */
+		private void local(int opcode, int slot, int effect) {
+			if(slot <= 0xff) {
+				op(opcode, effect);
+				code.write(slot);
+			}
+			else {
+				code.write(WIDE);
+				op(opcode, effect);
+				u2(slot);
+			}
+		}
+		
+		/**
+		 * Writes a method invocation, given its effect on the depth of the stack.
+		 */
+		private void invoke(int opcode, String owner, String name, String descriptor, int effect) throws IOException {
+			op(opcode, effect);
+			u2(methodEntry(owner, name, descriptor));
+		}
+		
+		/**
+		 * Writes an unsigned two-byte value into the code.
+		 */
+		private void u2(int value) {
+			code.write(value >>> 8);
+			code.write(value);
+		}
+		
+		/**
+		 * Writes a method with the given code, or returns null if the code is
+		 * too large.
+		 */
+		private byte[] method(String name, String descriptor, byte[] body) throws IOException {
+			if(body == null || locals > 0xffff)
+				return null;
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeShort(0x0001);
+			out.writeShort(utf8Entry(name));
+			out.writeShort(utf8Entry(descriptor));
+			out.writeShort(1);
+			out.writeShort(utf8Entry("Code"));
+			out.writeInt(12 + body.length);
+			out.writeShort(maxStack);
+			out.writeShort(Math.max(locals, 2));
+			out.writeInt(body.length);
+			out.write(body);
+			out.writeShort(0);
+			out.writeShort(0);
+			return bytes.toByteArray();
+		}
+		
+		/**
+		 * Returns the index of a constant pool entry, adding it if needed.
+		 */
+		private int utf8Entry(String value) throws IOException {
+			Integer index = entries.get("U" + value);
+			if(index != null)
+				return index;
+			poolOut.writeByte(1);
+			poolOut.writeUTF(value);
+			entries.put("U" + value, poolCount);
+			return poolCount++;
+		}
+		
+		private int classEntry(String name) throws IOException {
+			Integer index = entries.get("C" + name);
+			if(index != null)
+				return index;
+			int utf8 = utf8Entry(name);
+			poolOut.writeByte(7);
+			poolOut.writeShort(utf8);
+			entries.put("C" + name, poolCount);
+			return poolCount++;
+		}
+		
+		private int methodEntry(String owner, String name, String descriptor) throws IOException {
+			String key = "M" + owner + "." + name + descriptor;
+			Integer index = entries.get(key);
+			if(index != null)
+				return index;
+			int ownerIndex = classEntry(owner);
+			int nameIndex = utf8Entry(name);
+			int descriptorIndex = utf8Entry(descriptor);
+			poolOut.writeByte(12);
+			poolOut.writeShort(nameIndex);
+			poolOut.writeShort(descriptorIndex);
+			int nameAndType = poolCount++;
+			poolOut.writeByte(10);
+			poolOut.writeShort(ownerIndex);
+			poolOut.writeShort(nameAndType);
+			entries.put(key, poolCount);
+			return poolCount++;
+		}
+		
+		private int doubleEntry(double value) throws IOException {
+			Long key = Double.doubleToRawLongBits(value);
+			Integer index = entries.get(key);
+			if(index != null)
+				return index;
+			poolOut.writeByte(6);
+			poolOut.writeDouble(value);
+			entries.put(key, poolCount);
+			int result = poolCount;
+			poolCount += 2;
+			return result;
+		}
+		
+	}
+	
+}
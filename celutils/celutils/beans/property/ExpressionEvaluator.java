@@ -0,0 +1,149 @@
+package celutils.beans.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import celutils.misc.IGetter;
+
+/**
+ * Package-level class.
+ * <p>
+ * The getter of an expression property, which caches the value of the
+ * expression and only evaluates its tree again once one of the properties
+ * at its leaves has changed.
+ * <p>
+ * A leaf is known to be unchanged if it keeps a version that is equal to
+ * the one read before the previous evaluation. Expressions with a leaf that
+ * keeps no version are evaluated on every read, although still in a single
+ * pass on primitive values.
+ * 
+ * @param <T>	The type of value of the expression.
+ * 
+ * @author Max D
+ */
+abstract class ExpressionEvaluator<T> implements IGetter<T> {
+	
+	private static final long serialVersionUID = -4785413302516247019L;
+	
+	/**
+	 * The root of the tree of the expression.
+	 */
+	final ExpressionNode node;
+	
+	/**
+	 * Whether or not the expression is to be compiled.
+	 */
+	private final boolean compiled;
+	
+	/**
+	 * The code evaluating the expression. Generated code is not serialized,
+	 * and is generated again when first needed after deserialization.
+	 */
+	transient ExpressionCode code;
+	
+	/**
+	 * The properties read by the expression, and their versions before the
+	 * previous evaluation.
+	 */
+	final Property<?>[] leaves;
+	private final long[] versions;
+	
+	/**
+	 * Whether or not the expression has been evaluated.
+	 */
+	private boolean evaluated;
+	
+	/**
+	 * The cached value of the expression.
+	 */
+	private T value;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new evaluator of the given expression tree, which is either
+	 * interpreted or compiled.
+	 * 
+	 * @param node		The root of the tree of the expression.
+	 * @param compiled	Whether or not to compile the tree.
+	 */
+	ExpressionEvaluator(ExpressionNode node, boolean compiled) {
+		List<Property<?>> leaves = new ArrayList<Property<?>>();
+		node.collectLeaves(leaves);
+		this.node = node;
+		this.leaves = leaves.toArray(new Property<?>[leaves.size()]);
+		this.versions = new long[this.leaves.length];
+		this.compiled = compiled;
+		this.code = code();
+	}
+	
+	/**
+	 * Returns the code evaluating the expression, generating it if needed.
+	 */
+	private ExpressionCode code() {
+		if(code == null)
+			code = compiled ? ExpressionCompiler.compile(node, leaves) : node;
+		return code;
+	}
+	
+	/**
+	 * Returns whether or not the expression is evaluated by compiled code.
+	 * 
+	 * @return	Whether or not the expression is compiled.
+	 */
+	boolean isCompiled() {
+		return code() != node;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The expression is only evaluated if any of its leaves may have
+	 * changed since it was last evaluated.
+	 */
+	@Override
+	public final T get() {
+		boolean changed = !evaluated;
+		for(int i = 0; i < leaves.length; i++) {
+			long version = leaves[i].getVersion();
+			if(version == -1 || version != versions[i]) {
+				versions[i] = version;
+				changed = true;
+			}
+		}
+		if(changed) {
+			code();
+			value = evaluate(evaluated ? value : null);
+			evaluated = true;
+		}
+		return value;
+	}
+	
+	/**
+	 * Returns the version of the expression, which is the sum of the
+	 * versions of its leaves, or {@code -1} if any leaf keeps no version.
+	 * As versions only increase, the sum changes whenever any of them does.
+	 * 
+	 * @return	The version of the expression.
+	 */
+	long getVersion() {
+		long sum = 0;
+		for(Property<?> leaf : leaves) {
+			long version = leaf.getVersion();
+			if(version == -1)
+				return -1;
+			sum += version;
+		}
+		return sum;
+	}
+	
+	/**
+	 * Evaluates the tree of the expression.
+	 * 
+	 * @param previous	The previous value of the expression, or null if there is none.
+	 * @return			The new value of the expression, which is the previous value
+	 * 					if the result is unchanged.
+	 */
+	abstract T evaluate(T previous);
+	
+}
@@ -0,0 +1,231 @@
+package celutils.beans.property;
+
+import java.util.List;
+
+/**
+ * Package-level class.
+ * <p>
+ * A node of the tree of an expression over numeric and boolean properties,
+ * as built by <a href="#{@link}">{@link NumberExpression}</a> and <a href=
+ * "#{@link}">{@link BooleanExpression}</a>.
+ * <p>
+ * Nodes are immutable and hold no intermediate results. The whole tree is
+ * evaluated in a single pass on primitive values, reading each property at
+ * its leaves, so that combining expressions neither allocates nor caches at
+ * every level. Numeric nodes evaluate to a double and boolean nodes to a
+ * boolean.
+ * <p>
+ * The tree also serves as the interpreted code of its expression, for
+ * expressions that are not compiled.
+ * 
+ * @author Max D
+ */
+final class ExpressionNode implements ExpressionCode, java.io.Serializable {
+	
+	private static final long serialVersionUID = 1470834418325542390L;
+	
+	/**
+	 * The operations of numeric nodes.
+	 */
+	static final int NUMBER = 0;
+	static final int CONSTANT = 1;
+	static final int NEGATE = 2;
+	static final int ADD = 3;
+	static final int SUBTRACT = 4;
+	static final int MULTIPLY = 5;
+	static final int DIVIDE = 6;
+	static final int MIN = 7;
+	static final int MAX = 8;
+	
+	/**
+	 * The operations of boolean nodes.
+	 */
+	static final int BOOLEAN = 9;
+	static final int TRUE = 10;
+	static final int FALSE = 11;
+	static final int NOT = 12;
+	static final int AND = 13;
+	static final int OR = 14;
+	static final int LESS = 15;
+	static final int LESS_OR_EQUAL = 16;
+	static final int GREATER = 17;
+	static final int GREATER_OR_EQUAL = 18;
+	static final int EQUAL = 19;
+	static final int NOT_EQUAL = 20;
+	
+	/**
+	 * The operation of this node.
+	 */
+	final int op;
+	
+	/**
+	 * The operands of this node, if it is not a leaf.
+	 */
+	final ExpressionNode left;
+	final ExpressionNode right;
+	
+	/**
+	 * The property read by this node, if it is a property leaf.
+	 */
+	final Property<?> property;
+	
+	/**
+	 * The value of this node, if it is a numeric constant.
+	 */
+	final double constant;
+	
+	/**
+	 * Creates a new node given all of its fields.
+	 */
+	private ExpressionNode(int op, ExpressionNode left, ExpressionNode right, Property<?> property, double constant) {
+		this.op = op;
+		this.left = left;
+		this.right = right;
+		this.property = property;
+		this.constant = constant;
+	}
+	
+	/**
+	 * Creates a leaf reading the given numeric property.
+	 */
+	static ExpressionNode number(Property<? extends Number> property) {
+		if(property == null) throw new NullPointerException("property");
+		if(property instanceof NumberExpression)
+			return ((NumberExpression) property).getNode();
+		return new ExpressionNode(NUMBER, null, null, property, 0);
+	}
+	
+	/**
+	 * Creates a leaf reading the given boolean property.
+	 */
+	static ExpressionNode bool(Property<Boolean> property) {
+		if(property == null) throw new NullPointerException("property");
+		if(property instanceof BooleanExpression)
+			return ((BooleanExpression) property).getNode();
+		return new ExpressionNode(BOOLEAN, null, null, property, 0);
+	}
+	
+	/**
+	 * Creates a numeric constant.
+	 */
+	static ExpressionNode constant(double value) {
+		return new ExpressionNode(CONSTANT, null, null, null, value);
+	}
+	
+	/**
+	 * Creates a boolean constant.
+	 */
+	static ExpressionNode constant(boolean value) {
+		return new ExpressionNode(value ? TRUE : FALSE, null, null, null, 0);
+	}
+	
+	/**
+	 * Creates a node applying a unary operation.
+	 */
+	static ExpressionNode unary(int op, ExpressionNode operand) {
+		return new ExpressionNode(op, operand, null, null, 0);
+	}
+	
+	/**
+	 * Creates a node applying a binary operation.
+	 */
+	static ExpressionNode binary(int op, ExpressionNode left, ExpressionNode right) {
+		return new ExpressionNode(op, left, right, null, 0);
+	}
+	
+	/**
+	 * Returns whether or not this node evaluates to a number.
+	 */
+	boolean isNumeric() {
+		return op <= MAX;
+	}
+	
+	/**
+	 * Evaluates this numeric node. A numeric property holding null is
+	 * read as {@code NaN}.
+	 * 
+	 * @return	The value of this node.
+	 */
+	double number() {
+		switch(op) {
+		case NUMBER:
+			Number value = (Number) property.get();
+			return value == null ? Double.NaN : value.doubleValue();
+		case CONSTANT:			return constant;
+		case NEGATE:			return -left.number();
+		case ADD:				return left.number() + right.number();
+		case SUBTRACT:			return left.number() - right.number();
+		case MULTIPLY:			return left.number() * right.number();
+		case DIVIDE:			return left.number() / right.number();
+		case MIN:				return Math.min(left.number(), right.number());
+		case MAX:				return Math.max(left.number(), right.number());
+		default:				throw new IllegalStateException("Not a numeric node");
+		}
+	}
+	
+	/**
+	 * Evaluates this boolean node. A boolean property holding null is
+	 * read as false.
+	 * 
+	 * @return	The value of this node.
+	 */
+	boolean test() {
+		switch(op) {
+		case BOOLEAN:			return Boolean.TRUE.equals(property.get());
+		case TRUE:				return true;
+		case FALSE:				return false;
+		case NOT:				return !left.test();
+		case AND:				return left.test() && right.test();
+		case OR:				return left.test() || right.test();
+		case LESS:				return left.number() < right.number();
+		case LESS_OR_EQUAL:		return left.number() <= right.number();
+		case GREATER:			return left.number() > right.number();
+		case GREATER_OR_EQUAL:	return left.number() >= right.number();
+		case EQUAL:				return left.number() == right.number();
+		case NOT_EQUAL:			return left.number() != right.number();
+		default:				throw new IllegalStateException("Not a boolean node");
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The tree is interpreted, reading the properties at its leaves from
+	 * the nodes themselves.
+	 */
+	@Override
+	public double number(Property<?>[] leaves) {
+		return number();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The tree is interpreted, reading the properties at its leaves from
+	 * the nodes themselves.
+	 */
+	@Override
+	public boolean test(Property<?>[] leaves) {
+		return test();
+	}
+	
+	/**
+	 * Adds every property read by this node to the given list, once each.
+	 * 
+	 * @param leaves	The list of properties.
+	 */
+	void collectLeaves(List<Property<?>> leaves) {
+		if(property != null) {
+			for(Property<?> leaf : leaves) {
+				if(leaf == property)
+					return;
+			}
+			leaves.add(property);
+		}
+		if(left != null)
+			left.collectLeaves(leaves);
+		if(right != null)
+			right.collectLeaves(leaves);
+	}
+	
+}
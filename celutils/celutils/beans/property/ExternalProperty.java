@@ -37,9 +37,9 @@ public abstract class ExternalProperty<T> extends ObservableImpl<T> implements P
 	private final ISetter<T> setter;
 	
 	/**
-	 * The list of this property's bindings
+	 * The bindings of this property, by guest property
 	 */
-	private final ObservableArrayList<Binding<T>> bindings;
+	private final BindingSet<T> bindings;
 	
 	/**
 	 * Creates a new external property given the getter and setter
@@ -54,7 +54,7 @@ public abstract class ExternalProperty<T> extends ObservableImpl<T> implements P
 		super(new ObservableArrayList<>(), new ObservableArrayList<>(), getter.get());
 		this.getter = getter;
 		this.setter = setter;
-		this.bindings = new ObservableArrayList<Binding<T>>();
+		this.bindings = new BindingSet<T>();
 	}
 	
 	/**
@@ -105,7 +105,7 @@ public abstract class ExternalProperty<T> extends ObservableImpl<T> implements P
 	 */
 	@Override
 	public void bind(Property<T> property, BindingOrder order) {
-		this.bindings.add(new Binding<T>(this, property, order));
+		this.bindings.add(this, property, order);
 	}
 	
 	/**
@@ -113,7 +113,7 @@ public abstract class ExternalProperty<T> extends ObservableImpl<T> implements P
 	 */
 	@Override
 	public void unbind(Property<T> property) {
-		this.bindings.removeIf(binding -> binding.getGuest() == property);
+		this.bindings.remove(property);
 	}
 	
 	/**
@@ -122,8 +122,7 @@ public abstract class ExternalProperty<T> extends ObservableImpl<T> implements P
 	@Override
 	public void update() {
 		super.update();
-		for(Binding<T> binding : bindings)
-			binding.update();
+		bindings.update(this);
 	}
 	
 	/**
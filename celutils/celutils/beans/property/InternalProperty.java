@@ -28,9 +28,14 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	private T value;
 	
 	/**
-	 * The list of this property's bindings
+	 * The number of times the value of this property has been set
 	 */
-	private final ObservableArrayList<Binding<T>> bindings;
+	private long version;
+	
+	/**
+	 * The bindings of this property, by guest property
+	 */
+	private final BindingSet<T> bindings;
 	
 	/**
 	 * Creates a new internal property with a default value of
@@ -49,7 +54,7 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	protected InternalProperty(T value) {
 		super(new ObservableArrayList<>(), new ObservableArrayList<>(), value);
 		this.value = value;
-		this.bindings = new ObservableArrayList<Binding<T>>();
+		this.bindings = new BindingSet<T>();
 	}
 	
 	/**
@@ -64,6 +69,18 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	 */
 	public void set(T value) {
 		this.value = value;
+		this.version++;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of an internal property is incremented every time its
+	 * value is set.
+	 */
+	@Override
+	public long getVersion() {
+		return version;
 	}
 	
 	/**
@@ -79,7 +96,7 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	 */
 	@Override
 	public void bind(Property<T> property, BindingOrder order) {
-		this.bindings.add(new Binding<T>(this, property, order));
+		this.bindings.add(this, property, order);
 	}
 	
 	/**
@@ -87,7 +104,7 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	 */
 	@Override
 	public void unbind(Property<T> property) {
-		this.bindings.removeIf(binding -> binding.getGuest() == property);
+		this.bindings.remove(property);
 	}
 	
 	/**
@@ -96,8 +113,7 @@ public abstract class InternalProperty<T> extends ObservableImpl<T> implements P
 	@Override
 	public void update() {
 		super.update();
-		for(Binding<T> binding : bindings)
-			binding.update();
+		bindings.update(this);
 	}
 	
 	/**
@@ -0,0 +1,399 @@
+package celutils.beans.property;
+
+/**
+ * A read-only property holding the value of an arithmetic expression over
+ * numeric properties, evaluated as a double.
+ * <p>
+ * Expressions are built with the methods of this class and of <a href=
+ * "#{@link}">{@link Bindings}</a>, such as {@code Bindings.number(width)
+ * .multiply(height).add(margin)}. Every expression holds a single tree of
+ * operations, into which any expression used as an operand is inlined,
+ * so that the tree is evaluated in a single pass on primitive values no
+ * matter how many expressions it was built from. The value is cached and
+ * only evaluated again once a property at a leaf of the tree has changed.
+ * <p>
+ * Numeric properties holding null are read as {@code NaN}. As with other
+ * properties, expressions can be observed and bound, as long as they are
+ * never set.
+ * 
+ * @see BooleanExpression
+ * @author Max D
+ */
+public final class NumberExpression extends ExternalProperty<Double> {
+	
+	private static final long serialVersionUID = 6932701286152390486L;
+	
+	/**
+	 * The evaluator of this expression.
+	 */
+	private final ExpressionEvaluator<Double> evaluator;
+	
+	/**
+	 * The root of the tree of this expression.
+	 */
+	private final ExpressionNode node;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new expression given the root of its tree.
+	 * 
+	 * @param node	The root of the tree of the expression.
+	 */
+	NumberExpression(ExpressionNode node) {
+		this(new Evaluator(node, false));
+	}
+	
+	/**
+	 * Creates a new expression given its evaluator.
+	 */
+	private NumberExpression(ExpressionEvaluator<Double> evaluator) {
+		super(evaluator, value -> {
+			throw new UnsupportedOperationException("set");
+		});
+		this.evaluator = evaluator;
+		this.node = evaluator.node;
+	}
+	
+	/**
+	 * Returns the root of the tree of this expression.
+	 * 
+	 * @return	The root of the tree of this expression.
+	 */
+	ExpressionNode getNode() {
+		return node;
+	}
+	
+	/**
+	 * Returns an expression holding the sum of this expression and the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the sum.
+	 */
+	public NumberExpression add(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.ADD, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the sum of this expression and the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the sum.
+	 */
+	public NumberExpression add(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.ADD, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the difference of this expression and the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the difference.
+	 */
+	public NumberExpression subtract(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.SUBTRACT, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the difference of this expression and the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the difference.
+	 */
+	public NumberExpression subtract(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.SUBTRACT, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the product of this expression and the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the product.
+	 */
+	public NumberExpression multiply(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MULTIPLY, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the product of this expression and the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the product.
+	 */
+	public NumberExpression multiply(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MULTIPLY, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the quotient of this expression by the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the quotient.
+	 */
+	public NumberExpression divide(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.DIVIDE, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the quotient of this expression by the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the quotient.
+	 */
+	public NumberExpression divide(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.DIVIDE, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the minimum of this expression and the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the minimum.
+	 */
+	public NumberExpression min(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MIN, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the minimum of this expression and the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the minimum.
+	 */
+	public NumberExpression min(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MIN, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the maximum of this expression and the given property.
+	 * 
+	 * @param other	The numeric property to combine with.
+	 * @return		The expression of the maximum.
+	 */
+	public NumberExpression max(Property<? extends Number> other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MAX, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the maximum of this expression and the given constant.
+	 * 
+	 * @param other	The constant to combine with.
+	 * @return		The expression of the maximum.
+	 */
+	public NumberExpression max(double other) {
+		return new NumberExpression(ExpressionNode.binary(ExpressionNode.MAX, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression holding the negation of this expression.
+	 * 
+	 * @return	The expression of the negation.
+	 */
+	public NumberExpression negate() {
+		return new NumberExpression(ExpressionNode.unary(ExpressionNode.NEGATE, node));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is less than the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression lessThan(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.LESS, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is less than the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression lessThan(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.LESS, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is less than or equal to the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression lessThanOrEqual(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.LESS_OR_EQUAL, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is less than or equal to the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression lessThanOrEqual(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.LESS_OR_EQUAL, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is greater than the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression greaterThan(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.GREATER, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is greater than the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression greaterThan(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.GREATER, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is greater than or equal to the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression greaterThanOrEqual(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.GREATER_OR_EQUAL, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is greater than or equal to the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression greaterThanOrEqual(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.GREATER_OR_EQUAL, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is equal to the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression isEqualTo(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.EQUAL, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is equal to the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression isEqualTo(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.EQUAL, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is not equal to the given property.
+	 * 
+	 * @param other	The numeric property to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression isNotEqualTo(Property<? extends Number> other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.NOT_EQUAL, node, ExpressionNode.number(other)));
+	}
+	
+	/**
+	 * Returns a boolean expression holding whether or not this expression
+	 * is not equal to the given constant.
+	 * 
+	 * @param other	The constant to compare with.
+	 * @return		The expression of the comparison.
+	 */
+	public BooleanExpression isNotEqualTo(double other) {
+		return new BooleanExpression(ExpressionNode.binary(ExpressionNode.NOT_EQUAL, node, ExpressionNode.constant(other)));
+	}
+	
+	/**
+	 * Returns an expression with the same tree as this expression, which is
+	 * evaluated by straight-line code generated at runtime rather than by
+	 * interpreting the tree. The generated code reads every property at the
+	 * leaves of the tree once, and then computes the value on primitives
+	 * without branching or dispatching between nodes, so that the whole
+	 * computation can be inlined by the just-in-time compiler.
+	 * <p>
+	 * The code is defined as a hidden class of this package. If the runtime
+	 * does not support hidden classes, or the class cannot be defined, then
+	 * the returned expression interprets the tree like this one.
+	 * 
+	 * @return	The compiled expression.
+	 */
+	public NumberExpression compile() {
+		return evaluator.isCompiled() ? this : new NumberExpression(new Evaluator(node, true));
+	}
+	
+	/**
+	 * Returns whether or not this expression is evaluated by code generated
+	 * at runtime. See <a href="#{@link}">{@link #compile()}</a>.
+	 * 
+	 * @return	Whether or not this expression is compiled.
+	 */
+	public boolean isCompiled() {
+		return evaluator.isCompiled();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of an expression changes whenever the version of any
+	 * property at its leaves changes, and is {@code -1} if any of those
+	 * properties keeps no version.
+	 */
+	@Override
+	public long getVersion() {
+		return evaluator.getVersion();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<Double> getPropertyType() {
+		return Double.class;
+	}
+	
+	/**
+	 * The evaluator of a numeric expression, which only boxes the result
+	 * of an evaluation if it differs from the previous one.
+	 */
+	private static final class Evaluator extends ExpressionEvaluator<Double> {
+		
+		private static final long serialVersionUID = -1133486120734629905L;
+		
+		private Evaluator(ExpressionNode node, boolean compiled) {
+			super(node, compiled);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Double evaluate(Double previous) {
+			double value = code.number(leaves);
+			return previous != null && Double.compare(previous, value) == 0 ? previous : Double.valueOf(value);
+		}
+		
+	}
+	
+}
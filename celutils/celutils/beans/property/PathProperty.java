@@ -0,0 +1,252 @@
+package celutils.beans.property;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+
+import celutils.beans.observable.ObservableImpl;
+import celutils.collections.ObservableArrayList;
+
+/**
+ * A property reflecting the value at the end of a path of properties,
+ * such as {@code order.customer.address.city}, where every property
+ * along the path holds a bean that contains the next property.
+ * <p>
+ * The path is followed again whenever this property is read, but only
+ * from the first property along the path whose value has changed. The
+ * properties above it are kept, while the properties below it are
+ * selected anew from the new bean, so that changing an intermediate bean
+ * rebinds this property to the properties of the new bean without
+ * touching the rest of the path. Properties that keep a version are only
+ * read once their version has changed.
+ * <p>
+ * The properties of the beans are selected by name through method handles
+ * that are cached for every class. A bean's property named {@code name} is
+ * returned by a public method without parameters named either {@code name()},
+ * {@code nameProperty()} or {@code getName()}.
+ * <p>
+ * The value of this property is null while any bean along the path is null.
+ * Setting this property sets the property at the end of the path, and has
+ * no effect while the path is broken by a null bean.
+ * 
+ * @param <T>	The property type of the property at the end of the path.
+ * 
+ * @author Max D
+ */
+public final class PathProperty<T> extends ObservableImpl<T> implements Property<T> {
+	
+	private static final long serialVersionUID = 1863340952186021517L;
+	
+	/**
+	 * Marks the properties that have not been read yet.
+	 */
+	private static final long UNREAD = Long.MIN_VALUE;
+	
+	/**
+	 * The names of the properties along the path, below the root property.
+	 */
+	private final String[] names;
+	
+	/**
+	 * The properties along the path, starting with the root property, or
+	 * null below a null bean.
+	 */
+	private final Property<Object>[] hops;
+	
+	/**
+	 * The bean held by each property along the path, except the last, and
+	 * the version of each property when it was last read.
+	 */
+	private final Object[] beans;
+	private final long[] versions;
+	
+	/**
+	 * The classes of the beans from which properties were last selected, and
+	 * the method handles that selected them.
+	 */
+	private transient Class<?>[] types;
+	private transient MethodHandle[] selectors;
+	
+	/**
+	 * The value at the end of the path, and the number of times it has
+	 * changed.
+	 */
+	private T value;
+	private long version;
+	
+	/**
+	 * Whether any property along the path keeps no version.
+	 */
+	private boolean unversioned;
+	
+	/**
+	 * The bindings of this property, by guest property
+	 */
+	private final BindingSet<T> bindings;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new property following the given path.
+	 * 
+	 * @param root	The root property of the path.
+	 * @param names	The names of the properties along the path, below the root property.
+	 */
+	@SuppressWarnings("unchecked")
+	PathProperty(Property<?> root, String[] names) {
+		super(new ObservableArrayList<>(), new ObservableArrayList<>(), null);
+		if(root == null) throw new NullPointerException("root");
+		this.names = names;
+		this.hops = (Property<Object>[]) new Property<?>[names.length + 1];
+		this.hops[0] = (Property<Object>) root;
+		this.beans = new Object[names.length];
+		this.versions = new long[names.length + 1];
+		Arrays.fill(versions, UNREAD);
+		this.bindings = new BindingSet<T>();
+		
+		/* Records the initial value, so that it is not taken for a change */
+		update();
+	}
+	
+	/**
+	 * Returns the property at the end of the path, or null while the path is
+	 * broken by a null bean.
+	 * 
+	 * @return	The property at the end of the path.
+	 */
+	public Property<?> getLeaf() {
+		refresh();
+		return hops[names.length];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public T get() {
+		refresh();
+		return value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The property at the end of the path is set, unless the path is broken
+	 * by a null bean.
+	 */
+	@Override
+	public void set(T value) {
+		refresh();
+		Property<Object> leaf = hops[names.length];
+		if(leaf != null)
+			leaf.set(value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of a path property is the number of times the value at the
+	 * end of its path has changed, and is {@code -1} if any property along the
+	 * path keeps no version.
+	 */
+	@Override
+	public long getVersion() {
+		refresh();
+		return unversioned ? -1 : version;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected T getValue() {
+		return get();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bind(Property<T> property, BindingOrder order) {
+		this.bindings.add(this, property, order);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(Property<T> property) {
+		this.bindings.remove(property);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The properties along the path are not updated.
+	 */
+	@Override
+	public void update() {
+		super.update();
+		bindings.update(this);
+	}
+	
+	/**
+	 * Follows the path from the first property whose value has changed,
+	 * selecting the properties below any bean that has changed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void refresh() {
+		boolean unversioned = false;
+		Object value = null;
+		for(int i = 0; i <= names.length; i++) {
+			Property<Object> hop = hops[i];
+			if(hop == null)
+				break;
+			long version = hop.getVersion();
+			if(version == -1)
+				unversioned = true;
+			else if(version == versions[i]) {
+				if(i == names.length)
+					value = this.value;
+				continue;
+			}
+			versions[i] = version;
+			
+			Object next = hop.get();
+			if(i == names.length)
+				value = next;
+			else if(next != beans[i]) {
+				beans[i] = next;
+				for(int j = i + 1; j <= names.length; j++) {
+					hops[j] = null;
+					versions[j] = UNREAD;
+				}
+				if(next != null)
+					hops[i + 1] = select(i, next);
+			}
+		}
+		
+		this.unversioned = unversioned;
+		if(!equals((T) value, this.value)) {
+			this.value = (T) value;
+			this.version++;
+		}
+	}
+	
+	/**
+	 * Selects the property of the given bean that follows the property at
+	 * the given index of the path.
+	 */
+	private Property<Object> select(int index, Object bean) {
+		if(types == null) {
+			types = new Class<?>[names.length];
+			selectors = new MethodHandle[names.length];
+		}
+		Class<?> type = bean.getClass();
+		if(types[index] != type) {
+			selectors[index] = PropertySelector.find(type, names[index]);
+			types[index] = type;
+		}
+		return PropertySelector.select(selectors[index], bean);
+	}
+	
+}
@@ -1,6 +1,7 @@
 package celutils.beans.property;
 
 import java.util.Collection;
+import java.util.function.Function;
 
 import celutils.beans.observable.ChangeListener;
 import celutils.beans.observable.EventListener;
@@ -316,6 +317,163 @@ public final class Properties {
 		
 	}
 	
+	/**
+	 * An implementation of the <a href="#{@link}">{@link ExternalProperty}
+	 * </a> class whose value is converted from the value of a source
+	 * property of another type.
+	 * <p>
+	 * The converted value is cached, and the conversion only runs again
+	 * once the source property has changed: by its version if it keeps
+	 * one, and otherwise by comparing its value with the one last
+	 * converted. Setting this property sets the source property to the
+	 * value converted back through the inverse conversion, if any. The
+	 * version of this property is that of the source property, so that
+	 * bindings to it are skipped while the source is unchanged.
+	 * 
+	 * @param <S>	The type of value held by the source property.
+	 * @param <T>	The type of value held by this property.
+	 * 
+	 * @see Properties#convert(Property, Class, Function, Function)
+	 * @author Max D
+	 */
+	public static final class ConvertedProperty<S, T> extends ExternalProperty<T> {
+		
+		private static final long serialVersionUID = -2017524669541780372L;
+		
+		/**
+		 * The property from which the value of this property is converted.
+		 */
+		private final Property<S> source;
+		
+		/**
+		 * The class type for this property.
+		 */
+		private final Class<T> type;
+		
+		/**
+		 * Creates a new converted property given its converter.
+		 * 
+		 * @param type		The default class type for this property.
+		 * @param converter	The converter between the source property and this property.
+		 */
+		private ConvertedProperty(Class<T> type, Converter<S, T> converter) {
+			super(converter, converter);
+			this.source = converter.source;
+			this.type = type;
+		}
+		
+		/**
+		 * Returns the property from which the value of this property is
+		 * converted.
+		 * 
+		 * @return	The source property of this property.
+		 */
+		public Property<S> getSource() {
+			return source;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * The version of a converted property is that of its source property.
+		 */
+		@Override
+		public long getVersion() {
+			return source.getVersion();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Class<T> getPropertyType() {
+			return type;
+		}
+		
+	}
+	
+	/**
+	 * The getter and setter of a converted property, which caches the last
+	 * converted value along with the source value and version it was
+	 * converted from.
+	 * 
+	 * @author Max D
+	 */
+	private static final class Converter<S, T> implements IGetter<T>, ISetter<T> {
+		
+		private static final long serialVersionUID = 5127465829731164093L;
+		
+		/**
+		 * The property from which values are converted.
+		 */
+		private final Property<S> source;
+		
+		/**
+		 * The functions converting values of the source property to values
+		 * of the converted property, and back, where the latter is null if
+		 * the converted property is read-only.
+		 */
+		private final Function<? super S, ? extends T> forward;
+		private final Function<? super T, ? extends S> inverse;
+		
+		/**
+		 * Whether or not a converted value is cached, along with that
+		 * value, the source value it was converted from, and the version
+		 * of the source property when it was last checked.
+		 */
+		private boolean cached;
+		private S sourceValue;
+		private T value;
+		private long version;
+		
+		/**
+		 * Creates a new converter for the given source property.
+		 * 
+		 * @param source	The property from which values are converted.
+		 * @param forward	The function converting values of the source property.
+		 * @param inverse	The function converting values back to the source property, or null if read-only.
+		 */
+		private Converter(Property<S> source, Function<? super S, ? extends T> forward, Function<? super T, ? extends S> inverse) {
+			if(forward == null) throw new NullPointerException("forward");
+			this.source = source;
+			this.forward = forward;
+			this.inverse = inverse;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T get() {
+			long version = source.getVersion();
+			if(cached && version != -1 && version == this.version)
+				return value;
+			S sourceValue = source.get();
+			if(!cached || !source.equals(sourceValue, this.sourceValue)) {
+				this.value = forward.apply(sourceValue);
+				this.sourceValue = sourceValue;
+				this.cached = true;
+			}
+			this.version = version;
+			return value;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * The cached value is discarded rather than replaced by the given
+		 * value, since converting back and forth may lose information, so
+		 * that the next read converts the value actually held by the source.
+		 */
+		@Override
+		public void set(T value) {
+			if(inverse == null) throw new UnsupportedOperationException("set");
+			source.set(inverse.apply(value));
+			this.cached = false;
+		}
+		
+	}
+	
 	public static final class InternalBooleanProperty extends InternalProperty<Boolean> {
 		
 		private static final long serialVersionUID = 5398337310320077685L;
@@ -1011,6 +1169,82 @@ public final class Properties {
 		return new GenericInternalProperty<T>(type, value);
 	}
 	
+	/**
+	 * Creates a new property whose value is converted from the value of
+	 * the given source property, and which sets the source property to
+	 * its values converted back with the inverse conversion.
+	 * <p>
+	 * The conversion only runs when the source property changes. Such a
+	 * property can be bound to properties of its own type, in place of
+	 * the source property.
+	 * 
+	 * @param <S>		The type of value held by the source property.
+	 * @param <T>		The type of value held by the converted property.
+	 * @param source	The property to convert the value of.
+	 * @param type		The default class type for the converted property.
+	 * @param forward	The conversion from the source value to the converted value.
+	 * @param inverse	The conversion from the converted value to the source value.
+	 * @return			The newly created converted property.
+	 */
+	public static <S, T> ConvertedProperty<S, T> convert(Property<S> source, Class<T> type,
+			Function<? super S, ? extends T> forward, Function<? super T, ? extends S> inverse) {
+		return new ConvertedProperty<S, T>(type, new Converter<S, T>(source, forward, inverse));
+	}
+	
+	/**
+	 * Creates a new read-only property whose value is converted from the
+	 * value of the given source property. The conversion only runs when
+	 * the source property changes.
+	 * 
+	 * @param <S>		The type of value held by the source property.
+	 * @param <T>		The type of value held by the converted property.
+	 * @param source	The property to convert the value of.
+	 * @param type		The default class type for the converted property.
+	 * @param forward	The conversion from the source value to the converted value.
+	 * @return			The newly created read-only converted property.
+	 */
+	public static <S, T> ConvertedProperty<S, T> convert(Property<S> source, Class<T> type, Function<? super S, ? extends T> forward) {
+		return convert(source, type, forward, null);
+	}
+	
+	/**
+	 * Creates a new read-only property holding the value of the given
+	 * numeric property widened to a double. The value is read through
+	 * the primitive accessor of the number, and only when the numeric
+	 * property changes.
+	 * 
+	 * @param property	The numeric property to widen.
+	 * @return			The newly created read-only double property.
+	 */
+	public static <N extends Number> ConvertedProperty<N, Double> asDouble(Property<N> property) {
+		return convert(property, Double.class, n -> n == null ? null : n.doubleValue());
+	}
+	
+	/**
+	 * Creates a new read-only property holding the value of the given
+	 * integral property widened to a long. The value is read through the
+	 * primitive accessor of the number, and only when the integral
+	 * property changes.
+	 * 
+	 * @param property	The integral property to widen.
+	 * @return			The newly created read-only long property.
+	 */
+	public static <N extends Number> ConvertedProperty<N, Long> asLong(Property<N> property) {
+		return convert(property, Long.class, n -> n == null ? null : n.longValue());
+	}
+	
+	/**
+	 * Creates a new read-only property holding the string representation
+	 * of the value of the given property, which is only computed when that
+	 * property changes.
+	 * 
+	 * @param property	The property to represent.
+	 * @return			The newly created read-only string property.
+	 */
+	public static <S> ConvertedProperty<S, String> asString(Property<S> property) {
+		return convert(property, String.class, s -> s == null ? null : s.toString());
+	}
+	
 	/**
 	 * A simple inverse-boolean property class that shares the
 	 * memory bank as a pre-existing boolean property. It will
@@ -45,6 +45,23 @@ public interface Property<T> extends Observable<T> {
 	 */
 	public void set(T value);
 	
+	/**
+	 * Returns the version of this property. The value returned is
+	 * guaranteed to differ from any previously returned value if the
+	 * value of this property may have changed since, which allows
+	 * bindings to skip properties that have not changed without reading
+	 * their values.
+	 * <p>
+	 * Properties that cannot detect changes of their value without
+	 * reading it, such as those whose value is held externally, return
+	 * {@code -1}, and are then compared by value on every update.
+	 * 
+	 * @return	The version of this property, or {@code -1} if it has none.
+	 */
+	public default long getVersion() {
+		return -1;
+	}
+	
 	/**
 	 * Binds another property to this one, using this
 	 * property object as the root property in the binding.
@@ -54,6 +71,10 @@ public interface Property<T> extends Observable<T> {
 	 * <a href="#{@link}">{@link BindingOrder}</a> argument
 	 * applies to this property object, not the guest property
 	 * object.
+	 * <p>
+	 * A guest property is bound at most once. Binding it again
+	 * with the same binding order has no effect, and binding it
+	 * with another binding order replaces the previous binding.
 	 * 
 	 * @param property	The guest property to bind to this property.
 	 * @param order		The binding order to use for this binding.
@@ -0,0 +1,116 @@
+package celutils.beans.property;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Package-level class.
+ * <p>
+ * Resolves the named properties of beans into method handles, which are
+ * cached for every class, such that reflection is only used the first time
+ * a property of a class is selected.
+ * <p>
+ * The property of a bean named {@code name} is returned by the first public
+ * method without parameters of the bean's class returning a <a href="#{@link}">
+ * {@link Property}</a> that is named either {@code name()}, {@code nameProperty()}
+ * or {@code getName()}.
+ * 
+ * @author Max D
+ */
+final class PropertySelector {
+	
+	/**
+	 * The method handles of the properties selected so far, by class and name.
+	 * The method handles take a bean and return its property.
+	 */
+	private static final ClassValue<Map<String, MethodHandle>> SELECTORS = new ClassValue<Map<String, MethodHandle>>() {
+		
+		@Override
+		protected Map<String, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<String, MethodHandle>();
+		}
+		
+	};
+	
+	/**
+	 * The type of the method handles.
+	 */
+	private static final MethodType TYPE = MethodType.methodType(Property.class, Object.class);
+	
+	/**
+	 * Private constructor, as this is a utility class.
+	 */
+	private PropertySelector() {
+	}
+	
+	/**
+	 * Returns the method handle selecting the named property of the beans of
+	 * the given class.
+	 * 
+	 * @param type	The class of the beans.
+	 * @param name	The name of the property.
+	 * @return		The method handle, taking a bean and returning its property.
+	 * @throws IllegalArgumentException	If the class has no such property.
+	 */
+	static MethodHandle find(Class<?> type, String name) {
+		return SELECTORS.get(type).computeIfAbsent(name, n -> resolve(type, n));
+	}
+	
+	/**
+	 * Selects the named property of the given bean.
+	 * 
+	 * @param selector	The method handle selecting the property, as returned by <a href="#{@link}">{@link #find(Class, String)}</a>.
+	 * @param bean		The bean.
+	 * @return			The property of the bean.
+	 */
+	@SuppressWarnings("unchecked")
+	static Property<Object> select(MethodHandle selector, Object bean) {
+		try {
+			return (Property<Object>) (Property<?>) selector.invokeExact(bean);
+		}
+		catch(RuntimeException | Error e) {
+			throw e;
+		}
+		catch(Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+	
+	/**
+	 * Finds the method returning the named property, and unreflects it.
+	 */
+	private static MethodHandle resolve(Class<?> type, String name) {
+		String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		for(String candidate : new String[] { name, name + "Property", "get" + capitalized }) {
+			Method method;
+			try {
+				method = type.getMethod(candidate);
+			}
+			catch(NoSuchMethodException e) {
+				continue;
+			}
+			if(!Property.class.isAssignableFrom(method.getReturnType()))
+				continue;
+				
+			try {
+				try {
+					return MethodHandles.publicLookup().unreflect(method).asType(TYPE);
+				}
+				catch(IllegalAccessException e) {
+					/* The method is public, but its class may not be */
+					method.setAccessible(true);
+					return MethodHandles.lookup().unreflect(method).asType(TYPE);
+				}
+			}
+			catch(IllegalAccessException | RuntimeException e) {
+				throw new IllegalArgumentException("Property " + name + " of " + type.getName() + " is not accessible", e);
+			}
+		}
+		throw new IllegalArgumentException("No property " + name + " in " + type.getName());
+	}
+	
+}
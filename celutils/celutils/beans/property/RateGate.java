@@ -0,0 +1,116 @@
+package celutils.beans.property;
+
+import java.util.concurrent.TimeUnit;
+
+import celutils.misc.IClock;
+
+/**
+ * Package-level class.
+ * <p>
+ * Decides when the changes held by a timed property or listener are
+ * passed on, according to a <a href="#{@link}">{@link RateLimit}</a>.
+ * The owner offers each change of its source to the gate, and polls the
+ * gate on every update, passing on the latest change whenever the gate
+ * opens.
+ * 
+ * @author Max D
+ */
+final class RateGate implements java.io.Serializable {
+	
+	private static final long serialVersionUID = 2739406516950817362L;
+	
+	/**
+	 * The rate limit, and its period in nanoseconds.
+	 */
+	private final RateLimit limit;
+	private final long period;
+	
+	/**
+	 * The clock measuring the period.
+	 */
+	private final IClock clock;
+	
+	/**
+	 * Whether a change is being held, and whether one was passed on yet.
+	 */
+	private boolean pending;
+	private boolean opened;
+	
+	/**
+	 * The time of the last change, the time at which the last change was
+	 * passed on, and the time of the next sample.
+	 */
+	private long changed;
+	private long passed;
+	private long next;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new gate holding no change.
+	 * 
+	 * @param limit		The rate limit.
+	 * @param period	The period of the rate limit.
+	 * @param unit		The unit of the period.
+	 * @param clock		The clock measuring the period.
+	 */
+	RateGate(RateLimit limit, long period, TimeUnit unit, IClock clock) {
+		if(limit == null) throw new NullPointerException("limit");
+		if(clock == null) throw new NullPointerException("clock");
+		if(period < 0)
+			throw new IllegalArgumentException("Period must not be negative: " + period);
+		this.limit = limit;
+		this.period = unit.toNanos(period);
+		this.clock = clock;
+		this.next = clock.nanoTime() + this.period;
+	}
+	
+	/**
+	 * Records a change of the source.
+	 * 
+	 * @return	Whether the change should be passed on now.
+	 */
+	boolean offer() {
+		long now = clock.nanoTime();
+		pending = true;
+		changed = now;
+		return poll(now);
+	}
+	
+	/**
+	 * Checks whether the held change should be passed on.
+	 * 
+	 * @return	Whether the held change should be passed on now.
+	 */
+	boolean poll() {
+		return pending && poll(clock.nanoTime());
+	}
+	
+	/**
+	 * Checks whether the held change should be passed on at the given time,
+	 * and if so, releases it.
+	 */
+	private boolean poll(long now) {
+		boolean due;
+		switch(limit) {
+		case DEBOUNCE:
+			due = now - changed >= period;
+			break;
+		case THROTTLE:
+			due = !opened || now - passed >= period;
+			break;
+		default:
+			due = now - next >= 0;
+			if(due)
+				next += period == 0 ? now - next : ((now - next) / period + 1) * period;
+			break;
+		}
+		if(due) {
+			pending = false;
+			opened = true;
+			passed = now;
+		}
+		return due;
+	}
+	
+}
@@ -0,0 +1,46 @@
+package celutils.beans.property;
+
+/**
+ * This enum describes how the changes of a timed property or
+ * listener are limited in rate.
+ * <p>
+ * The changes of a source that changes many times per second are
+ * held back and only passed on according to the rate limit, such
+ * that the work done by the bindings and listeners downstream is
+ * bounded by the rate limit rather than by the source.
+ * <p>
+ * Held changes are passed on during the update sequence, and the
+ * rate limit is therefore only as precise as the rate at which the
+ * timed properties and listeners are updated.
+ * 
+ * @author Max D
+ */
+public enum RateLimit {
+	
+	/**
+	 * Indicates that a change should only be passed on once the
+	 * source has not changed for the whole period.
+	 * <p>
+	 * A source that never stops changing for that long will never
+	 * have its changes passed on.
+	 */
+	DEBOUNCE,
+	
+	/**
+	 * Indicates that a change should be passed on immediately if
+	 * no change was passed on during the last period, and should
+	 * otherwise be held until the period has elapsed.
+	 * <p>
+	 * At most one change is passed on per period, and the last change
+	 * of a burst is never lost.
+	 */
+	THROTTLE,
+	
+	/**
+	 * Indicates that the latest change should be passed on once per
+	 * period, at fixed intervals from the creation of the timed
+	 * property or listener, if the source has changed since.
+	 */
+	SAMPLE;
+	
+}
@@ -0,0 +1,117 @@
+package celutils.beans.property;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import celutils.beans.observable.ChangeListener;
+import celutils.beans.observable.Observable;
+import celutils.misc.IClock;
+
+/**
+ * A change listener passing the changes it receives on to another
+ * change listener, limited in rate according to a <a href="#{@link}">
+ * {@link RateLimit}</a>.
+ * <p>
+ * Changes are held back until the rate limit allows them to be passed
+ * on, at which point a single change is passed on, from the value before
+ * the first held change to the latest value. Nothing is passed on if the
+ * observable value has returned to where it was.
+ * <p>
+ * As a change listener is only called when its observable value changes,
+ * held changes are passed on either when the next change is received, or
+ * when this listener is polled. To have the last change of a burst passed
+ * on in time, this listener should be polled on every update sequence.
+ * 
+ * @param <T>	The type specified by the observable value
+ * 
+ * @author Max D
+ */
+public final class TimedListener<T> implements ChangeListener<T> {
+	
+	private static final long serialVersionUID = 5174091733425519806L;
+	
+	/**
+	 * The listener to pass the changes on to.
+	 */
+	private final ChangeListener<T> listener;
+	
+	/**
+	 * The gate deciding when the changes are passed on.
+	 */
+	private final RateGate gate;
+	
+	/**
+	 * Whether changes are being held, and the observable value, the value
+	 * before the first held change and the latest value.
+	 */
+	private boolean held;
+	private Observable<T> observable;
+	private T oldValue;
+	private T newValue;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new timed listener holding no changes.
+	 * 
+	 * @param listener	The listener to pass the changes on to.
+	 * @param limit		The rate limit.
+	 * @param period	The period of the rate limit.
+	 * @param unit		The unit of the period.
+	 * @param clock		The clock measuring the period.
+	 */
+	TimedListener(ChangeListener<T> listener, RateLimit limit, long period, TimeUnit unit, IClock clock) {
+		if(listener == null) throw new NullPointerException("listener");
+		this.listener = listener;
+		this.gate = new RateGate(limit, period, unit, clock);
+	}
+	
+	/**
+	 * Returns the listener that this listener passes the changes on to.
+	 * 
+	 * @return	The listener.
+	 */
+	public ChangeListener<T> getListener() {
+		return listener;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The change is held, and passed on if the rate limit allows it.
+	 */
+	@Override
+	public void changed(Observable<T> observable, T _old, T _new) {
+		if(!held) {
+			this.oldValue = _old;
+			this.held = true;
+		}
+		this.observable = observable;
+		this.newValue = _new;
+		if(gate.offer())
+			release();
+	}
+	
+	/**
+	 * Passes on the held changes if the rate limit allows it.
+	 */
+	public void poll() {
+		if(held && gate.poll())
+			release();
+	}
+	
+	/**
+	 * Passes on the held changes as a single change.
+	 */
+	private void release() {
+		Observable<T> observable = this.observable;
+		T oldValue = this.oldValue, newValue = this.newValue;
+		this.held = false;
+		this.observable = null;
+		this.oldValue = null;
+		this.newValue = null;
+		if(!Objects.equals(oldValue, newValue))
+			listener.changed(observable, oldValue, newValue);
+	}
+	
+}
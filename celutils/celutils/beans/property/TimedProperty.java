@@ -0,0 +1,187 @@
+package celutils.beans.property;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import celutils.beans.observable.ObservableImpl;
+import celutils.collections.ObservableArrayList;
+import celutils.misc.IClock;
+
+/**
+ * A property reflecting the value of a source property, whose changes
+ * are limited in rate according to a <a href="#{@link}">{@link RateLimit}</a>.
+ * <p>
+ * The source property is polled on every update of this property, and
+ * its changes are held back until the rate limit allows them to be
+ * passed on, at which point the latest value of the source becomes the
+ * value of this property. The listeners and bindings of this property
+ * therefore do an amount of work bounded by the rate limit, however
+ * often the source changes. The source property itself is not updated.
+ * <p>
+ * Setting this property sets the source property, and the new value is
+ * then passed on like any other change of the source.
+ * 
+ * @param <T>	The property type of this property.
+ * 
+ * @author Max D
+ */
+public final class TimedProperty<T> extends ObservableImpl<T> implements Property<T> {
+	
+	private static final long serialVersionUID = -3804525370617385492L;
+	
+	/**
+	 * The source property.
+	 */
+	private final Property<T> source;
+	
+	/**
+	 * The gate deciding when the changes of the source are passed on.
+	 */
+	private final RateGate gate;
+	
+	/**
+	 * The value passed on, and the number of times it has changed.
+	 */
+	private T value;
+	private long version;
+	
+	/**
+	 * The latest value of the source, and the version of the source when
+	 * it was read.
+	 */
+	private T latest;
+	private long sourceVersion;
+	
+	/**
+	 * The bindings of this property, by guest property
+	 */
+	private final BindingSet<T> bindings;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new timed property reflecting the current value of the
+	 * source property.
+	 * 
+	 * @param source	The source property.
+	 * @param limit		The rate limit.
+	 * @param period	The period of the rate limit.
+	 * @param unit		The unit of the period.
+	 * @param clock		The clock measuring the period.
+	 */
+	TimedProperty(Property<T> source, RateLimit limit, long period, TimeUnit unit, IClock clock) {
+		super(new ObservableArrayList<>(), new ObservableArrayList<>(), source.get());
+		this.source = source;
+		this.gate = new RateGate(limit, period, unit, clock);
+		this.value = source.get();
+		this.latest = value;
+		this.sourceVersion = source.getVersion();
+		this.bindings = new BindingSet<T>();
+	}
+	
+	/**
+	 * Returns the source property of this property.
+	 * 
+	 * @return	The source property.
+	 */
+	public Property<T> getSource() {
+		return source;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This is the latest value of the source property that was passed on,
+	 * which may not be its current value.
+	 */
+	@Override
+	public T get() {
+		return value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The source property is set, and the value is passed on to this
+	 * property according to the rate limit.
+	 */
+	@Override
+	public void set(T value) {
+		source.set(value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of a timed property is the number of times the value
+	 * passed on has changed.
+	 */
+	@Override
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected T getValue() {
+		return value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bind(Property<T> property, BindingOrder order) {
+		this.bindings.add(this, property, order);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(Property<T> property) {
+		this.bindings.remove(property);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The source property is polled first, and its latest value is passed
+	 * on if the rate limit allows it.
+	 */
+	@Override
+	public void update() {
+		poll();
+		super.update();
+		bindings.update(this);
+	}
+	
+	/**
+	 * Reads the source property if it may have changed, and passes on its
+	 * latest value if the rate limit allows it.
+	 */
+	private void poll() {
+		long sourceVersion = source.getVersion();
+		boolean due;
+		if(sourceVersion == -1 || sourceVersion != this.sourceVersion) {
+			this.sourceVersion = sourceVersion;
+			T latest = source.get();
+			if(Objects.equals(latest, this.latest))
+				due = gate.poll();
+			else {
+				this.latest = latest;
+				due = gate.offer();
+			}
+		}
+		else
+			due = gate.poll();
+			
+		if(due && !Objects.equals(latest, value)) {
+			value = latest;
+			version++;
+		}
+	}
+	
+}
@@ -0,0 +1,99 @@
+package celutils.collections;
+
+import celutils.beans.property.InternalProperty;
+
+/**
+ * A read-only property holding an aggregate of the contents of an
+ * observable collection, such as the ones created by <a href="#{@link}">
+ * {@link Aggregates}</a>.
+ * <p>
+ * The value of an aggregate property is maintained incrementally from
+ * the element-level changes of its collection, and is therefore brought
+ * up to date whenever the collection is updated. Like any other internal
+ * property, it notifies its listeners and updates its bindings when it
+ * is updated itself, so it can serve as the source of a binding.
+ * <p>
+ * An aggregate property remains attached to its collection until it
+ * is disposed.
+ * 
+ * @param <T>	The type of value that this property will hold.
+ * 
+ * @see Aggregates
+ * @author Max D
+ */
+public final class AggregateProperty<T> extends InternalProperty<T> {
+	
+	private static final long serialVersionUID = -5902461478114862930L;
+	
+	/**
+	 * The class type for this property.
+	 */
+	private final Class<T> type;
+	
+	/**
+	 * The action detaching this property from its collection.
+	 */
+	private transient Runnable disposer;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new aggregate property with the given initial value.
+	 * 
+	 * @param type	The default class type for this property.
+	 * @param value	The initial value for this property.
+	 */
+	AggregateProperty(Class<T> type, T value) {
+		super(value);
+		this.type = type;
+	}
+	
+	/**
+	 * Sets the action detaching this property from its collection.
+	 * 
+	 * @param disposer	The action to perform when this property is disposed.
+	 */
+	void setDisposer(Runnable disposer) {
+		this.disposer = disposer;
+	}
+	
+	/**
+	 * Assigns a newly aggregated value to this property.
+	 * 
+	 * @param value	The new value of this property.
+	 */
+	void publish(T value) {
+		super.set(value);
+	}
+	
+	/**
+	 * Aggregate properties are read-only, so this method
+	 * always throws an exception.
+	 * 
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void set(T value) {
+		throw new UnsupportedOperationException("set");
+	}
+	
+	/**
+	 * Stops observing the collection. The value of this property is
+	 * no longer updated afterwards.
+	 */
+	public void dispose() {
+		if(disposer != null) {
+			disposer.run();
+			disposer = null;
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Class<T> getPropertyType() {
+		return type;
+	}
+	
+}
@@ -0,0 +1,726 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A utility class for creating properties that hold an aggregate of
+ * the contents of an observable collection, such as a count, a sum,
+ * an average, a minimum or a maximum.
+ * <p>
+ * Rather than recomputing the aggregate from the entire collection,
+ * each <a href="#{@link}">{@link AggregateProperty}</a> observes the
+ * element-level changes of its collection and applies only the added
+ * and removed elements. Counts, sums and averages are maintained in
+ * constant time per changed element, and minimums and maximums in
+ * O(log n) through a sorted multiset of the aggregated values.
+ * <p>
+ * Aggregates over maps are computed from the values of the map. The
+ * functions and comparators given to this class must yield the same
+ * result for an element for as long as it is contained.
+ * 
+ * @see AggregateProperty
+ * @author Max D
+ */
+public final class Aggregates {
+	
+	/**
+	 * Private constructor, as this is a utility class.
+	 */
+	private Aggregates() {
+	}
+	
+	/**
+	 * Creates a property holding the number of elements in the given list.
+	 * 
+	 * @param list	The list to aggregate.
+	 * @return		The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Integer> count(ObservableList<E> list) {
+		return aggregate(list, new Count<E>(null), Integer.class);
+	}
+	
+	/**
+	 * Creates a property holding the number of elements in the given list
+	 * that satisfy the given predicate.
+	 * 
+	 * @param list		The list to aggregate.
+	 * @param predicate	The predicate that counted elements satisfy.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Integer> count(ObservableList<E> list, Predicate<? super E> predicate) {
+		return aggregate(list, new Count<E>(predicate), Integer.class);
+	}
+	
+	/**
+	 * Creates a property holding the sum of the given function over the
+	 * elements of the given list.
+	 * 
+	 * @param list		The list to aggregate.
+	 * @param function	The function giving the value of each element.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Double> sum(ObservableList<E> list, ToDoubleFunction<? super E> function) {
+		return aggregate(list, new Sum<E>(function, false), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the average of the given function over the
+	 * elements of the given list, or {@code NaN} if the list is empty.
+	 * 
+	 * @param list		The list to aggregate.
+	 * @param function	The function giving the value of each element.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Double> average(ObservableList<E> list, ToDoubleFunction<? super E> function) {
+		return aggregate(list, new Sum<E>(function, true), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the minimum of the given function over the
+	 * elements of the given list, or {@code NaN} if the list is empty.
+	 * 
+	 * @param list		The list to aggregate.
+	 * @param function	The function giving the value of each element.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Double> min(ObservableList<E> list, ToDoubleFunction<? super E> function) {
+		return aggregate(list, new Extremum<E>(function, false), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the maximum of the given function over the
+	 * elements of the given list, or {@code NaN} if the list is empty.
+	 * 
+	 * @param list		The list to aggregate.
+	 * @param function	The function giving the value of each element.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<Double> max(ObservableList<E> list, ToDoubleFunction<? super E> function) {
+		return aggregate(list, new Extremum<E>(function, true), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the least element of the given list
+	 * according to the given comparator, or null if the list is empty.
+	 * 
+	 * @param list			The list to aggregate.
+	 * @param comparator	The comparator by which elements are ordered.
+	 * @return				The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<E> minBy(ObservableList<E> list, Comparator<? super E> comparator) {
+		return aggregate(list, new ExtremumBy<E>(comparator, false), objectType());
+	}
+	
+	/**
+	 * Creates a property holding the greatest element of the given list
+	 * according to the given comparator, or null if the list is empty.
+	 * 
+	 * @param list			The list to aggregate.
+	 * @param comparator	The comparator by which elements are ordered.
+	 * @return				The newly created aggregate property.
+	 */
+	public static <E> AggregateProperty<E> maxBy(ObservableList<E> list, Comparator<? super E> comparator) {
+		return aggregate(list, new ExtremumBy<E>(comparator, true), objectType());
+	}
+	
+	/**
+	 * Creates a property holding the number of entries in the given map.
+	 * 
+	 * @param map	The map to aggregate.
+	 * @return		The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Integer> count(ObservableMap<K, V> map) {
+		return aggregate(map, new Count<V>(null), Integer.class);
+	}
+	
+	/**
+	 * Creates a property holding the number of values in the given map
+	 * that satisfy the given predicate.
+	 * 
+	 * @param map		The map to aggregate.
+	 * @param predicate	The predicate that counted values satisfy.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Integer> count(ObservableMap<K, V> map, Predicate<? super V> predicate) {
+		return aggregate(map, new Count<V>(predicate), Integer.class);
+	}
+	
+	/**
+	 * Creates a property holding the sum of the given function over the
+	 * values of the given map.
+	 * 
+	 * @param map		The map to aggregate.
+	 * @param function	The function giving the value of each map value.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Double> sum(ObservableMap<K, V> map, ToDoubleFunction<? super V> function) {
+		return aggregate(map, new Sum<V>(function, false), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the average of the given function over the
+	 * values of the given map, or {@code NaN} if the map is empty.
+	 * 
+	 * @param map		The map to aggregate.
+	 * @param function	The function giving the value of each map value.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Double> average(ObservableMap<K, V> map, ToDoubleFunction<? super V> function) {
+		return aggregate(map, new Sum<V>(function, true), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the minimum of the given function over the
+	 * values of the given map, or {@code NaN} if the map is empty.
+	 * 
+	 * @param map		The map to aggregate.
+	 * @param function	The function giving the value of each map value.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Double> min(ObservableMap<K, V> map, ToDoubleFunction<? super V> function) {
+		return aggregate(map, new Extremum<V>(function, false), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the maximum of the given function over the
+	 * values of the given map, or {@code NaN} if the map is empty.
+	 * 
+	 * @param map		The map to aggregate.
+	 * @param function	The function giving the value of each map value.
+	 * @return			The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<Double> max(ObservableMap<K, V> map, ToDoubleFunction<? super V> function) {
+		return aggregate(map, new Extremum<V>(function, true), Double.class);
+	}
+	
+	/**
+	 * Creates a property holding the least value of the given map
+	 * according to the given comparator, or null if the map is empty.
+	 * 
+	 * @param map			The map to aggregate.
+	 * @param comparator	The comparator by which values are ordered.
+	 * @return				The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<V> minBy(ObservableMap<K, V> map, Comparator<? super V> comparator) {
+		return aggregate(map, new ExtremumBy<V>(comparator, false), objectType());
+	}
+	
+	/**
+	 * Creates a property holding the greatest value of the given map
+	 * according to the given comparator, or null if the map is empty.
+	 * 
+	 * @param map			The map to aggregate.
+	 * @param comparator	The comparator by which values are ordered.
+	 * @return				The newly created aggregate property.
+	 */
+	public static <K, V> AggregateProperty<V> maxBy(ObservableMap<K, V> map, Comparator<? super V> comparator) {
+		return aggregate(map, new ExtremumBy<V>(comparator, true), objectType());
+	}
+	
+	/**
+	 * Attaches the given aggregator to the given list, seeding it with the
+	 * current contents of the list. The listener is registered first, while
+	 * holding the lock of the list, so that no change is missed or applied
+	 * twice.
+	 * 
+	 * @param list			The list to aggregate.
+	 * @param aggregator	The aggregator maintaining the aggregate.
+	 * @param type			The class type of the aggregate.
+	 * @return				The newly created aggregate property.
+	 */
+	private static <E, T> AggregateProperty<T> aggregate(ObservableList<E> list, Aggregator<E, T> aggregator, Class<T> type) {
+		ListSource<E, T> source = new ListSource<E, T>(aggregator);
+		synchronized(list) {
+			list.addListListener(source);
+			for(E e : list)
+				aggregator.add(e);
+			source.property = new AggregateProperty<T>(type, aggregator.value());
+		}
+		source.property.setDisposer(() -> list.removeListListener(source));
+		return source.property;
+	}
+	
+	/**
+	 * Attaches the given aggregator to the values of the given map, seeding
+	 * it with the contents to which the pending changes of the map apply.
+	 * 
+	 * @param map			The map whose values to aggregate.
+	 * @param aggregator	The aggregator maintaining the aggregate.
+	 * @param type			The class type of the aggregate.
+	 * @return				The newly created aggregate property.
+	 */
+	private static <K, V, T> AggregateProperty<T> aggregate(ObservableMap<K, V> map, Aggregator<V, T> aggregator, Class<T> type) {
+		MapSource<K, V, T> source = new MapSource<K, V, T>(aggregator);
+		synchronized(source) {
+			map.addMapListener(source);
+			map.forEachCommitted((key, value) -> aggregator.add(value));
+			source.property = new AggregateProperty<T>(type, aggregator.value());
+		}
+		source.property.setDisposer(() -> map.removeMapListener(source));
+		return source.property;
+	}
+	
+	/**
+	 * Returns the class type used for properties holding elements of
+	 * an arbitrary type.
+	 * 
+	 * @return	The class type of arbitrary elements.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Class<T> objectType() {
+		return (Class<T>) Object.class;
+	}
+	
+	/**
+	 * Feeds the changes of a list to an aggregator.
+	 * 
+	 * @param <E> the type of elements in the list
+	 * @param <T> the type of the aggregate
+	 */
+	private static final class ListSource<E, T> implements ListChangeListener<E> {
+		
+		private static final long serialVersionUID = 3297601545162201788L;
+		
+		/**
+		 * The aggregator maintaining the aggregate.
+		 */
+		private final Aggregator<E, T> aggregator;
+		
+		/**
+		 * The property to which the aggregate is published.
+		 */
+		private AggregateProperty<T> property;
+		
+		/**
+		 * Creates a new list source feeding the given aggregator.
+		 * 
+		 * @param aggregator	The aggregator maintaining the aggregate.
+		 */
+		private ListSource(Aggregator<E, T> aggregator) {
+			this.aggregator = aggregator;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void changed(ObservableList<E> list, ListChange<E> change) {
+			for(E e : change.removed)
+				aggregator.remove(e);
+			for(E e : change.added)
+				aggregator.add(e);
+			property.publish(aggregator.value());
+		}
+		
+	}
+	
+	/**
+	 * Feeds the changes of the values of a map to an aggregator.
+	 * 
+	 * @param <K> the type of keys maintained by the map
+	 * @param <V> the type of mapped values
+	 * @param <T> the type of the aggregate
+	 */
+	private static final class MapSource<K, V, T> implements MapChangeListener<K, V> {
+		
+		private static final long serialVersionUID = -1260749006946301147L;
+		
+		/**
+		 * The aggregator maintaining the aggregate.
+		 */
+		private final Aggregator<V, T> aggregator;
+		
+		/**
+		 * The property to which the aggregate is published.
+		 */
+		private AggregateProperty<T> property;
+		
+		/**
+		 * Creates a new map source feeding the given aggregator.
+		 * 
+		 * @param aggregator	The aggregator maintaining the aggregate.
+		 */
+		private MapSource(Aggregator<V, T> aggregator) {
+			this.aggregator = aggregator;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void changed(ObservableMap<K, V> map, MapChange<K, V> change) {
+			synchronized(this) {
+				if(change.wasRemoved() || change.wasReplaced())
+					aggregator.remove(change.getOldValue());
+				if(change.wasAdded() || change.wasReplaced())
+					aggregator.add(change.getNewValue());
+				property.publish(aggregator.value());
+			}
+		}
+		
+	}
+	
+	/**
+	 * The incrementally maintained state of an aggregate.
+	 * 
+	 * @param <E> the type of aggregated elements
+	 * @param <T> the type of the aggregate
+	 */
+	private static abstract class Aggregator<E, T> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -6684133216581419075L;
+		
+		/**
+		 * Includes the given element in the aggregate.
+		 * 
+		 * @param e	The element to include.
+		 */
+		abstract void add(E e);
+		
+		/**
+		 * Excludes the given element, previously included, from the aggregate.
+		 * 
+		 * @param e	The element to exclude.
+		 */
+		abstract void remove(E e);
+		
+		/**
+		 * Returns the current value of the aggregate.
+		 * 
+		 * @return	The value of the aggregate.
+		 */
+		abstract T value();
+		
+	}
+	
+	/**
+	 * Counts the elements satisfying a predicate, or all elements if the
+	 * predicate is null.
+	 * 
+	 * @param <E> the type of aggregated elements
+	 */
+	private static final class Count<E> extends Aggregator<E, Integer> {
+		
+		private static final long serialVersionUID = 7796025005569187455L;
+		
+		/**
+		 * The predicate of the counted elements, or null to count all elements.
+		 */
+		private final Predicate<? super E> predicate;
+		
+		/**
+		 * The number of counted elements.
+		 */
+		private int count;
+		
+		/**
+		 * Creates a new count of the elements satisfying the given predicate.
+		 * 
+		 * @param predicate	The predicate of the counted elements, or null to count all elements.
+		 */
+		private Count(Predicate<? super E> predicate) {
+			this.predicate = predicate;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(E e) {
+			if(predicate == null || predicate.test(e))
+				count++;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void remove(E e) {
+			if(predicate == null || predicate.test(e))
+				count--;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Integer value() {
+			return count;
+		}
+		
+	}
+	
+	/**
+	 * Sums the values of the elements, or averages them.
+	 * <p>
+	 * Finite values are accumulated with Neumaier's compensated summation,
+	 * which keeps the error of a long series of additions and removals
+	 * from growing with the number of changes. Non-finite values are only
+	 * counted, so that removing them restores a finite sum, and the sum is
+	 * reset exactly whenever the last element is removed.
+	 * 
+	 * @param <E> the type of aggregated elements
+	 */
+	private static final class Sum<E> extends Aggregator<E, Double> {
+		
+		private static final long serialVersionUID = -4081740592627104389L;
+		
+		/**
+		 * The function giving the value of an element.
+		 */
+		private final ToDoubleFunction<? super E> function;
+		
+		/**
+		 * Whether the aggregate is the average rather than the sum.
+		 */
+		private final boolean average;
+		
+		/**
+		 * The sum of the finite values, and the compensation for the error
+		 * of its additions.
+		 */
+		private double sum;
+		private double compensation;
+		
+		/**
+		 * The number of elements, and the numbers of those whose value is
+		 * NaN, positive infinity and negative infinity respectively.
+		 */
+		private int count;
+		private int nan;
+		private int positive;
+		private int negative;
+		
+		/**
+		 * Creates a new sum or average of the values of the elements.
+		 * 
+		 * @param function	The function giving the value of an element.
+		 * @param average	Whether the aggregate is the average rather than the sum.
+		 */
+		private Sum(ToDoubleFunction<? super E> function, boolean average) {
+			this.function = function;
+			this.average = average;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(E e) {
+			accumulate(function.applyAsDouble(e), 1);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void remove(E e) {
+			accumulate(function.applyAsDouble(e), -1);
+		}
+		
+		/**
+		 * Adds the given value to the sum, or subtracts it.
+		 * 
+		 * @param value	The value of an element.
+		 * @param sign	1 to add the value, or -1 to subtract it.
+		 */
+		private void accumulate(double value, int sign) {
+			count += sign;
+			if(Double.isNaN(value))
+				nan += sign;
+			else if(value == Double.POSITIVE_INFINITY)
+				positive += sign;
+			else if(value == Double.NEGATIVE_INFINITY)
+				negative += sign;
+			else {
+				value *= sign;
+				double t = sum + value;
+				if(Math.abs(sum) >= Math.abs(value))
+					compensation += (sum - t) + value;
+				else
+					compensation += (value - t) + sum;
+				sum = t;
+			}
+			if(count == 0)
+				sum = compensation = 0.0;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Double value() {
+			double total;
+			if(nan > 0 || (positive > 0 && negative > 0))
+				total = Double.NaN;
+			else if(positive > 0)
+				total = Double.POSITIVE_INFINITY;
+			else if(negative > 0)
+				total = Double.NEGATIVE_INFINITY;
+			else
+				total = sum + compensation;
+			if(!average)
+				return total;
+			return count == 0 ? Double.NaN : total / count;
+		}
+		
+	}
+	
+	/**
+	 * Finds the least or greatest value of the elements, through a sorted
+	 * multiset of their values.
+	 * 
+	 * @param <E> the type of aggregated elements
+	 */
+	private static final class Extremum<E> extends Aggregator<E, Double> {
+		
+		private static final long serialVersionUID = 2614578305927040561L;
+		
+		/**
+		 * The function giving the value of an element.
+		 */
+		private final ToDoubleFunction<? super E> function;
+		
+		/**
+		 * Whether the aggregate is the greatest value rather than the least.
+		 */
+		private final boolean max;
+		
+		/**
+		 * The number of elements having each value, in sorted order.
+		 */
+		private final TreeMap<Double, Integer> values;
+		
+		/**
+		 * Creates a new least or greatest value of the elements.
+		 * 
+		 * @param function	The function giving the value of an element.
+		 * @param max		Whether the aggregate is the greatest value rather than the least.
+		 */
+		private Extremum(ToDoubleFunction<? super E> function, boolean max) {
+			this.function = function;
+			this.max = max;
+			this.values = new TreeMap<Double, Integer>();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(E e) {
+			values.merge(function.applyAsDouble(e), 1, Integer::sum);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void remove(E e) {
+			values.computeIfPresent(function.applyAsDouble(e), (value, count) -> count == 1 ? null : count - 1);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		Double value() {
+			if(values.isEmpty())
+				return Double.NaN;
+			return max ? values.lastKey() : values.firstKey();
+		}
+		
+	}
+	
+	/**
+	 * Finds the least or greatest element according to a comparator,
+	 * through a sorted map from each class of elements that compare equal
+	 * to the contained instances of that class.
+	 * <p>
+	 * The keys of the map only represent their class, and may no longer be
+	 * contained. The aggregate is always one of the contained instances of
+	 * the least or greatest class.
+	 * 
+	 * @param <E> the type of aggregated elements
+	 */
+	private static final class ExtremumBy<E> extends Aggregator<E, E> {
+		
+		private static final long serialVersionUID = -7545097713066593264L;
+		
+		/**
+		 * Whether the aggregate is the greatest element rather than the least.
+		 */
+		private final boolean max;
+		
+		/**
+		 * The contained instances of each class of equal elements, in sorted
+		 * order.
+		 */
+		private final TreeMap<E, List<E>> elements;
+		
+		/**
+		 * Creates a new least or greatest element according to the given
+		 * comparator.
+		 * 
+		 * @param comparator	The comparator by which the elements are ordered.
+		 * @param max			Whether the aggregate is the greatest element rather than the least.
+		 */
+		private ExtremumBy(Comparator<? super E> comparator, boolean max) {
+			this.max = max;
+			this.elements = new TreeMap<E, List<E>>(comparator);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		void add(E e) {
+			elements.computeIfAbsent(e, element -> new ArrayList<E>(1)).add(e);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * The same instance is removed if it is contained, or else an equal
+		 * one.
+		 */
+		@Override
+		void remove(E e) {
+			List<E> instances = elements.get(e);
+			if(instances == null)
+				return;
+			int index = -1;
+			for(int i = instances.size() - 1; i >= 0; i--) {
+				E instance = instances.get(i);
+				if(instance == e) {
+					index = i;
+					break;
+				}
+				if(index < 0 && Objects.equals(instance, e))
+					index = i;
+			}
+			instances.remove(index < 0 ? instances.size() - 1 : index);
+			if(instances.isEmpty())
+				elements.remove(e);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		E value() {
+			if(elements.isEmpty())
+				return null;
+			Map.Entry<E, List<E>> entry = max ? elements.lastEntry() : elements.firstEntry();
+			return entry.getValue().get(0);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,720 @@
+package celutils.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Package-level class.
+ * <p>
+ * A hash map that keeps track of the weight of its entries and of the
+ * order in which they are to be evicted by an <a href="#{@link}">{@link
+ * EvictionPolicy}</a>.
+ * <p>
+ * This map never evicts an entry by itself. Instead, the entries that
+ * exceed its capacity are removed one at a time through <a href="#{@link}">
+ * {@link #evict()}</a>, so that the owner of the map can report each
+ * eviction. Reads through <a href="#{@link}">{@link #get(Object)}</a> and
+ * writes count as uses of an entry, while membership tests and iteration
+ * do not. Every operation of the policy runs in constant time.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+final class BoundedMap<K, V> extends AbstractMap<K, V> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -3389417209532941185L;
+	
+	/**
+	 * The entries of this map, indexed by key.
+	 */
+	private final HashMap<K, Node<K, V>> nodes = new HashMap<K, Node<K, V>>();
+	
+	/**
+	 * The order in which the entries of this map are to be evicted.
+	 */
+	private final Policy<K, V> policy;
+	
+	/**
+	 * The maximum total weight of the entries of this map.
+	 */
+	private final long maximum;
+	
+	/**
+	 * The function determining the weight of an entry.
+	 */
+	private final ToLongBiFunction<? super K, ? super V> weigher;
+	
+	/**
+	 * The total weight of the entries of this map.
+	 */
+	private long weight;
+	
+	/**
+	 * Creates a new empty bounded map.
+	 * 
+	 * @param policy	The policy choosing the entries to evict.
+	 * @param maximum	The maximum total weight of the entries.
+	 * @param weigher	The function determining the weight of an entry.
+	 */
+	BoundedMap(EvictionPolicy policy, long maximum, ToLongBiFunction<? super K, ? super V> weigher) {
+		switch(policy) {
+		case LRU:
+			this.policy = new LeastRecentlyUsed<K, V>();
+			break;
+		case LFU:
+			this.policy = new LeastFrequentlyUsed<K, V>();
+			break;
+		default:
+			this.policy = new TinyLfu<K, V>(maximum);
+			break;
+		}
+		this.maximum = maximum;
+		this.weigher = weigher;
+	}
+	
+	/**
+	 * Returns the maximum total weight of the entries of this map.
+	 * 
+	 * @return	The capacity of this map.
+	 */
+	long maximum() {
+		return maximum;
+	}
+	
+	/**
+	 * Returns the total weight of the entries of this map.
+	 * 
+	 * @return	The weighted size of this map.
+	 */
+	long weight() {
+		return weight;
+	}
+	
+	/**
+	 * Removes the next entry chosen by the eviction policy, if the
+	 * total weight of the entries exceeds the capacity of this map.
+	 * 
+	 * @return	The evicted entry, or null if this map is within its capacity.
+	 */
+	Entry<K, V> evict() {
+		Node<K, V> node = policy.victim(weight, maximum);
+		if(node == null)
+			return null;
+		nodes.remove(node.key);
+		detach(node);
+		return new SimpleImmutableEntry<K, V>(node.key, node.value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return nodes.containsKey(key);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V get(Object key) {
+		Node<K, V> node = nodes.get(key);
+		if(node == null) {
+			policy.missed(key);
+			return null;
+		}
+		policy.accessed(node);
+		return node.value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V put(K key, V value) {
+		long w = weigher.applyAsLong(key, value);
+		if(w < 0)
+			throw new IllegalArgumentException("Negative weight: " + w);
+		Node<K, V> node = nodes.get(key);
+		if(node != null) {
+			V old = node.value;
+			node.value = value;
+			weight += w - node.weight;
+			policy.updated(node, w);
+			return old;
+		}
+		node = new Node<K, V>(key, value, w);
+		nodes.put(key, node);
+		weight += w;
+		policy.added(node);
+		return null;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V remove(Object key) {
+		Node<K, V> node = nodes.remove(key);
+		if(node == null)
+			return null;
+		detach(node);
+		return node.value;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		for(Node<K, V> node : nodes.values())
+			policy.removed(node);
+		nodes.clear();
+		weight = 0;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+	
+	/**
+	 * Removes an entry that has been removed from the index from the
+	 * eviction order.
+	 */
+	private void detach(Node<K, V> node) {
+		policy.removed(node);
+		weight -= node.weight;
+	}
+	
+	/**
+	 * An entry of the map, linked into a queue of the eviction policy.
+	 */
+	private static final class Node<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 8719633250734606468L;
+		
+		private final K key;
+		private V value;
+		private long weight;
+		private Node<K, V> prev, next;
+		
+		/**
+		 * The segment of the policy holding the entry, and the number of
+		 * times that it has been used, where the policy keeps track of them.
+		 */
+		private byte segment;
+		private Bucket<K, V> bucket;
+		
+		private Node(K key, V value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+		
+	}
+	
+	/**
+	 * A doubly linked queue of entries, in the order in which they were
+	 * appended, along with their total weight.
+	 */
+	private static final class Queue<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -5183040398734113296L;
+		
+		private final Node<K, V> head = new Node<K, V>(null, null, 0);
+		private long weight;
+		
+		private Queue() {
+			head.prev = head.next = head;
+		}
+		
+		private Node<K, V> first() {
+			return head.next == head ? null : head.next;
+		}
+		
+		private boolean isEmpty() {
+			return head.next == head;
+		}
+		
+		private void append(Node<K, V> node) {
+			node.prev = head.prev;
+			node.next = head;
+			head.prev.next = node;
+			head.prev = node;
+			weight += node.weight;
+		}
+		
+		private void unlink(Node<K, V> node) {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = node.next = null;
+			weight -= node.weight;
+		}
+		
+		/**
+		 * Moves an entry of this queue to its end, updating its weight.
+		 */
+		private void requeue(Node<K, V> node, long weight) {
+			unlink(node);
+			node.weight = weight;
+			append(node);
+		}
+		
+	}
+	
+	/**
+	 * The order in which the entries of a map are to be evicted.
+	 */
+	private static abstract class Policy<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 2469417326102795237L;
+		
+		/**
+		 * Called after an entry has been added to the map.
+		 */
+		abstract void added(Node<K, V> node);
+		
+		/**
+		 * Called after an entry of the map has been read.
+		 */
+		abstract void accessed(Node<K, V> node);
+		
+		/**
+		 * Called after the value of an entry of the map has been replaced,
+		 * with the weight of the new value, before it is assigned to the entry.
+		 */
+		abstract void updated(Node<K, V> node, long weight);
+		
+		/**
+		 * Called after an entry has been removed from the map.
+		 */
+		abstract void removed(Node<K, V> node);
+		
+		/**
+		 * Called after a key that is not contained in the map has been read.
+		 */
+		void missed(Object key) {
+		}
+		
+		/**
+		 * Returns the next entry to evict, if the total weight of the
+		 * entries exceeds the maximum.
+		 */
+		abstract Node<K, V> victim(long weight, long maximum);
+		
+	}
+	
+	/**
+	 * Evicts the least recently used entry first.
+	 */
+	private static final class LeastRecentlyUsed<K, V> extends Policy<K, V> {
+		
+		private static final long serialVersionUID = -8245011937216604398L;
+		
+		private final Queue<K, V> queue = new Queue<K, V>();
+		
+		@Override
+		void added(Node<K, V> node) {
+			queue.append(node);
+		}
+		
+		@Override
+		void accessed(Node<K, V> node) {
+			queue.requeue(node, node.weight);
+		}
+		
+		@Override
+		void updated(Node<K, V> node, long weight) {
+			queue.requeue(node, weight);
+		}
+		
+		@Override
+		void removed(Node<K, V> node) {
+			if(node.prev != null)
+				queue.unlink(node);
+		}
+		
+		@Override
+		Node<K, V> victim(long weight, long maximum) {
+			return weight > maximum ? queue.first() : null;
+		}
+		
+	}
+	
+	/**
+	 * A group of entries that have been used the same number of times,
+	 * in least recently used order.
+	 */
+	private static final class Bucket<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -7050853014917562806L;
+		
+		private final long frequency;
+		private final Queue<K, V> queue = new Queue<K, V>();
+		private Bucket<K, V> prev, next;
+		
+		private Bucket(long frequency) {
+			this.frequency = frequency;
+		}
+		
+	}
+	
+	/**
+	 * Evicts the least frequently used entry first. The entries are kept
+	 * in a list of buckets of ascending frequency, so that using an entry
+	 * moves it to the following bucket in constant time.
+	 */
+	private static final class LeastFrequentlyUsed<K, V> extends Policy<K, V> {
+		
+		private static final long serialVersionUID = 6087516434640513394L;
+		
+		private final Bucket<K, V> head = new Bucket<K, V>(0);
+		
+		private LeastFrequentlyUsed() {
+			head.prev = head.next = head;
+		}
+		
+		@Override
+		void added(Node<K, V> node) {
+			Bucket<K, V> bucket = head.next.frequency == 1 ? head.next : insertAfter(head, 1);
+			bucket.queue.append(node);
+			node.bucket = bucket;
+		}
+		
+		@Override
+		void accessed(Node<K, V> node) {
+			updated(node, node.weight);
+		}
+		
+		@Override
+		void updated(Node<K, V> node, long weight) {
+			Bucket<K, V> bucket = node.bucket;
+			long frequency = bucket.frequency + 1;
+			Bucket<K, V> next = bucket.next != head && bucket.next.frequency == frequency
+					? bucket.next : insertAfter(bucket, frequency);
+			bucket.queue.unlink(node);
+			node.weight = weight;
+			next.queue.append(node);
+			node.bucket = next;
+			if(bucket.queue.isEmpty())
+				unlink(bucket);
+		}
+		
+		@Override
+		void removed(Node<K, V> node) {
+			Bucket<K, V> bucket = node.bucket;
+			if(bucket == null)
+				return;
+			bucket.queue.unlink(node);
+			node.bucket = null;
+			if(bucket.queue.isEmpty())
+				unlink(bucket);
+		}
+		
+		@Override
+		Node<K, V> victim(long weight, long maximum) {
+			return weight > maximum && head.next != head ? head.next.queue.first() : null;
+		}
+		
+		private Bucket<K, V> insertAfter(Bucket<K, V> bucket, long frequency) {
+			Bucket<K, V> inserted = new Bucket<K, V>(frequency);
+			inserted.prev = bucket;
+			inserted.next = bucket.next;
+			bucket.next.prev = inserted;
+			bucket.next = inserted;
+			return inserted;
+		}
+		
+		private void unlink(Bucket<K, V> bucket) {
+			bucket.prev.next = bucket.next;
+			bucket.next.prev = bucket.prev;
+		}
+		
+	}
+	
+	/**
+	 * Evicts entries by the Window TinyLFU policy.
+	 * <p>
+	 * New entries enter a window holding about 1% of the capacity, in least
+	 * recently used order. Entries leaving the window enter the probation
+	 * segment of the main area, and entries used while on probation are
+	 * promoted to its protected segment, which holds up to 80% of the main
+	 * area. Once the capacity is exceeded, the oldest entry of the window
+	 * competes with the oldest entry of the main area, and the one whose
+	 * key is estimated to be used less frequently is evicted.
+	 */
+	private static final class TinyLfu<K, V> extends Policy<K, V> {
+		
+		private static final long serialVersionUID = -1187604036283016932L;
+		
+		private static final byte WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+		
+		private final Queue<K, V> window = new Queue<K, V>();
+		private final Queue<K, V> probation = new Queue<K, V>();
+		private final Queue<K, V> protectedQueue = new Queue<K, V>();
+		private final long maxWindow;
+		private final long maxProtected;
+		private final FrequencySketch sketch = new FrequencySketch();
+		private int size;
+		
+		private TinyLfu(long maximum) {
+			this.maxWindow = maximum / 100;
+			this.maxProtected = (maximum - maxWindow) / 5 * 4;
+		}
+		
+		@Override
+		void added(Node<K, V> node) {
+			sketch.ensureCapacity(++size);
+			sketch.increment(node.key);
+			node.segment = WINDOW;
+			window.append(node);
+		}
+		
+		@Override
+		void accessed(Node<K, V> node) {
+			updated(node, node.weight);
+		}
+		
+		@Override
+		void updated(Node<K, V> node, long weight) {
+			sketch.increment(node.key);
+			switch(node.segment) {
+			case WINDOW:
+				window.requeue(node, weight);
+				break;
+			case PROTECTED:
+				protectedQueue.requeue(node, weight);
+				break;
+			default:
+				probation.unlink(node);
+				node.weight = weight;
+				node.segment = PROTECTED;
+				protectedQueue.append(node);
+				while(protectedQueue.weight > maxProtected) {
+					Node<K, V> demoted = protectedQueue.first();
+					protectedQueue.unlink(demoted);
+					demoted.segment = PROBATION;
+					probation.append(demoted);
+				}
+				break;
+			}
+		}
+		
+		@Override
+		void removed(Node<K, V> node) {
+			if(node.prev == null)
+				return;
+			queue(node).unlink(node);
+			size--;
+		}
+		
+		@Override
+		void missed(Object key) {
+			sketch.increment(key);
+		}
+		
+		@Override
+		Node<K, V> victim(long weight, long maximum) {
+			while(true) {
+				Node<K, V> candidate = window.weight > maxWindow ? window.first() : null;
+				if(weight <= maximum) {
+					if(candidate == null)
+						return null;
+					probate(candidate);
+					continue;
+				}
+				
+				Node<K, V> victim = probation.first();
+				if(victim == null)
+					victim = protectedQueue.first();
+				if(candidate == null)
+					return victim != null ? victim : window.first();
+				if(victim == null) {
+					probate(candidate);
+					continue;
+				}
+				if(sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+					probate(candidate);
+					return victim;
+				}
+				return candidate;
+			}
+		}
+		
+		/**
+		 * Moves an entry from the window to the probation segment.
+		 */
+		private void probate(Node<K, V> node) {
+			window.unlink(node);
+			node.segment = PROBATION;
+			probation.append(node);
+		}
+		
+		private Queue<K, V> queue(Node<K, V> node) {
+			return node.segment == WINDOW ? window : node.segment == PROBATION ? probation : protectedQueue;
+		}
+		
+	}
+	
+	/**
+	 * A count-min sketch estimating how often keys have been used. Each
+	 * key is counted by four saturating counters, the smallest of which is
+	 * its estimate. Once the number of counted uses reaches ten times the
+	 * number of counters, all counters are halved, so that the estimates
+	 * favour recent uses.
+	 */
+	private static final class FrequencySketch implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 4025937152873006582L;
+		
+		private static final int[] SEEDS = { 0x97CB3127, 0xB9F9A6B5, 0x7FEB352D, 0x846CA68B };
+		private static final int LIMIT = 15;
+		
+		private int[] table = new int[16];
+		private int additions;
+		
+		/**
+		 * Widens the sketch to keep its error low for the given number of
+		 * keys, which resets all counters.
+		 */
+		private void ensureCapacity(int size) {
+			if(size <= table.length || table.length >= 1 << 26)
+				return;
+			table = new int[Integer.highestOneBit(size - 1) << 1];
+			additions = 0;
+		}
+		
+		private int frequency(Object key) {
+			int h = spread(key);
+			int frequency = LIMIT;
+			for(int seed : SEEDS)
+				frequency = Math.min(frequency, table[index(h, seed)]);
+			return frequency;
+		}
+		
+		private void increment(Object key) {
+			int h = spread(key);
+			int frequency = frequency(key);
+			if(frequency == LIMIT)
+				return;
+			for(int seed : SEEDS) {
+				int i = index(h, seed);
+				if(table[i] == frequency)
+					table[i]++;
+			}
+			if(++additions >= 10 * table.length) {
+				for(int i = 0; i < table.length; i++)
+					table[i] >>>= 1;
+				additions /= 2;
+			}
+		}
+		
+		private int index(int h, int seed) {
+			int x = (h ^ seed) * seed;
+			return (x ^ (x >>> 15)) & (table.length - 1);
+		}
+		
+		private static int spread(Object key) {
+			int h = key == null ? 0 : key.hashCode() * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+		
+	}
+	
+	/**
+	 * The entry set of the map.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			Iterator<Node<K, V>> it = nodes.values().iterator();
+			return new Iterator<Entry<K, V>>() {
+				
+				private Node<K, V> last;
+				
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+				
+				@Override
+				public Entry<K, V> next() {
+					last = it.next();
+					return new WriteThroughEntry(last);
+				}
+				
+				@Override
+				public void remove() {
+					it.remove();
+					detach(last);
+				}
+				
+			};
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return nodes.size();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			BoundedMap.this.clear();
+		}
+		
+	}
+	
+	/**
+	 * An entry returned by the entry set of the map, writing its value
+	 * through to the map.
+	 */
+	private final class WriteThroughEntry extends SimpleEntry<K, V> {
+		
+		private static final long serialVersionUID = -2015283469398006541L;
+		
+		private WriteThroughEntry(Node<K, V> node) {
+			super(node.key, node.value);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public V setValue(V value) {
+			super.setValue(value);
+			return put(getKey(), value);
+		}
+		
+	}
+	
+}
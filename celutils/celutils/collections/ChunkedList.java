@@ -0,0 +1,700 @@
+package celutils.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A package-level, thread-safe list that stores its elements in a
+ * sequence of small, immutable chunks.
+ * <p>
+ * Every modification replaces the chunks it affects with modified
+ * copies, so that readers never need to lock. Each chunk is guarded
+ * by one of several stripe locks: replacing or appending an element
+ * only locks the stripe of the chunk it falls into, so that writers
+ * of different chunks never contend with each other. Modifications
+ * that shift elements across chunks lock every stripe.
+ * <p>
+ * Iterators operate on a consistent snapshot of the list taken when
+ * they are created, and do not support modification.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+final class ChunkedList<E> extends AbstractList<E> implements RandomAccess, java.io.Serializable {
+	
+	private static final long serialVersionUID = -1383186633717045213L;
+	
+	/**
+	 * The maximum number of elements in a single chunk.
+	 */
+	private static final int CHUNK_CAPACITY = 256;
+	
+	/**
+	 * The number of attempts at taking an optimistic snapshot before
+	 * falling back to locking every stripe.
+	 */
+	private static final int SNAPSHOT_ATTEMPTS = 16;
+	
+	/**
+	 * The stripe locks of this list. Chunk {@code i} is guarded by the
+	 * lock at index {@code i & (locks.length - 1)}.
+	 */
+	private final ReentrantLock[] locks;
+	
+	/**
+	 * The number of in-place chunk replacements that have been started
+	 * and finished, respectively. Used for validating snapshots.
+	 */
+	private final AtomicLong started;
+	private final AtomicLong finished;
+	
+	/**
+	 * The current chunk layout of this list.
+	 */
+	private volatile Layout layout;
+	
+	/**
+	 * Creates a new empty chunked list.
+	 */
+	ChunkedList() {
+		int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+		this.locks = new ReentrantLock[count];
+		for(int i = 0; i < count; i++)
+			locks[i] = new ReentrantLock();
+		this.started = new AtomicLong();
+		this.finished = new AtomicLong();
+		this.layout = new Layout(new Object[0][]);
+	}
+	
+	/**
+	 * Creates a new chunked list containing the elements of the given
+	 * collection.
+	 * 
+	 * @param c	The collection to create this list from.
+	 */
+	ChunkedList(Collection<? extends E> c) {
+		this();
+		this.layout = Layout.of(c.toArray());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return layout.size();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Layout layout = this.layout;
+		checkIndex(index, layout.size());
+		int c = layout.chunkOf(index);
+		return (E) layout.chunks.get(c)[index - layout.offsets[c]];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E set(int index, E element) {
+		for(;;) {
+			Layout layout = this.layout;
+			checkIndex(index, layout.size());
+			int c = layout.chunkOf(index);
+			
+			ReentrantLock lock = locks[c & (locks.length - 1)];
+			lock.lock();
+			try {
+				if(layout != this.layout) continue;
+				
+				Object[] chunk = layout.chunks.get(c);
+				int i = index - layout.offsets[c];
+				if(i >= chunk.length) continue;
+				
+				Object[] copy = chunk.clone();
+				copy[i] = element;
+				replace(layout, c, copy);
+				return (E) chunk[i];
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(E element) {
+		for(;;) {
+			Layout layout = this.layout;
+			int c = layout.offsets.length - 1;
+			if(c < 0) break;
+			
+			ReentrantLock lock = locks[c & (locks.length - 1)];
+			lock.lock();
+			try {
+				if(layout != this.layout) continue;
+				
+				Object[] chunk = layout.chunks.get(c);
+				if(chunk.length >= CHUNK_CAPACITY) break;
+				
+				Object[] copy = Arrays.copyOf(chunk, chunk.length + 1);
+				copy[chunk.length] = element;
+				replace(layout, c, copy);
+				return true;
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		
+		lockAll();
+		try {
+			insert(layout.size(), new Object[] { element });
+			return true;
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(int index, E element) {
+		lockAll();
+		try {
+			if(index < 0 || index > layout.size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + layout.size());
+			insert(index, new Object[] { element });
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		Object[] elements = c.toArray();
+		if(elements.length == 0) return false;
+		
+		lockAll();
+		try {
+			insert(layout.size(), elements);
+			return true;
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		Object[] elements = c.toArray();
+		lockAll();
+		try {
+			if(index < 0 || index > layout.size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + layout.size());
+			if(elements.length == 0) return false;
+			insert(index, elements);
+			return true;
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public E remove(int index) {
+		lockAll();
+		try {
+			Layout layout = this.layout;
+			checkIndex(index, layout.size());
+			int c = layout.chunkOf(index);
+			Object[] chunk = layout.chunks.get(c);
+			int i = index - layout.offsets[c];
+			
+			Object[] copy = new Object[chunk.length - 1];
+			System.arraycopy(chunk, 0, copy, 0, i);
+			System.arraycopy(chunk, i + 1, copy, i, chunk.length - i - 1);
+			
+			Object[][] chunks = layout.toArray();
+			if(copy.length == 0) {
+				Object[][] shrunk = new Object[chunks.length - 1][];
+				System.arraycopy(chunks, 0, shrunk, 0, c);
+				System.arraycopy(chunks, c + 1, shrunk, c, chunks.length - c - 1);
+				chunks = shrunk;
+			}
+			else
+				chunks[c] = copy;
+			this.layout = new Layout(chunks);
+			return (E) chunk[i];
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if(fromIndex >= toIndex) return;
+		rebuild(elements -> {
+			Object[] result = new Object[elements.length - (toIndex - fromIndex)];
+			System.arraycopy(elements, 0, result, 0, fromIndex);
+			System.arraycopy(elements, toIndex, result, fromIndex, elements.length - toIndex);
+			return result;
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		lockAll();
+		try {
+			layout = new Layout(new Object[0][]);
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean removeIf(Predicate<? super E> filter) {
+		boolean[] removed = new boolean[1];
+		rebuild(elements -> {
+			int n = 0;
+			for(Object element : elements) {
+				if(!filter.test((E) element))
+					elements[n++] = element;
+			}
+			removed[0] = n != elements.length;
+			return n == elements.length ? elements : Arrays.copyOf(elements, n);
+		});
+		return removed[0];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void replaceAll(UnaryOperator<E> operator) {
+		rebuild(elements -> {
+			for(int i = 0; i < elements.length; i++)
+				elements[i] = operator.apply((E) elements[i]);
+			return elements;
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		rebuild(elements -> {
+			Arrays.sort(elements, (Comparator<Object>) c);
+			return elements;
+		});
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		return flatten(snapshot());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The iterator returned operates on a snapshot of this list, and
+	 * does not support modification.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr<E>(snapshot());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The iterator returned operates on a snapshot of this list, and
+	 * does not support modification.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public ListIterator<E> listIterator(int index) {
+		return Collections.unmodifiableList(Arrays.asList((E[]) toArray())).listIterator(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The spliterator returned operates on a snapshot of this list, and
+	 * splits it by halving its range of indices.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		for(Object[] chunk : snapshot()) {
+			for(Object element : chunk)
+				action.accept((E) element);
+		}
+	}
+	
+	/**
+	 * Takes a consistent snapshot of the chunks of this list. Snapshots
+	 * are taken optimistically without locking, and validated against any
+	 * concurrent chunk replacement. Only if validation repeatedly fails
+	 * are the stripes locked.
+	 * 
+	 * @return	The chunks of this list.
+	 */
+	Object[][] snapshot() {
+		for(int attempt = 0; attempt < SNAPSHOT_ATTEMPTS; attempt++) {
+			long done = finished.get();
+			long begun = started.get();
+			if(begun == done) {
+				Object[][] chunks = layout.toArray();
+				if(started.get() == begun)
+					return chunks;
+			}
+		}
+		
+		lockAll();
+		try {
+			return layout.toArray();
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * Replaces a single chunk of the given layout in place. The stripe
+	 * lock of that chunk must be held.
+	 * 
+	 * @param layout	The current layout.
+	 * @param c			The index of the chunk to replace.
+	 * @param chunk		The new chunk.
+	 */
+	private void replace(Layout layout, int c, Object[] chunk) {
+		started.incrementAndGet();
+		try {
+			layout.chunks.set(c, chunk);
+		}
+		finally {
+			finished.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Inserts the given elements at the given index. Every stripe lock
+	 * must be held.
+	 * 
+	 * @param index		The index at which to insert the elements.
+	 * @param elements	The elements to insert.
+	 */
+	private void insert(int index, Object[] elements) {
+		Layout layout = this.layout;
+		Object[][] chunks = layout.toArray();
+		if(chunks.length == 0) {
+			this.layout = Layout.of(elements);
+			return;
+		}
+		
+		int c = layout.chunkOf(index);
+		Object[] chunk = chunks[c];
+		int i = index - layout.offsets[c];
+		
+		Object[] merged = new Object[chunk.length + elements.length];
+		System.arraycopy(chunk, 0, merged, 0, i);
+		System.arraycopy(elements, 0, merged, i, elements.length);
+		System.arraycopy(chunk, i, merged, i + elements.length, chunk.length - i);
+		
+		Object[][] split = Layout.split(merged);
+		Object[][] result = new Object[chunks.length - 1 + split.length][];
+		System.arraycopy(chunks, 0, result, 0, c);
+		System.arraycopy(split, 0, result, c, split.length);
+		System.arraycopy(chunks, c + 1, result, c + split.length, chunks.length - c - 1);
+		this.layout = new Layout(result);
+	}
+	
+	/**
+	 * Rebuilds this list from the result of the given function, applied
+	 * to all of its elements, while every stripe is locked.
+	 * 
+	 * @param function	The function producing the new elements of this list.
+	 */
+	private void rebuild(UnaryOperator<Object[]> function) {
+		lockAll();
+		try {
+			layout = Layout.of(function.apply(flatten(layout.toArray())));
+		}
+		finally {
+			unlockAll();
+		}
+	}
+	
+	/**
+	 * Locks every stripe of this list, in order.
+	 */
+	private void lockAll() {
+		for(ReentrantLock lock : locks)
+			lock.lock();
+	}
+	
+	/**
+	 * Unlocks every stripe of this list, in reverse order.
+	 */
+	private void unlockAll() {
+		for(int i = locks.length - 1; i >= 0; i--)
+			locks[i].unlock();
+	}
+	
+	/**
+	 * Concatenates the given chunks into a single array.
+	 * 
+	 * @param chunks	The chunks to concatenate.
+	 * @return			The elements of every chunk.
+	 */
+	private static Object[] flatten(Object[][] chunks) {
+		int size = 0;
+		for(Object[] chunk : chunks)
+			size += chunk.length;
+		
+		Object[] elements = new Object[size];
+		int offset = 0;
+		for(Object[] chunk : chunks) {
+			System.arraycopy(chunk, 0, elements, offset, chunk.length);
+			offset += chunk.length;
+		}
+		return elements;
+	}
+	
+	/**
+	 * Checks that the given index is within the bounds of a list.
+	 * 
+	 * @param index	The index to check.
+	 * @param size	The size of the list.
+	 */
+	private static void checkIndex(int index, int size) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+	
+	/**
+	 * An arrangement of chunks along with the index of the first element
+	 * of each chunk. The chunks themselves can be replaced in place by
+	 * writers holding their stripe lock, as long as their length does not
+	 * change, except for the last chunk which can grow. Any other change
+	 * creates a new layout.
+	 */
+	private static final class Layout implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 5180370101575226658L;
+		
+		/**
+		 * The chunks of this layout.
+		 */
+		final AtomicReferenceArray<Object[]> chunks;
+		
+		/**
+		 * The index of the first element of each chunk.
+		 */
+		final int[] offsets;
+		
+		/**
+		 * Creates a new layout of the given chunks.
+		 * 
+		 * @param chunks	The chunks of this layout, none of which may be empty.
+		 */
+		Layout(Object[][] chunks) {
+			this.chunks = new AtomicReferenceArray<>(chunks);
+			this.offsets = new int[chunks.length];
+			for(int i = 1; i < chunks.length; i++)
+				offsets[i] = offsets[i - 1] + chunks[i - 1].length;
+		}
+		
+		/**
+		 * Returns the number of elements in this layout.
+		 * 
+		 * @return	The size of this layout.
+		 */
+		int size() {
+			int last = offsets.length - 1;
+			return last < 0 ? 0 : offsets[last] + chunks.get(last).length;
+		}
+		
+		/**
+		 * Returns the index of the chunk containing the element at the
+		 * given index. An index equal to the size of this layout is part
+		 * of the last chunk.
+		 * 
+		 * @param index	The index of the element.
+		 * @return		The index of its chunk.
+		 */
+		int chunkOf(int index) {
+			int low = 0;
+			int high = offsets.length - 1;
+			while(low < high) {
+				int mid = (low + high + 1) >>> 1;
+				if(offsets[mid] <= index)
+					low = mid;
+				else
+					high = mid - 1;
+			}
+			return low;
+		}
+		
+		/**
+		 * Copies the chunks of this layout into an array.
+		 * 
+		 * @return	The chunks of this layout.
+		 */
+		Object[][] toArray() {
+			Object[][] result = new Object[offsets.length][];
+			for(int i = 0; i < result.length; i++)
+				result[i] = chunks.get(i);
+			return result;
+		}
+		
+		/**
+		 * Creates a new layout containing the given elements.
+		 * 
+		 * @param elements	The elements of the new layout.
+		 * @return			The newly created layout.
+		 */
+		static Layout of(Object[] elements) {
+			return new Layout(split(elements));
+		}
+		
+		/**
+		 * Splits the given elements into half-full chunks, leaving room
+		 * for elements to be appended to each chunk.
+		 * 
+		 * @param elements	The elements to split.
+		 * @return			The resulting chunks.
+		 */
+		static Object[][] split(Object[] elements) {
+			if(elements.length <= CHUNK_CAPACITY)
+				return elements.length == 0 ? new Object[0][] : new Object[][] { elements };
+			
+			int size = CHUNK_CAPACITY / 2;
+			Object[][] chunks = new Object[(elements.length + size - 1) / size][];
+			for(int i = 0; i < chunks.length; i++)
+				chunks[i] = Arrays.copyOfRange(elements, i * size, Math.min(elements.length, (i + 1) * size));
+			return chunks;
+		}
+		
+	}
+	
+	/**
+	 * An iterator over a snapshot of the chunks of a list.
+	 * 
+	 * @param <E> the type of elements in the list
+	 */
+	private static final class Itr<E> implements Iterator<E> {
+		
+		/**
+		 * The snapshot of the chunks of the list.
+		 */
+		private final Object[][] chunks;
+		
+		/**
+		 * The position of the next element in the snapshot.
+		 */
+		private int chunk;
+		private int index;
+		
+		/**
+		 * Creates a new iterator over the given snapshot.
+		 * 
+		 * @param chunks	The snapshot of the chunks of the list.
+		 */
+		private Itr(Object[][] chunks) {
+			this.chunks = chunks;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return chunk < chunks.length;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if(chunk >= chunks.length)
+				throw new NoSuchElementException();
+			
+			E element = (E) chunks[chunk][index];
+			if(++index == chunks[chunk].length) {
+				chunk++;
+				index = 0;
+			}
+			return element;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,114 @@
+package celutils.collections;
+
+import celutils.beans.property.InternalProperty;
+
+/**
+ * A property holding the value of the entry of an <a href="#{@link}">
+ * {@link ObservableMap}</a> with a given key, as returned by <a href="#{@link}">
+ * {@link ObservableMap#propertyFor(Object)}</a>.
+ * <p>
+ * Rather than polling its map, an entry property is notified by the map
+ * when its entry changes. Whenever the map is updated after a change of
+ * the entry, the property takes the new value of the entry, and is updated
+ * itself, which executes its listeners and updates its bindings. Changes
+ * of any other entry of the map do not concern the property at all. The
+ * value of the property is null while the entry does not exist.
+ * <p>
+ * Setting the property writes through to the map: a non-null value is put
+ * into the map, and null removes the entry. The property takes the value
+ * at once, and the change of the entry is recorded like any other
+ * modification of the map.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @see ObservableMap#propertyFor(Object)
+ * @author Max D
+ */
+public final class EntryProperty<K, V> extends InternalProperty<V> {
+	
+	private static final long serialVersionUID = 2904116384290764853L;
+	
+	/**
+	 * The map holding the entry.
+	 */
+	private final ObservableMap<K, V> map;
+	
+	/**
+	 * The key of the entry.
+	 */
+	private final K key;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new property for the entry of the given map with the
+	 * given key.
+	 * 
+	 * @param map	The map holding the entry.
+	 * @param key	The key of the entry.
+	 * @param value	The current value of the entry.
+	 */
+	EntryProperty(ObservableMap<K, V> map, K key, V value) {
+		super(value);
+		this.map = map;
+		this.key = key;
+	}
+	
+	/**
+	 * Returns the map holding the entry of this property.
+	 * 
+	 * @return	The map of this property.
+	 */
+	public ObservableMap<K, V> getMap() {
+		return map;
+	}
+	
+	/**
+	 * Returns the key of the entry of this property.
+	 * 
+	 * @return	The key of this property.
+	 */
+	public K getKey() {
+		return key;
+	}
+	
+	/**
+	 * Takes the new value of the entry after it has changed, and updates
+	 * this property.
+	 * 
+	 * @param value	The new value of the entry, or null if it no longer exists.
+	 */
+	void changed(V value) {
+		super.set(value);
+		update();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * A non-null value is put into the map, while null removes the entry
+	 * from the map.
+	 */
+	@Override
+	public void set(V value) {
+		super.set(value);
+		if(value == null)
+			map.remove(key);
+		else
+			map.put(key, value);
+	}
+	
+	/**
+	 * Returns the class object of {@code Object}, as the type of the
+	 * values of a map is not known at runtime.
+	 * 
+	 * @return	The class object of {@code Object}.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Class<V> getPropertyType() {
+		return (Class<V>) Object.class;
+	}
+	
+}
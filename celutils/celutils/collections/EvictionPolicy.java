@@ -0,0 +1,36 @@
+package celutils.collections;
+
+/**
+ * An enumeration of the policies by which an <a href="#{@link}">
+ * {@link ObservableBoundedMap}</a> chooses the entries to evict once
+ * its capacity is exceeded.
+ * 
+ * @see ObservableBoundedMap
+ * @author Max D
+ */
+public enum EvictionPolicy {
+	
+	/**
+	 * Least recently used. The entry that has gone the longest without
+	 * being read or written is evicted first.
+	 */
+	LRU,
+	
+	/**
+	 * Least frequently used. The entry that has been read or written the
+	 * fewest times since it was added is evicted first, and the least
+	 * recently used one among entries used equally often.
+	 */
+	LFU,
+	
+	/**
+	 * Window TinyLFU. New entries enter a small least recently used window,
+	 * and only displace an entry of the main area of the map when they are
+	 * estimated to be used more frequently than it. The frequencies of both
+	 * present and absent keys are estimated by a compact sketch that ages
+	 * over time, which lets the map retain popular entries through bursts
+	 * of entries that are used only once.
+	 */
+	TINY_LFU;
+	
+}
@@ -0,0 +1,106 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Package-level class.
+ * <p>
+ * A live view of the elements of a source list that satisfy a
+ * predicate. Every element of the source is kept in a <a href=
+ * "#{@link}">{@link RankTree}</a> and marked if it satisfies the
+ * predicate, so that indices of the view and of the source can be
+ * converted into one another in O(log n).
+ * 
+ * @param <E> the type of elements in this view
+ * 
+ * @see ObservableList#filtered(Predicate)
+ * @author Max D
+ */
+final class FilteredList<E> extends ObservableListView<E, E> {
+	
+	private static final long serialVersionUID = -3386416904871352716L;
+	
+	/**
+	 * The predicate that elements of this view satisfy.
+	 */
+	private final Predicate<? super E> predicate;
+	
+	/**
+	 * The elements of the source, marked if they satisfy the predicate.
+	 */
+	private final RankTree<E> tree;
+	
+	/**
+	 * Creates a new filtered view of the given source list.
+	 * 
+	 * @param source	The list from which this view is derived.
+	 * @param predicate	The predicate that elements of this view satisfy.
+	 */
+	FilteredList(ObservableList<E> source, Predicate<? super E> predicate) {
+		super(source);
+		this.predicate = predicate;
+		this.tree = new RankTree<E>();
+		attach();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void initialize(List<E> contents) {
+		for(E e : contents)
+			tree.insert(tree.size(), e, predicate.test(e));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Since a change of the source covers a contiguous range, the
+	 * elements of that range that satisfy the predicate form a
+	 * contiguous range of this view as well.
+	 */
+	@Override
+	void sourceChanged(ListChange<E> change) {
+		int from = change.getFrom();
+		List<E> removed = new ArrayList<E>();
+		List<E> added = new ArrayList<E>();
+		
+		for(int i = 0; i < change.removed.size(); i++) {
+			E e = tree.get(from);
+			if(tree.remove(from))
+				removed.add(e);
+		}
+		for(int i = 0; i < change.added.size(); i++) {
+			E e = change.added.get(i);
+			boolean accepted = predicate.test(e);
+			tree.insert(from + i, e, accepted);
+			if(accepted)
+				added.add(e);
+		}
+		
+		if(removed.isEmpty() && added.isEmpty())
+			return;
+		modified();
+		if(isTracking())
+			record(tree.rank(from), removed, added);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	E element(int index) {
+		return tree.get(tree.select(index));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	int length() {
+		return tree.marked();
+	}
+	
+}
@@ -0,0 +1,752 @@
+package celutils.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Package-level class.
+ * <p>
+ * A map stored as a hash array mapped trie, whose contents can be
+ * captured as an immutable snapshot in constant time.
+ * <p>
+ * Each level of the trie consumes 5 bits of the hash code of a key, and
+ * each node keeps a bitmap of its occupied children along with a compact
+ * array of them, so lookups, insertions and removals run in O(log<sub>32
+ * </sub> n) time. Keys whose hash codes are entirely equal are held in a
+ * collision node below the last level.
+ * <p>
+ * Every node of the trie is tagged with the owner that created it. While
+ * no snapshot is taken, all of the nodes belong to the map, which edits
+ * them in place. Taking a snapshot shares the current trie with the
+ * snapshot and gives the map a new owner, so that later modifications
+ * copy the nodes along the path they change instead of altering the ones
+ * seen by the snapshot. Snapshots are thereby immutable, share all of
+ * the unmodified nodes with the map, and may be read from any thread.
+ * <p>
+ * The entry set of this map iterates over a snapshot taken when the
+ * iterator is created, so that the map may be modified while it is being
+ * iterated over. Modifications and snapshots are synchronized on the map,
+ * while reads are not, and are meant for the thread modifying the map.
+ * Keys must not change their hash code or equality while they are
+ * contained in this map.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+final class HashTrieMap<K, V> extends AbstractMap<K, V> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -6150867342951470265L;
+	
+	/**
+	 * The number of bits of a hash code consumed by each level of the trie.
+	 */
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	
+	/**
+	 * The root of the trie.
+	 */
+	private Bitmap root = new Bitmap(null, 0, new Object[0]);
+	
+	/**
+	 * The number of entries in this map.
+	 */
+	private int size;
+	
+	/**
+	 * The owner of the nodes that this map may edit in place.
+	 */
+	private transient Object owner;
+	
+	/**
+	 * The snapshot of the current contents of this map, if it has already
+	 * been taken.
+	 */
+	private transient Snapshot<K, V> snapshot;
+	
+	/**
+	 * The value replaced or removed by the last modification, and whether
+	 * or not its key was contained in the trie.
+	 */
+	private transient Object previous;
+	private transient boolean found;
+	
+	/**
+	 * Creates a new empty map.
+	 */
+	HashTrieMap() {
+	}
+	
+	/**
+	 * Creates a new map containing the given entries.
+	 * 
+	 * @param m	The entries to add to this map.
+	 */
+	HashTrieMap(Map<? extends K, ? extends V> m) {
+		putAll(m);
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the current contents of this map,
+	 * in constant time.
+	 * 
+	 * @return	The snapshot.
+	 */
+	synchronized Map<K, V> snapshot() {
+		if(snapshot == null) {
+			snapshot = new Snapshot<K, V>(root, size);
+			owner = null;
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return find(root, key) != null;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V get(Object key) {
+		Leaf<K, V> leaf = find(root, key);
+		return leaf == null ? null : leaf.getValue();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized V put(K key, V value) {
+		found = false;
+		previous = null;
+		Object result = put(root, 0, new Leaf<K, V>(hash(key), key, value));
+		if(result != root) {
+			snapshot = null;
+			root = (Bitmap) result;
+		}
+		if(!found)
+			size++;
+		V old = (V) previous;
+		previous = null;
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized V remove(Object key) {
+		found = false;
+		previous = null;
+		Object result = remove(root, 0, hash(key), key);
+		if(!found)
+			return null;
+		snapshot = null;
+		root = result == null ? new Bitmap(owner(), 0, new Object[0]) : (Bitmap) result;
+		size--;
+		V old = (V) previous;
+		previous = null;
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void clear() {
+		snapshot = null;
+		root = new Bitmap(owner(), 0, new Object[0]);
+		size = 0;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+	
+	/**
+	 * Inserts a leaf into a subtrie, returning the subtrie, which is copied
+	 * if it is modified and not owned by this map.
+	 */
+	private Object put(Object node, int shift, Leaf<K, V> leaf) {
+		if(node instanceof Collision) {
+			Collision collision = (Collision) node;
+			for(int i = 0; i < collision.leaves.length; i++) {
+				if(Objects.equals(collision.leaves[i].getKey(), leaf.getKey()))
+					return replace(collision, i, leaf);
+			}
+			Leaf<?, ?>[] leaves = new Leaf<?, ?>[collision.leaves.length + 1];
+			System.arraycopy(collision.leaves, 0, leaves, 0, collision.leaves.length);
+			leaves[collision.leaves.length] = leaf;
+			return new Collision(owner(), collision.hash, leaves);
+		}
+		
+		Bitmap bitmap = (Bitmap) node;
+		int bit = 1 << ((leaf.hash >>> shift) & MASK);
+		int i = Integer.bitCount(bitmap.bitmap & (bit - 1));
+		if((bitmap.bitmap & bit) == 0) {
+			Object[] children = new Object[bitmap.children.length + 1];
+			System.arraycopy(bitmap.children, 0, children, 0, i);
+			children[i] = leaf;
+			System.arraycopy(bitmap.children, i, children, i + 1, bitmap.children.length - i);
+			return new Bitmap(owner(), bitmap.bitmap | bit, children);
+		}
+		
+		Object child = bitmap.children[i];
+		Object newChild;
+		if(child instanceof Leaf) {
+			Leaf<?, ?> existing = (Leaf<?, ?>) child;
+			if(existing.hash == leaf.hash && Objects.equals(existing.getKey(), leaf.getKey())) {
+				found = true;
+				previous = existing.getValue();
+				if(existing.getValue() == leaf.getValue())
+					return bitmap;
+				newChild = leaf;
+			}
+			else
+				newChild = join(existing, leaf, shift + BITS);
+		}
+		else
+			newChild = put(child, shift + BITS, leaf);
+		if(newChild == child)
+			return bitmap;
+		Bitmap result = editable(bitmap);
+		result.children[i] = newChild;
+		return result;
+	}
+	
+	/**
+	 * Replaces the leaf at the given position of a collision node.
+	 */
+	private Collision replace(Collision collision, int i, Leaf<K, V> leaf) {
+		found = true;
+		previous = collision.leaves[i].getValue();
+		if(collision.leaves[i].getValue() == leaf.getValue())
+			return collision;
+		Collision result = collision.owner == owner() ? collision
+				: new Collision(owner(), collision.hash, collision.leaves.clone());
+		result.leaves[i] = leaf;
+		return result;
+	}
+	
+	/**
+	 * Creates the smallest subtrie containing two leaves with different keys.
+	 */
+	private Object join(Leaf<?, ?> a, Leaf<?, ?> b, int shift) {
+		if(shift >= Integer.SIZE)
+			return new Collision(owner(), a.hash, new Leaf<?, ?>[] {a, b});
+		int i = (a.hash >>> shift) & MASK;
+		int j = (b.hash >>> shift) & MASK;
+		if(i == j)
+			return new Bitmap(owner(), 1 << i, new Object[] {join(a, b, shift + BITS)});
+		return new Bitmap(owner(), (1 << i) | (1 << j), i < j ? new Object[] {a, b} : new Object[] {b, a});
+	}
+	
+	/**
+	 * Removes a key from a subtrie, returning the subtrie, which is copied
+	 * if it is modified and not owned by this map. A subtrie left with a
+	 * single leaf below the root is replaced by the leaf, and an empty one
+	 * by null.
+	 */
+	private Object remove(Object node, int shift, int hash, Object key) {
+		if(node instanceof Collision) {
+			Collision collision = (Collision) node;
+			for(int i = 0; i < collision.leaves.length; i++) {
+				if(Objects.equals(collision.leaves[i].getKey(), key)) {
+					found = true;
+					previous = collision.leaves[i].getValue();
+					if(collision.leaves.length == 2)
+						return collision.leaves[1 - i];
+					Leaf<?, ?>[] leaves = new Leaf<?, ?>[collision.leaves.length - 1];
+					System.arraycopy(collision.leaves, 0, leaves, 0, i);
+					System.arraycopy(collision.leaves, i + 1, leaves, i, leaves.length - i);
+					return new Collision(owner(), collision.hash, leaves);
+				}
+			}
+			return collision;
+		}
+		
+		Bitmap bitmap = (Bitmap) node;
+		int bit = 1 << ((hash >>> shift) & MASK);
+		if((bitmap.bitmap & bit) == 0)
+			return bitmap;
+		int i = Integer.bitCount(bitmap.bitmap & (bit - 1));
+		Object child = bitmap.children[i];
+		Object newChild;
+		if(child instanceof Leaf) {
+			Leaf<?, ?> existing = (Leaf<?, ?>) child;
+			if(existing.hash != hash || !Objects.equals(existing.getKey(), key))
+				return bitmap;
+			found = true;
+			previous = existing.getValue();
+			newChild = null;
+		}
+		else {
+			newChild = remove(child, shift + BITS, hash, key);
+			if(newChild == child)
+				return bitmap;
+		}
+		
+		if(newChild == null) {
+			if(bitmap.children.length == 1)
+				return null;
+			if(bitmap.children.length == 2 && shift > 0 && bitmap.children[1 - i] instanceof Leaf)
+				return bitmap.children[1 - i];
+			Object[] children = new Object[bitmap.children.length - 1];
+			System.arraycopy(bitmap.children, 0, children, 0, i);
+			System.arraycopy(bitmap.children, i + 1, children, i, children.length - i);
+			return new Bitmap(owner(), bitmap.bitmap & ~bit, children);
+		}
+		if(bitmap.children.length == 1 && shift > 0 && newChild instanceof Leaf)
+			return newChild;
+		Bitmap result = editable(bitmap);
+		result.children[i] = newChild;
+		return result;
+	}
+	
+	/**
+	 * Returns the given node if it is owned by this map, or else a copy
+	 * of it owned by this map.
+	 */
+	private Bitmap editable(Bitmap node) {
+		Object owner = owner();
+		return node.owner == owner ? node : new Bitmap(owner, node.bitmap, node.children.clone());
+	}
+	
+	/**
+	 * Returns the owner of the nodes that this map may edit in place,
+	 * creating a new one if the previous owner was given up to a snapshot.
+	 */
+	private Object owner() {
+		if(owner == null)
+			owner = new Object();
+		return owner;
+	}
+	
+	/**
+	 * Returns the hash code of a key, with its high bits spread downwards.
+	 */
+	private static int hash(Object key) {
+		int h = Objects.hashCode(key);
+		return h ^ (h >>> 16);
+	}
+	
+	/**
+	 * Returns the leaf of a trie holding the given key, or null if the
+	 * key is not contained in the trie.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> Leaf<K, V> find(Object node, Object key) {
+		int hash = hash(key);
+		for(int shift = 0; ; shift += BITS) {
+			if(node instanceof Collision) {
+				for(Leaf<?, ?> leaf : ((Collision) node).leaves) {
+					if(Objects.equals(leaf.getKey(), key))
+						return (Leaf<K, V>) leaf;
+				}
+				return null;
+			}
+			Bitmap bitmap = (Bitmap) node;
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if((bitmap.bitmap & bit) == 0)
+				return null;
+			node = bitmap.children[Integer.bitCount(bitmap.bitmap & (bit - 1))];
+			if(node instanceof Leaf) {
+				Leaf<?, ?> leaf = (Leaf<?, ?>) node;
+				return leaf.hash == hash && Objects.equals(leaf.getKey(), key) ? (Leaf<K, V>) leaf : null;
+			}
+		}
+	}
+	
+	/**
+	 * An entry of the map, which is never modified once it is part of
+	 * the trie.
+	 */
+	private static final class Leaf<K, V> extends SimpleImmutableEntry<K, V> {
+		
+		private static final long serialVersionUID = 2960580627606398826L;
+		
+		private final int hash;
+		
+		private Leaf(int hash, K key, V value) {
+			super(key, value);
+			this.hash = hash;
+		}
+		
+	}
+	
+	/**
+	 * An inner node of the trie, holding the children whose hash codes
+	 * have the bits given by its bitmap at its level.
+	 */
+	private static final class Bitmap implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 4631218512834096711L;
+		
+		private final transient Object owner;
+		private final int bitmap;
+		private final Object[] children;
+		
+		private Bitmap(Object owner, int bitmap, Object[] children) {
+			this.owner = owner;
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+		
+	}
+	
+	/**
+	 * A node holding the leaves whose keys have equal hash codes.
+	 */
+	private static final class Collision implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -2708386120911307152L;
+		
+		private final transient Object owner;
+		private final int hash;
+		private final Leaf<?, ?>[] leaves;
+		
+		private Collision(Object owner, int hash, Leaf<?, ?>[] leaves) {
+			this.owner = owner;
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+		
+	}
+	
+	/**
+	 * Iterates over the leaves of a trie in depth-first order.
+	 */
+	private static final class Leaves<K, V> implements Iterator<Entry<K, V>> {
+		
+		private final Deque<Object[]> arrays = new ArrayDeque<Object[]>();
+		private final Deque<Integer> positions = new ArrayDeque<Integer>();
+		private Leaf<K, V> next;
+		
+		private Leaves(Object[] children) {
+			arrays.push(children);
+			positions.push(0);
+			advance();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Entry<K, V> next() {
+			if(next == null)
+				throw new NoSuchElementException();
+			Leaf<K, V> leaf = next;
+			advance();
+			return leaf;
+		}
+		
+		/**
+		 * Moves to the next leaf of the trie.
+		 */
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			while(!arrays.isEmpty()) {
+				Object[] array = arrays.peek();
+				int i = positions.pop();
+				if(i == array.length) {
+					arrays.pop();
+					continue;
+				}
+				positions.push(i + 1);
+				Object child = array[i];
+				if(child instanceof Leaf) {
+					next = (Leaf<K, V>) child;
+					return;
+				}
+				arrays.push(child instanceof Bitmap ? ((Bitmap) child).children : ((Collision) child).leaves);
+				positions.push(0);
+			}
+			next = null;
+		}
+		
+	}
+	
+	/**
+	 * Splits the leaves of a trie by halving the children of its nodes,
+	 * descending into a single remaining child when it is not a leaf.
+	 */
+	private static final class Entries<K, V> implements Spliterator<Entry<K, V>> {
+		
+		private Object[] children;
+		private int index;
+		private int fence;
+		private long estimate;
+		private Leaves<K, V> current;
+		
+		private Entries(Object[] children, int index, int fence, long estimate) {
+			this.children = children;
+			this.index = index;
+			this.fence = fence;
+			this.estimate = estimate;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+			while(true) {
+				if(current != null) {
+					if(current.hasNext()) {
+						action.accept(current.next());
+						return true;
+					}
+					current = null;
+				}
+				if(index >= fence)
+					return false;
+				Object child = children[index++];
+				if(child instanceof Leaf) {
+					action.accept((Leaf<K, V>) child);
+					return true;
+				}
+				current = new Leaves<K, V>(children(child));
+			}
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Spliterator<Entry<K, V>> trySplit() {
+			if(current != null)
+				return null;
+			if(fence - index == 1 && !(children[index] instanceof Leaf)) {
+				children = children(children[index]);
+				index = 0;
+				fence = children.length;
+			}
+			int lo = index, mid = (lo + fence) >>> 1;
+			if(lo >= mid)
+				return null;
+			index = mid;
+			return new Entries<K, V>(children, lo, mid, estimate >>>= 1);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int characteristics() {
+			return DISTINCT | NONNULL | IMMUTABLE;
+		}
+		
+		/**
+		 * Returns the children of an inner node.
+		 */
+		private static Object[] children(Object node) {
+			return node instanceof Bitmap ? ((Bitmap) node).children : ((Collision) node).leaves;
+		}
+		
+	}
+	
+	/**
+	 * The entry set of the map, iterating over a snapshot of the map.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			Iterator<Entry<K, V>> it = new Leaves<K, V>(((Snapshot<K, V>) snapshot()).root.children);
+			return new Iterator<Entry<K, V>>() {
+				
+				private Entry<K, V> last;
+				
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+				
+				@Override
+				public Entry<K, V> next() {
+					last = it.next();
+					return new LiveEntry(last);
+				}
+				
+				@Override
+				public void remove() {
+					if(last == null)
+						throw new IllegalStateException();
+					HashTrieMap.this.remove(last.getKey());
+					last = null;
+				}
+				
+			};
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if(!(o instanceof Entry))
+				return false;
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			Leaf<K, V> leaf = find(root, entry.getKey());
+			return leaf != null && Objects.equals(leaf.getValue(), entry.getValue());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			HashTrieMap.this.clear();
+		}
+		
+	}
+	
+	/**
+	 * An entry returned by the entry set of the map, writing its value
+	 * through to the map.
+	 */
+	private final class LiveEntry extends SimpleEntry<K, V> {
+		
+		private static final long serialVersionUID = -4379406201262930815L;
+		
+		private LiveEntry(Entry<K, V> entry) {
+			super(entry);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public V setValue(V value) {
+			super.setValue(value);
+			return put(getKey(), value);
+		}
+		
+	}
+	
+	/**
+	 * An immutable snapshot of the contents of a map.
+	 */
+	private static final class Snapshot<K, V> extends AbstractMap<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 5981437405963817432L;
+		
+		private final Bitmap root;
+		private final int size;
+		
+		private Snapshot(Bitmap root, int size) {
+			this.root = root;
+			this.size = size;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean containsKey(Object key) {
+			return find(root, key) != null;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public V get(Object key) {
+			Leaf<K, V> leaf = find(root, key);
+			return leaf == null ? null : leaf.getValue();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Set<Entry<K, V>> entrySet() {
+			return new AbstractSet<Entry<K, V>>() {
+				
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					return new Leaves<K, V>(root.children);
+				}
+				
+				@Override
+				public Spliterator<Entry<K, V>> spliterator() {
+					return new Entries<K, V>(root.children, 0, root.children.length, size);
+				}
+				
+				@Override
+				public int size() {
+					return size;
+				}
+				
+			};
+		}
+		
+	}
+	
+}
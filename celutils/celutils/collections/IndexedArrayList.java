@@ -0,0 +1,408 @@
+package celutils.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Package-level class.
+ * <p>
+ * An array list that maintains a hash index from each distinct element
+ * to the sorted positions at which it occurs.
+ * <p>
+ * The number of occurrences of every element is always exact, so that
+ * membership tests run in constant time on average. The positions are
+ * kept exact by appending, by replacing and by removing the last element.
+ * Any other structural modification shifts the positions of all of the
+ * following elements, and only marks the positions as stale; they are
+ * then rebuilt by the next positional query. Since such a modification
+ * already costs a shift of the underlying array, rebuilding the positions
+ * never costs more than the modifications that required it.
+ * <p>
+ * Elements must not change their hash code or equality while they are
+ * contained in this list. This class is not thread-safe.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+final class IndexedArrayList<E> extends AbstractList<E> implements RandomAccess, java.io.Serializable {
+	
+	private static final long serialVersionUID = 5527814028117936415L;
+	
+	/**
+	 * The elements of this list.
+	 */
+	private final ArrayList<E> list;
+	
+	/**
+	 * The positions of each distinct element of this list.
+	 */
+	private final Map<Object, Positions> index;
+	
+	/**
+	 * Whether or not the positions stored in the index are out of date.
+	 */
+	private boolean stale;
+	
+	/**
+	 * Creates a new empty indexed list.
+	 */
+	IndexedArrayList() {
+		this.list = new ArrayList<E>();
+		this.index = new HashMap<Object, Positions>();
+	}
+	
+	/**
+	 * Creates a new indexed list containing the given elements.
+	 * 
+	 * @param c	The elements to add to this list.
+	 */
+	IndexedArrayList(Collection<? extends E> c) {
+		this.list = new ArrayList<E>(c);
+		this.index = new HashMap<Object, Positions>();
+		for(int i = 0; i < list.size(); i++)
+			positions(list.get(i)).add(i);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E get(int index) {
+		return list.get(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return list.size();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return index.containsKey(o);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int indexOf(Object o) {
+		Positions positions = index.get(o);
+		if(positions == null)
+			return -1;
+		if(stale)
+			reindex();
+		return positions.indices[0];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int lastIndexOf(Object o) {
+		Positions positions = index.get(o);
+		if(positions == null)
+			return -1;
+		if(stale)
+			reindex();
+		return positions.indices[positions.size - 1];
+	}
+	
+	/**
+	 * Returns the number of occurrences of the given element in this list.
+	 * 
+	 * @param o	The element to count.
+	 * @return	The number of elements of this list equal to it.
+	 */
+	int count(Object o) {
+		Positions positions = index.get(o);
+		return positions == null ? 0 : positions.size;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E set(int index, E element) {
+		E old = list.set(index, element);
+		if(old != element) {
+			unindex(old, index);
+			positions(element).add(index);
+		}
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(int index, E element) {
+		list.add(index, element);
+		modCount++;
+		if(index != list.size() - 1)
+			stale = true;
+		positions(element).add(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(list.size(), c);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		int size = list.size();
+		if(!list.addAll(index, c))
+			return false;
+		modCount++;
+		if(index != size)
+			stale = true;
+		for(int i = index; i < index + list.size() - size; i++)
+			positions(list.get(i)).add(i);
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E remove(int index) {
+		E old = list.remove(index);
+		modCount++;
+		unindex(old, index);
+		if(index != list.size())
+			stale = true;
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The element is located through the index, although the removal
+	 * itself still shifts the following elements of the array.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		int i = indexOf(o);
+		if(i < 0)
+			return false;
+		remove(i);
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Set<Object> present = present(c);
+		return !present.isEmpty() && removeIf(present::contains);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Set<Object> present = present(c);
+		if(present.size() == index.size())
+			return false;
+		return removeIf(e -> !present.contains(e));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		List<E> removed = new ArrayList<E>();
+		boolean result = list.removeIf(e -> {
+			if(!filter.test(e))
+				return false;
+			removed.add(e);
+			return true;
+		});
+		if(!result)
+			return false;
+		modCount++;
+		for(E e : removed)
+			unindex(e, -1);
+		stale = true;
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		int size = list.size();
+		List<E> range = list.subList(fromIndex, toIndex);
+		for(E e : range)
+			unindex(e, -1);
+		range.clear();
+		modCount++;
+		if(toIndex != size)
+			stale = true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		list.clear();
+		index.clear();
+		modCount++;
+		stale = false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		list.replaceAll(operator);
+		index.clear();
+		for(int i = 0; i < list.size(); i++)
+			positions(list.get(i)).add(i);
+		stale = false;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sort(Comparator<? super E> c) {
+		list.sort(c);
+		modCount++;
+		stale = true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		return list.toArray();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return list.toArray(a);
+	}
+	
+	/**
+	 * Returns the elements of the given collection that are contained
+	 * in this list.
+	 */
+	private Set<Object> present(Collection<?> c) {
+		Set<Object> present = new HashSet<Object>();
+		for(Object o : c) {
+			if(index.containsKey(o))
+				present.add(o);
+		}
+		return present;
+	}
+	
+	/**
+	 * Returns the positions of the given element, creating them if
+	 * the element is not yet contained in this list.
+	 */
+	private Positions positions(Object o) {
+		Positions positions = index.get(o);
+		if(positions == null)
+			index.put(o, positions = new Positions());
+		return positions;
+	}
+	
+	/**
+	 * Removes an occurrence of the given element from the index. If the
+	 * positions are up to date, then the occurrence at the given position
+	 * is removed. Otherwise, or if no position is given, the last position
+	 * is dropped, which is exact when a suffix of the list is removed.
+	 */
+	private void unindex(Object o, int position) {
+		Positions positions = index.get(o);
+		if(positions.size == 1)
+			index.remove(o);
+		else if(stale || position < 0)
+			positions.size--;
+		else
+			positions.remove(position);
+	}
+	
+	/**
+	 * Rebuilds the positions of every element from the array.
+	 */
+	private void reindex() {
+		for(Positions positions : index.values())
+			positions.size = 0;
+		for(int i = 0; i < list.size(); i++)
+			index.get(list.get(i)).add(i);
+		stale = false;
+	}
+	
+	/**
+	 * The sorted positions at which an element occurs.
+	 */
+	private static final class Positions implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -8218393591000451307L;
+		
+		private int[] indices = new int[1];
+		private int size;
+		
+		/**
+		 * Inserts a position, keeping the positions sorted. Positions
+		 * are usually added in ascending order, which is constant time.
+		 */
+		private void add(int position) {
+			if(size == indices.length)
+				indices = Arrays.copyOf(indices, size * 2);
+			int i = size;
+			while(i > 0 && indices[i - 1] > position)
+				i--;
+			System.arraycopy(indices, i, indices, i + 1, size - i);
+			indices[i] = position;
+			size++;
+		}
+		
+		/**
+		 * Removes a position.
+		 */
+		private void remove(int position) {
+			int i = Arrays.binarySearch(indices, 0, size, position);
+			System.arraycopy(indices, i + 1, indices, i, size - i - 1);
+			size--;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,271 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Package-level class.
+ * <p>
+ * An index of values associated with ranges of keys, answering which
+ * ranges contain a given key.
+ * <p>
+ * The ranges are stored in a treap ordered by their lower bounds, where
+ * every node also refers to the node with the greatest upper bound in its
+ * subtree. A query descends only into the subtrees that can contain the
+ * key, and therefore runs in O((k + 1) log n) expected time when k of
+ * the n ranges contain the key, while insertions and removals run in
+ * O(log n) expected time.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @param <K> the type of keys in the ranges
+ * @param <T> the type of values associated with the ranges
+ * 
+ * @author Max D
+ */
+final class IntervalIndex<K, T> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -6807319632452164089L;
+	
+	/**
+	 * The order of the keys, or null for their natural ordering.
+	 */
+	private final Comparator<? super K> comparator;
+	
+	/**
+	 * The root of the treap, or null if the index is empty.
+	 */
+	private Node<K, T> root;
+	
+	/**
+	 * The number of ranges in the index.
+	 */
+	private int size;
+	
+	/**
+	 * The sequence number of the next added range, which orders ranges
+	 * with equal lower bounds.
+	 */
+	private long sequence;
+	
+	/**
+	 * The state of the generator of node priorities.
+	 */
+	private int seed = 0x2545F491;
+	
+	/**
+	 * Creates a new empty index.
+	 * 
+	 * @param comparator	The order of the keys, or null for their natural ordering.
+	 */
+	IntervalIndex(Comparator<? super K> comparator) {
+		this.comparator = comparator;
+	}
+	
+	/**
+	 * Returns whether or not this index contains no range.
+	 * 
+	 * @return	Whether or not this index is empty.
+	 */
+	boolean isEmpty() {
+		return root == null;
+	}
+	
+	/**
+	 * Returns the number of ranges in this index.
+	 * 
+	 * @return	The number of ranges.
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Adds a range to this index.
+	 * 
+	 * @param range	The range.
+	 * @param value	The value associated with the range.
+	 */
+	void add(KeyRange<K> range, T value) {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		root = insert(root, new Node<K, T>(range, value, sequence++, seed));
+		size++;
+	}
+	
+	/**
+	 * Removes every range associated with a value equal to the given one.
+	 * 
+	 * @param value	The value.
+	 * @return		Whether or not any range was removed.
+	 */
+	boolean remove(Object value) {
+		List<Node<K, T>> matches = new ArrayList<Node<K, T>>();
+		forEach(root, node -> {
+			if(node.value.equals(value))
+				matches.add(node);
+		});
+		for(Node<K, T> node : matches)
+			root = remove(root, node);
+		size -= matches.size();
+		return !matches.isEmpty();
+	}
+	
+	/**
+	 * Returns whether or not any range of this index contains the given key.
+	 * 
+	 * @param key	The key.
+	 * @return		Whether or not the key is within a range of this index.
+	 */
+	boolean contains(Object key) {
+		return contains(root, key);
+	}
+	
+	/**
+	 * Passes the value of every range containing the given key to the
+	 * given action, in the order of the lower bounds of the ranges.
+	 * 
+	 * @param key		The key.
+	 * @param action	The action to perform for each value.
+	 */
+	void stab(Object key, Consumer<? super T> action) {
+		stab(root, key, action);
+	}
+	
+	/**
+	 * Passes the range and value of every entry of this index to the
+	 * given action.
+	 * 
+	 * @param action	The action to perform for each range.
+	 */
+	void forEach(BiConsumer<? super KeyRange<K>, ? super T> action) {
+		forEach(root, node -> action.accept(node.range, node.value));
+	}
+	
+	private boolean contains(Node<K, T> t, Object key) {
+		if(t == null || !t.max.range.belowHigh(key, comparator))
+			return false;
+		if(contains(t.left, key))
+			return true;
+		if(!t.range.aboveLow(key, comparator))
+			return false;
+		return t.range.belowHigh(key, comparator) || contains(t.right, key);
+	}
+	
+	private void stab(Node<K, T> t, Object key, Consumer<? super T> action) {
+		if(t == null || !t.max.range.belowHigh(key, comparator))
+			return;
+		stab(t.left, key, action);
+		if(t.range.aboveLow(key, comparator)) {
+			if(t.range.belowHigh(key, comparator))
+				action.accept(t.value);
+			stab(t.right, key, action);
+		}
+	}
+	
+	private void forEach(Node<K, T> t, Consumer<Node<K, T>> action) {
+		if(t == null)
+			return;
+		forEach(t.left, action);
+		action.accept(t);
+		forEach(t.right, action);
+	}
+	
+	/**
+	 * Returns whether or not the first node precedes the second one.
+	 */
+	private boolean before(Node<K, T> a, Node<K, T> b) {
+		int c = KeyRange.compareLow(a.range, b.range, comparator);
+		return c < 0 || (c == 0 && a.sequence < b.sequence);
+	}
+	
+	private Node<K, T> insert(Node<K, T> t, Node<K, T> node) {
+		if(t == null)
+			return node;
+		if(before(node, t)) {
+			t.left = insert(t.left, node);
+			if(t.left.priority > t.priority) {
+				Node<K, T> l = t.left;
+				t.left = l.right;
+				l.right = pull(t);
+				t = l;
+			}
+		}
+		else {
+			t.right = insert(t.right, node);
+			if(t.right.priority > t.priority) {
+				Node<K, T> r = t.right;
+				t.right = r.left;
+				r.left = pull(t);
+				t = r;
+			}
+		}
+		return pull(t);
+	}
+	
+	private Node<K, T> remove(Node<K, T> t, Node<K, T> node) {
+		if(t == node)
+			return merge(t.left, t.right);
+		if(before(node, t))
+			t.left = remove(t.left, node);
+		else
+			t.right = remove(t.right, node);
+		return pull(t);
+	}
+	
+	private Node<K, T> merge(Node<K, T> a, Node<K, T> b) {
+		if(a == null)
+			return b;
+		if(b == null)
+			return a;
+		if(a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			return pull(a);
+		}
+		b.left = merge(a, b.left);
+		return pull(b);
+	}
+	
+	/**
+	 * Recomputes the node with the greatest upper bound in the subtree
+	 * of the given node.
+	 */
+	private Node<K, T> pull(Node<K, T> t) {
+		Node<K, T> max = t;
+		if(t.left != null && KeyRange.compareHigh(t.left.max.range, max.range, comparator) > 0)
+			max = t.left.max;
+		if(t.right != null && KeyRange.compareHigh(t.right.max.range, max.range, comparator) > 0)
+			max = t.right.max;
+		t.max = max;
+		return t;
+	}
+	
+	/**
+	 * A node of the treap, holding a range and its value.
+	 */
+	private static final class Node<K, T> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 3895166722630172480L;
+		
+		private final KeyRange<K> range;
+		private final T value;
+		private final long sequence;
+		private final int priority;
+		private Node<K, T> left, right;
+		private Node<K, T> max;
+		
+		private Node(KeyRange<K> range, T value, long sequence, int priority) {
+			this.range = range;
+			this.value = value;
+			this.sequence = sequence;
+			this.priority = priority;
+			this.max = this;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,172 @@
+package celutils.collections;
+
+import java.util.Comparator;
+import java.util.NavigableMap;
+
+/**
+ * Package-level class.
+ * <p>
+ * An interval of keys in the order of a comparator, each of whose bounds
+ * is either inclusive, exclusive or absent.
+ * 
+ * @param <K> the type of keys in the range
+ * 
+ * @author Max D
+ */
+final class KeyRange<K> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = 2287630496541193817L;
+	
+	/**
+	 * The lower bound of the range, whether it is included in the range,
+	 * and whether or not the range is bounded from below at all.
+	 */
+	final K low;
+	final boolean lowInclusive;
+	final boolean lowBounded;
+	
+	/**
+	 * The upper bound of the range, whether it is included in the range,
+	 * and whether or not the range is bounded from above at all.
+	 */
+	final K high;
+	final boolean highInclusive;
+	final boolean highBounded;
+	
+	/**
+	 * Creates a new range with the given bounds.
+	 */
+	KeyRange(boolean lowBounded, K low, boolean lowInclusive, boolean highBounded, K high, boolean highInclusive) {
+		this.low = low;
+		this.lowInclusive = lowInclusive;
+		this.lowBounded = lowBounded;
+		this.high = high;
+		this.highInclusive = highInclusive;
+		this.highBounded = highBounded;
+	}
+	
+	/**
+	 * Returns the range containing every key.
+	 * 
+	 * @return	The unbounded range.
+	 */
+	static <K> KeyRange<K> all() {
+		return new KeyRange<K>(false, null, false, false, null, false);
+	}
+	
+	/**
+	 * Returns the part of this range from the given lower bound on.
+	 * 
+	 * @param low		The new lower bound.
+	 * @param inclusive	Whether or not the lower bound is included.
+	 * @return			The narrowed range.
+	 */
+	KeyRange<K> from(K low, boolean inclusive) {
+		return new KeyRange<K>(true, low, inclusive, highBounded, high, highInclusive);
+	}
+	
+	/**
+	 * Returns the part of this range up to the given upper bound.
+	 * 
+	 * @param high		The new upper bound.
+	 * @param inclusive	Whether or not the upper bound is included.
+	 * @return			The narrowed range.
+	 */
+	KeyRange<K> to(K high, boolean inclusive) {
+		return new KeyRange<K>(lowBounded, low, lowInclusive, true, high, inclusive);
+	}
+	
+	/**
+	 * Returns whether or not the given key is above the lower bound of
+	 * this range.
+	 */
+	boolean aboveLow(Object key, Comparator<? super K> comparator) {
+		if(!lowBounded)
+			return true;
+		int c = compare(comparator, key, low);
+		return c > 0 || (c == 0 && lowInclusive);
+	}
+	
+	/**
+	 * Returns whether or not the given key is below the upper bound of
+	 * this range.
+	 */
+	boolean belowHigh(Object key, Comparator<? super K> comparator) {
+		if(!highBounded)
+			return true;
+		int c = compare(comparator, key, high);
+		return c < 0 || (c == 0 && highInclusive);
+	}
+	
+	/**
+	 * Returns whether or not the given key is within this range.
+	 * 
+	 * @param key			The key.
+	 * @param comparator	The order of the keys.
+	 * @return				Whether or not this range contains the key.
+	 */
+	boolean contains(Object key, Comparator<? super K> comparator) {
+		return aboveLow(key, comparator) && belowHigh(key, comparator);
+	}
+	
+	/**
+	 * Returns the part of the given map within this range, which fails if
+	 * the bounds of this range are out of order or outside the map.
+	 * 
+	 * @param map	The map.
+	 * @return		The view of the map within this range.
+	 * @throws IllegalArgumentException if this range is not a valid range of the map
+	 */
+	<V> NavigableMap<K, V> slice(NavigableMap<K, V> map) {
+		if(lowBounded && highBounded)
+			return map.subMap(low, lowInclusive, high, highInclusive);
+		else if(lowBounded)
+			return map.tailMap(low, lowInclusive);
+		else if(highBounded)
+			return map.headMap(high, highInclusive);
+		return map;
+	}
+	
+	/**
+	 * Compares the lower bounds of two ranges. An absent bound precedes
+	 * any other, and an inclusive bound precedes an exclusive one at the
+	 * same key.
+	 */
+	static <K> int compareLow(KeyRange<K> a, KeyRange<K> b, Comparator<? super K> comparator) {
+		if(!a.lowBounded || !b.lowBounded)
+			return Boolean.compare(a.lowBounded, b.lowBounded);
+		int c = compare(comparator, a.low, b.low);
+		return c != 0 ? c : Boolean.compare(b.lowInclusive, a.lowInclusive);
+	}
+	
+	/**
+	 * Compares the upper bounds of two ranges. An absent bound follows
+	 * any other, and an inclusive bound follows an exclusive one at the
+	 * same key.
+	 */
+	static <K> int compareHigh(KeyRange<K> a, KeyRange<K> b, Comparator<? super K> comparator) {
+		if(!a.highBounded || !b.highBounded)
+			return Boolean.compare(b.highBounded, a.highBounded);
+		int c = compare(comparator, a.high, b.high);
+		return c != 0 ? c : Boolean.compare(a.highInclusive, b.highInclusive);
+	}
+	
+	/**
+	 * Compares two keys by the given comparator, or by their natural
+	 * ordering if it is null.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K> int compare(Comparator<? super K> comparator, Object a, Object b) {
+		return comparator == null ? ((Comparable<Object>) a).compareTo(b) : comparator.compare((K) a, (K) b);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return (lowBounded ? (lowInclusive ? "[" : "(") + low : "(-inf") + ", "
+				+ (highBounded ? high + (highInclusive ? "]" : ")") : "+inf)");
+	}
+	
+}
@@ -0,0 +1,167 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a change to a contiguous range of an <a href="#{@link}">
+ * {@link ObservableList}</a>, as delivered to a <a href="#{@link}">
+ * {@link ListChangeListener}</a>.
+ * <p>
+ * A change states that, starting at index {@link #getFrom()}, the
+ * elements {@link #getRemoved()} have been replaced by the elements
+ * {@link #getAdded()}. Indices are relative to the list as it was
+ * after all preceding changes of the same update have been applied,
+ * so that replaying the changes in order on a copy of the old list
+ * yields the new list.
+ * 
+ * @param <E> the type of elements in the list
+ * 
+ * @see ListChangeListener
+ * @author Max D
+ */
+public final class ListChange<E> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -2751203340838912457L;
+	
+	/**
+	 * The index at which the change starts.
+	 */
+	private final int from;
+	
+	/**
+	 * The elements removed from and added to the list at the starting
+	 * index. These are extended in place while changes are merged.
+	 */
+	List<E> removed;
+	List<E> added;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new change replacing the given removed elements by the
+	 * given added elements at the given index.
+	 * 
+	 * @param from		The index at which the change starts.
+	 * @param removed	The elements removed at the given index.
+	 * @param added		The elements added at the given index.
+	 */
+	ListChange(int from, List<E> removed, List<E> added) {
+		this.from = from;
+		this.removed = removed;
+		this.added = added;
+	}
+	
+	/**
+	 * Returns the index at which the change starts.
+	 * 
+	 * @return	The index of the first changed element.
+	 */
+	public int getFrom() {
+		return from;
+	}
+	
+	/**
+	 * Returns the index following the last element added by this
+	 * change. If no elements were added, this is equal to
+	 * {@link #getFrom()}.
+	 * 
+	 * @return	The end index, exclusive, of the added elements.
+	 */
+	public int getTo() {
+		return from + added.size();
+	}
+	
+	/**
+	 * Returns an unmodifiable list of the elements removed by this
+	 * change, in the order they occurred in the list.
+	 * 
+	 * @return	The removed elements.
+	 */
+	public List<E> getRemoved() {
+		return Collections.unmodifiableList(removed);
+	}
+	
+	/**
+	 * Returns an unmodifiable list of the elements added by this
+	 * change, in the order they occur in the list.
+	 * 
+	 * @return	The added elements.
+	 */
+	public List<E> getAdded() {
+		return Collections.unmodifiableList(added);
+	}
+	
+	/**
+	 * Returns whether or not any elements have been added to the list.
+	 * 
+	 * @return	{@code true} if this change added at least one element
+	 */
+	public boolean wasAdded() {
+		return !added.isEmpty();
+	}
+	
+	/**
+	 * Returns whether or not any elements have been removed from the list.
+	 * 
+	 * @return	{@code true} if this change removed at least one element
+	 */
+	public boolean wasRemoved() {
+		return !removed.isEmpty();
+	}
+	
+	/**
+	 * Returns whether or not elements have been replaced, that is both
+	 * removed and added at the same index.
+	 * 
+	 * @return	{@code true} if this change both removed and added elements
+	 */
+	public boolean wasReplaced() {
+		return wasAdded() && wasRemoved();
+	}
+	
+	/**
+	 * Attempts to merge the given change into this one, which must
+	 * immediately precede it. Only removals at the same index, additions
+	 * directly following the added elements of this change, and additions
+	 * at the index of a pure removal are merged.
+	 * 
+	 * @param from		The index at which the following change starts.
+	 * @param removed	The elements removed by the following change.
+	 * @param added		The elements added by the following change.
+	 * @return	{@code true} if the change has been merged into this one
+	 */
+	boolean merge(int from, List<E> removed, List<E> added) {
+		if(added.isEmpty() && this.added.isEmpty() && from == this.from)
+			this.removed = concat(this.removed, removed);
+		else if(removed.isEmpty() && from == getTo())
+			this.added = concat(this.added, added);
+		else
+			return false;
+		return true;
+	}
+	
+	/**
+	 * Appends the second list to the first one, copying the first one
+	 * if it is not a growable list created by this method.
+	 */
+	private static <E> List<E> concat(List<E> a, List<E> b) {
+		if(!(a instanceof ArrayList)) {
+			List<E> list = new ArrayList<E>(a.size() + b.size());
+			list.addAll(a);
+			a = list;
+		}
+		a.addAll(b);
+		return a;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return "[" + from + ": " + removed + " -> " + added + "]";
+	}
+	
+}
@@ -0,0 +1,29 @@
+package celutils.collections;
+
+/**
+ * This interface defines a response to a change of a range of an
+ * <a href="#{@link}">{@link ObservableList}</a> detected since a
+ * previous update.
+ * <p>
+ * Unlike a regular change listener, which receives the entire list
+ * as its old and new value, a list change listener is called once
+ * for every range of elements that has been added, removed or
+ * replaced, in the order the modifications were made.
+ * 
+ * @param <E> the type of elements in the list
+ * 
+ * @see ObservableList#addListListener(ListChangeListener)
+ * @author Max D
+ */
+public interface ListChangeListener<E> extends java.io.Serializable {
+	
+	/**
+	 * Called once during any given update sequence for every change
+	 * made to the list since the last update.
+	 * 
+	 * @param list		The list that has been changed.
+	 * @param change	The change that the list has undergone.
+	 */
+	public void changed(ObservableList<E> list, ListChange<E> change);
+	
+}
@@ -0,0 +1,105 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Package-level class.
+ * <p>
+ * Computes a shortest edit script between two sequences with the
+ * algorithm of Myers, which runs in O((n + m) d) time for sequences
+ * of lengths n and m that differ by d insertions and deletions. The
+ * search is abandoned once d exceeds a given limit, which bounds both
+ * the running time and the memory used for recovering the script.
+ * 
+ * @author Max D
+ */
+final class ListDiff {
+	
+	/**
+	 * The operations of an edit script.
+	 */
+	static final byte EQUAL = 0;
+	static final byte DELETE = 1;
+	static final byte INSERT = 2;
+	
+	/**
+	 * Private constructor, as this is a utility class.
+	 */
+	private ListDiff() {
+	}
+	
+	/**
+	 * Computes a shortest edit script transforming the first sequence
+	 * into the second. The script lists, in order, an operation for every
+	 * element that is kept, deleted from the first sequence, or inserted
+	 * from the second sequence.
+	 * 
+	 * @param a			The first sequence.
+	 * @param b			The second sequence.
+	 * @param maxEdits	The maximum number of insertions and deletions to search for.
+	 * @return			The edit script, or null if the sequences differ by more edits.
+	 */
+	static byte[] script(Object[] a, Object[] b, int maxEdits) {
+		int n = a.length, m = b.length;
+		int max = Math.min(n + m, maxEdits);
+		int offset = max + 1;
+		int[] v = new int[2 * max + 3];
+		int[][] trace = new int[max + 1][];
+		
+		for(int d = 0; d <= max; d++) {
+			/* Keep the furthest points of the previous round for k in [-d - 1, d + 1] */
+			trace[d] = Arrays.copyOfRange(v, offset - d - 1, offset + d + 2);
+			for(int k = -d; k <= d; k += 2) {
+				int x;
+				if(k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+					x = v[offset + k + 1];
+				else
+					x = v[offset + k - 1] + 1;
+				int y = x - k;
+				while(x < n && y < m && Objects.equals(a[x], b[y])) {
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if(x >= n && y >= m)
+					return backtrack(trace, d, n, m);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Recovers the edit script from the furthest points reached in each
+	 * round of the search, walking back from the end of both sequences.
+	 */
+	private static byte[] backtrack(int[][] trace, int edits, int n, int m) {
+		byte[] script = new byte[n + m - (n + m - edits) / 2];
+		int i = script.length;
+		int x = n, y = m;
+		
+		for(int d = edits; d >= 0; d--) {
+			int[] v = trace[d];
+			int k = x - y;
+			int previousK;
+			if(k == -d || (k != d && v[k - 1 + d + 1] < v[k + 1 + d + 1]))
+				previousK = k + 1;
+			else
+				previousK = k - 1;
+			int previousX = d == 0 ? 0 : v[previousK + d + 1];
+			int previousY = previousX - previousK;
+			
+			while(x > previousX && y > previousY) {
+				script[--i] = EQUAL;
+				x--;
+				y--;
+			}
+			if(d > 0)
+				script[--i] = x == previousX ? INSERT : DELETE;
+			x = previousX;
+			y = previousY;
+		}
+		return script;
+	}
+	
+}
@@ -0,0 +1,190 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Package-level class.
+ * <p>
+ * A spliterator over an observable list that splits by halving its range
+ * of indices, so that parallel streams divide the list evenly.
+ * <p>
+ * The spliterator is late-binding: the list is only captured once the
+ * spliterator is first traversed, split or sized. If the official list
+ * supports fast random access, the spliterator reads it directly and is
+ * fail-fast, throwing a <a href="#{@link}">{@link ConcurrentModificationException}
+ * </a> once the version of the list differs from the one observed when
+ * it was captured. Otherwise the contents of the list are copied into an
+ * array when it is captured, and the spliterator traverses that snapshot,
+ * which is unaffected by later modifications.
+ * 
+ * @param <E> the type of elements in the list
+ * 
+ * @author Max D
+ */
+final class ListSpliterator<E> implements Spliterator<E> {
+	
+	/**
+	 * The observable list being traversed.
+	 */
+	private final ObservableList<E> owner;
+	
+	/**
+	 * The list read by this spliterator, which is either the official list
+	 * or a snapshot of it, or null if it has not been captured yet.
+	 */
+	private List<E> list;
+	
+	/**
+	 * The index of the next element to traverse.
+	 */
+	private int index;
+	
+	/**
+	 * The index past the last element to traverse, or -1 until the list
+	 * is captured.
+	 */
+	private int fence;
+	
+	/**
+	 * The version of the observable list when it was captured.
+	 */
+	private long expectedVersion;
+	
+	/**
+	 * Whether or not the official list is read directly, and the version
+	 * of the observable list must therefore be checked.
+	 */
+	private boolean checked;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new spliterator over all of the elements of the given list.
+	 * 
+	 * @param owner	The observable list to traverse.
+	 */
+	ListSpliterator(ObservableList<E> owner) {
+		this.owner = owner;
+		this.fence = -1;
+	}
+	
+	/**
+	 * Creates a new spliterator over a range of a list that has already
+	 * been captured.
+	 * 
+	 * @param owner				The observable list to traverse.
+	 * @param list				The captured list.
+	 * @param index				The index of the first element to traverse.
+	 * @param fence				The index past the last element to traverse.
+	 * @param expectedVersion	The version of the observable list when it was captured.
+	 * @param checked			Whether or not the captured list is the official list.
+	 */
+	private ListSpliterator(ObservableList<E> owner, List<E> list, int index, int fence, long expectedVersion, boolean checked) {
+		this.owner = owner;
+		this.list = list;
+		this.index = index;
+		this.fence = fence;
+		this.expectedVersion = expectedVersion;
+		this.checked = checked;
+	}
+	
+	/**
+	 * Captures the list on first use, and returns the index past the last
+	 * element to traverse.
+	 */
+	@SuppressWarnings("unchecked")
+	private int getFence() {
+		if(fence < 0) {
+			List<E> source = owner.getList();
+			expectedVersion = owner.getVersion();
+			if(source instanceof RandomAccess) {
+				list = source;
+				checked = true;
+			}
+			else
+				list = (List<E>) Arrays.asList(source.toArray());
+			fence = list.size();
+		}
+		return fence;
+	}
+	
+	/**
+	 * Throws an exception if the list is read directly and has been
+	 * modified since it was captured. This is checked before every
+	 * element is read, so that an action shrinking the list fails with
+	 * a <a href="#{@link}">{@link ConcurrentModificationException}</a>
+	 * rather than an out of bounds index, and once more after the last
+	 * action.
+	 */
+	private void checkVersion() {
+		if(checked && owner.getVersion() != expectedVersion)
+			throw new ConcurrentModificationException();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super E> action) {
+		if(action == null)
+			throw new NullPointerException();
+		int hi = getFence();
+		if(index >= hi)
+			return false;
+		checkVersion();
+		action.accept(list.get(index++));
+		checkVersion();
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super E> action) {
+		if(action == null)
+			throw new NullPointerException();
+		int hi = getFence();
+		List<E> list = this.list;
+		for(int i = index; i < hi; i++) {
+			checkVersion();
+			action.accept(list.get(i));
+		}
+		index = hi;
+		checkVersion();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<E> trySplit() {
+		int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+		if(lo >= mid)
+			return null;
+		index = mid;
+		return new ListSpliterator<E>(owner, list, lo, mid, expectedVersion, checked);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long estimateSize() {
+		return getFence() - index;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED;
+	}
+	
+}
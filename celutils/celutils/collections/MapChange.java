@@ -0,0 +1,176 @@
+package celutils.collections;
+
+/**
+ * Describes a change to a single entry of an <a href="#{@link}">
+ * {@link ObservableMap}</a>, as delivered to a <a href="#{@link}">
+ * {@link MapChangeListener}</a>.
+ * <p>
+ * A change always describes the net difference of an entry between
+ * two updates of its map. Several modifications of the same entry in
+ * between two updates are therefore merged into a single change, and
+ * modifications that cancel each other out produce no change at all.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @see MapChangeListener
+ * @author Max D
+ */
+public final class MapChange<K, V> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = 6402177553164210830L;
+	
+	/**
+	 * An enumeration describing the kind of change that an entry
+	 * has undergone.
+	 * 
+	 * @author Max D
+	 */
+	public static enum Type {
+		
+		/**
+		 * Indicates that the entry did not exist before the change,
+		 * and has been added to the map.
+		 */
+		PUT,
+		
+		/**
+		 * Indicates that the entry existed before the change, and has
+		 * been removed from the map.
+		 */
+		REMOVE,
+		
+		/**
+		 * Indicates that the entry existed before and after the change,
+		 * and that its value has been replaced by a different one.
+		 */
+		REPLACE,
+		
+		/**
+		 * Indicates that the entry existed before the change, and has
+		 * been evicted from the map by its eviction policy rather than
+		 * removed explicitly.
+		 */
+		EVICT;
+		
+	}
+	
+	/**
+	 * The kind of change that the entry has undergone.
+	 */
+	private final Type type;
+	
+	/**
+	 * The key of the changed entry.
+	 */
+	private final K key;
+	
+	/**
+	 * The values of the entry before and after the change.
+	 */
+	private final V oldValue;
+	private final V newValue;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new change of the given type for the entry with the
+	 * given key.
+	 * 
+	 * @param type		The kind of change that the entry has undergone.
+	 * @param key		The key of the changed entry.
+	 * @param oldValue	The value of the entry before the change, or null if it did not exist.
+	 * @param newValue	The value of the entry after the change, or null if it no longer exists.
+	 */
+	MapChange(Type type, K key, V oldValue, V newValue) {
+		this.type = type;
+		this.key = key;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+	}
+	
+	/**
+	 * Returns the kind of change that the entry has undergone.
+	 * 
+	 * @return	The type of this change.
+	 */
+	public Type getType() {
+		return type;
+	}
+	
+	/**
+	 * Returns the key of the changed entry.
+	 * 
+	 * @return	The key of the changed entry.
+	 */
+	public K getKey() {
+		return key;
+	}
+	
+	/**
+	 * Returns the value of the entry before the change. If the entry
+	 * did not exist before the change, then null is returned.
+	 * 
+	 * @return	The old value of the changed entry.
+	 */
+	public V getOldValue() {
+		return oldValue;
+	}
+	
+	/**
+	 * Returns the value of the entry after the change. If the entry
+	 * no longer exists after the change, then null is returned.
+	 * 
+	 * @return	The new value of the changed entry.
+	 */
+	public V getNewValue() {
+		return newValue;
+	}
+	
+	/**
+	 * Returns whether or not the entry has been added to the map.
+	 * 
+	 * @return	{@code true} if this is a <a href="#{@link}">{@link Type#PUT}</a> change
+	 */
+	public boolean wasAdded() {
+		return type == Type.PUT;
+	}
+	
+	/**
+	 * Returns whether or not the entry has been removed from the map,
+	 * either explicitly or by eviction.
+	 * 
+	 * @return	{@code true} if this is a <a href="#{@link}">{@link Type#REMOVE}</a>
+	 * 			or an <a href="#{@link}">{@link Type#EVICT}</a> change
+	 */
+	public boolean wasRemoved() {
+		return type == Type.REMOVE || type == Type.EVICT;
+	}
+	
+	/**
+	 * Returns whether or not the entry has been evicted from the map.
+	 * 
+	 * @return	{@code true} if this is an <a href="#{@link}">{@link Type#EVICT}</a> change
+	 */
+	public boolean wasEvicted() {
+		return type == Type.EVICT;
+	}
+	
+	/**
+	 * Returns whether or not the value of the entry has been replaced.
+	 * 
+	 * @return	{@code true} if this is a <a href="#{@link}">{@link Type#REPLACE}</a> change
+	 */
+	public boolean wasReplaced() {
+		return type == Type.REPLACE;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return type + "[" + key + ": " + oldValue + " -> " + newValue + "]";
+	}
+	
+}
@@ -0,0 +1,144 @@
+package celutils.collections;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A package-level class that buffers the entries of an observable
+ * map that have been modified in between two updates.
+ * <p>
+ * This implementation of <a href="#{@link}">{@link MapChangeRecorder}
+ * </a> is not thread-safe.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+final class MapChangeBuffer<K, V> implements MapChangeRecorder<K, V> {
+	
+	private static final long serialVersionUID = -2196373300185830212L;
+	
+	/**
+	 * The modified entries, or null if no entry has been modified since
+	 * the buffer was last drained.
+	 */
+	private Map<K, Pending<K, V>> pending;
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void record(K key, boolean present, V oldValue, boolean exists, V newValue) {
+		if(pending == null)
+			pending = new LinkedHashMap<>();
+		
+		Pending<K, V> entry = pending.get(key);
+		if(entry == null)
+			pending.put(key, new Pending<K, V>(key, present, oldValue, exists, newValue));
+		else {
+			entry.exists = exists;
+			entry.newValue = newValue;
+			entry.evicted = false;
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void recordEviction(K key, V oldValue) {
+		record(key, true, oldValue, false, null);
+		pending.get(key).evicted = true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEach(Consumer<Pending<K, V>> action) {
+		if(pending == null) return;
+		
+		for(Pending<K, V> entry : pending.values())
+			action.accept(entry);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void drain(Consumer<Pending<K, V>> sink) {
+		Map<K, Pending<K, V>> drained = take();
+		if(drained == null) return;
+		
+		for(Pending<K, V> entry : drained.values())
+			sink.accept(entry);
+	}
+	
+	/**
+	 * Removes and returns every buffered entry.
+	 * 
+	 * @return	The buffered entries, or null if there are none.
+	 */
+	Map<K, Pending<K, V>> take() {
+		Map<K, Pending<K, V>> drained = pending;
+		pending = null;
+		return drained;
+	}
+	
+	/**
+	 * The state of a modified entry before its first modification and
+	 * after its latest one.
+	 * 
+	 * @param <K> the type of keys maintained by the map
+	 * @param <V> the type of mapped values
+	 */
+	static final class Pending<K, V> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 4471952085385102237L;
+		
+		/**
+		 * The key of the modified entry.
+		 */
+		final K key;
+		
+		/**
+		 * Whether or not the entry existed, and its value, before its
+		 * first modification.
+		 */
+		final boolean present;
+		final V oldValue;
+		
+		/**
+		 * Whether or not the entry exists, and its value, after its
+		 * latest modification.
+		 */
+		boolean exists;
+		V newValue;
+		
+		/**
+		 * Whether or not the latest modification was an eviction.
+		 */
+		boolean evicted;
+		
+		/**
+		 * Creates a new modified entry state.
+		 * 
+		 * @param key		The key of the modified entry.
+		 * @param present	Whether or not the entry existed before the modification.
+		 * @param oldValue	The value of the entry before the modification.
+		 * @param exists	Whether or not the entry exists after the modification.
+		 * @param newValue	The value of the entry after the modification.
+		 */
+		Pending(K key, boolean present, V oldValue, boolean exists, V newValue) {
+			this.key = key;
+			this.present = present;
+			this.oldValue = oldValue;
+			this.exists = exists;
+			this.newValue = newValue;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,33 @@
+package celutils.collections;
+
+/**
+ * This interface defines a response to a change of a single entry
+ * of an <a href="#{@link}">{@link ObservableMap}</a> detected since
+ * a previous update.
+ * <p>
+ * Unlike a regular change listener, which receives the entire map
+ * as its old and new value, a map change listener is called once
+ * for every entry that has been added, removed or replaced. It can
+ * either be attached to the whole map, or only to the entries with
+ * a given key.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @see ObservableMap#addMapListener(MapChangeListener)
+ * @see ObservableMap#addKeyListener(Object, MapChangeListener)
+ * @author Max D
+ */
+public interface MapChangeListener<K, V> extends java.io.Serializable {
+	
+	/**
+	 * Called once during any given update sequence for every entry
+	 * observed by this listener that has undergone a change since
+	 * the last update.
+	 * 
+	 * @param map		The map containing the changed entry.
+	 * @param change	The change that the entry has undergone.
+	 */
+	public void changed(ObservableMap<K, V> map, MapChange<K, V> change);
+	
+}
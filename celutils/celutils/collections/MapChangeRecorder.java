@@ -0,0 +1,59 @@
+package celutils.collections;
+
+import java.util.function.Consumer;
+
+/**
+ * A package-level interface describing a record of the entries of an
+ * observable map that have been modified in between two updates.
+ * <p>
+ * For every modified entry, the record keeps its state before the
+ * first modification and its state after the latest one, so that any
+ * number of modifications of the same entry are merged into a single
+ * change when the record is drained.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @see MapChangeBuffer
+ * @see StripedMapChangeBuffer
+ * @author Max D
+ */
+interface MapChangeRecorder<K, V> extends java.io.Serializable {
+	
+	/**
+	 * Records a modification of the entry with the given key.
+	 * 
+	 * @param key		The key of the modified entry.
+	 * @param present	Whether or not the entry existed before the modification.
+	 * @param oldValue	The value of the entry before the modification.
+	 * @param exists	Whether or not the entry exists after the modification.
+	 * @param newValue	The value of the entry after the modification.
+	 */
+	void record(K key, boolean present, V oldValue, boolean exists, V newValue);
+	
+	/**
+	 * Records the eviction of the entry with the given key.
+	 * 
+	 * @param key		The key of the evicted entry.
+	 * @param oldValue	The value of the entry before its eviction.
+	 */
+	void recordEviction(K key, V oldValue);
+	
+	/**
+	 * Passes every recorded entry to the given action without emptying
+	 * this record.
+	 * 
+	 * @param action	The action to perform for each recorded entry.
+	 */
+	void forEach(Consumer<MapChangeBuffer.Pending<K, V>> action);
+	
+	/**
+	 * Passes every recorded entry to the given sink, and empties this
+	 * record. Modifications recorded by the sink itself are kept for
+	 * the next drain.
+	 * 
+	 * @param sink	The sink to pass the recorded entries to.
+	 */
+	void drain(Consumer<MapChangeBuffer.Pending<K, V>> sink);
+	
+}
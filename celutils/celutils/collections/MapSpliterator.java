@@ -0,0 +1,162 @@
+package celutils.collections;
+
+import java.util.ConcurrentModificationException;
+import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Package-level class.
+ * <p>
+ * A spliterator over one of the views of an observable map, which splits
+ * like the entry set of the official map and converts each entry into an
+ * element of the view.
+ * <p>
+ * The spliterator is late-binding, like those of the maps of the standard
+ * library. Unless the spliterator of the official map is concurrent, it is
+ * also fail-fast: a <a href="#{@link}">{@link ConcurrentModificationException}
+ * </a> is thrown once the map has been modified since the spliterator
+ * was first used, other than by replacing the values of the entries it
+ * returns.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * @param <T> the type of elements of the view
+ * 
+ * @author Max D
+ */
+final class MapSpliterator<K, V, T> implements Spliterator<T> {
+	
+	/**
+	 * The version standing for a map that has not been captured yet.
+	 */
+	private static final long UNBOUND = Long.MIN_VALUE;
+	
+	/**
+	 * The observable map being traversed.
+	 */
+	private final ObservableMap<K, V> owner;
+	
+	/**
+	 * The spliterator over the entries of the official map.
+	 */
+	private final Spliterator<Entry<K, V>> spliterator;
+	
+	/**
+	 * The conversion of an entry into an element of the view.
+	 */
+	private final Function<Entry<K, V>, T> element;
+	
+	/**
+	 * The characteristics of the spliterator over the entries of the
+	 * official map that also apply to the view.
+	 */
+	private final int retained;
+	
+	/**
+	 * Whether or not the version of the observable map must be checked.
+	 */
+	private final boolean checked;
+	
+	/**
+	 * The version of the observable map when it was captured.
+	 */
+	private long expectedVersion;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new spliterator over a view of the given map.
+	 * 
+	 * @param owner			The observable map to traverse.
+	 * @param spliterator	The spliterator over the entries of the official map.
+	 * @param element		The conversion of an entry into an element of the view.
+	 * @param retained		The characteristics of the entries that apply to the view.
+	 */
+	MapSpliterator(ObservableMap<K, V> owner, Spliterator<Entry<K, V>> spliterator, Function<Entry<K, V>, T> element, int retained) {
+		this(owner, spliterator, element, retained, UNBOUND);
+	}
+	
+	/**
+	 * Creates a new spliterator sharing the captured version of the map.
+	 */
+	private MapSpliterator(ObservableMap<K, V> owner, Spliterator<Entry<K, V>> spliterator,
+			Function<Entry<K, V>, T> element, int retained, long expectedVersion) {
+		this.owner = owner;
+		this.spliterator = spliterator;
+		this.element = element;
+		this.retained = retained;
+		this.checked = (spliterator.characteristics() & (CONCURRENT | IMMUTABLE)) == 0;
+		this.expectedVersion = expectedVersion;
+	}
+	
+	/**
+	 * Captures the version of the map on first use.
+	 */
+	private void bind() {
+		if(expectedVersion == UNBOUND)
+			expectedVersion = owner.getStructuralVersion();
+	}
+	
+	/**
+	 * Throws an exception if the map has been modified since it was
+	 * captured.
+	 */
+	private void checkVersion() {
+		if(checked && owner.getStructuralVersion() != expectedVersion)
+			throw new ConcurrentModificationException();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		if(action == null)
+			throw new NullPointerException();
+		bind();
+		boolean advanced = spliterator.tryAdvance(entry -> action.accept(element.apply(entry)));
+		checkVersion();
+		return advanced;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		if(action == null)
+			throw new NullPointerException();
+		bind();
+		spliterator.forEachRemaining(entry -> action.accept(element.apply(entry)));
+		checkVersion();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<T> trySplit() {
+		bind();
+		Spliterator<Entry<K, V>> prefix = spliterator.trySplit();
+		return prefix == null ? null : new MapSpliterator<K, V, T>(owner, prefix, element, retained, expectedVersion);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long estimateSize() {
+		return spliterator.estimateSize();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int characteristics() {
+		return spliterator.characteristics() & retained;
+	}
+	
+}
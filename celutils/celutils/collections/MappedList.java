@@ -0,0 +1,98 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Package-level class.
+ * <p>
+ * A live view of the results of applying a function to each element
+ * of a source list. The results are kept in a <a href="#{@link}">
+ * {@link RankTree}</a>, so that the function is only applied once to
+ * every element added to the source, and so that removed results can
+ * be reported without applying it again.
+ * 
+ * @param <E> the type of elements in this view
+ * @param <S> the type of elements in the source list
+ * 
+ * @see ObservableList#mapped(Function)
+ * @author Max D
+ */
+final class MappedList<E, S> extends ObservableListView<E, S> {
+	
+	private static final long serialVersionUID = 2960587124066412938L;
+	
+	/**
+	 * The function applied to each element of the source.
+	 */
+	private final Function<? super S, ? extends E> mapper;
+	
+	/**
+	 * The results of the function, in the order of the source.
+	 */
+	private final RankTree<E> tree;
+	
+	/**
+	 * Creates a new mapped view of the given source list.
+	 * 
+	 * @param source	The list from which this view is derived.
+	 * @param mapper	The function applied to each element of the source.
+	 */
+	MappedList(ObservableList<S> source, Function<? super S, ? extends E> mapper) {
+		super(source);
+		this.mapper = mapper;
+		this.tree = new RankTree<E>();
+		attach();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void initialize(List<S> contents) {
+		for(S e : contents)
+			tree.insert(tree.size(), mapper.apply(e), false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void sourceChanged(ListChange<S> change) {
+		int from = change.getFrom();
+		List<E> removed = new ArrayList<E>(change.removed.size());
+		List<E> added = new ArrayList<E>(change.added.size());
+		
+		for(int i = 0; i < change.removed.size(); i++) {
+			removed.add(tree.get(from));
+			tree.remove(from);
+		}
+		for(int i = 0; i < change.added.size(); i++) {
+			E e = mapper.apply(change.added.get(i));
+			tree.insert(from + i, e, false);
+			added.add(e);
+		}
+		
+		modified();
+		if(isTracking())
+			record(from, removed, added);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	E element(int index) {
+		return tree.get(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	int length() {
+		return tree.size();
+	}
+	
+}
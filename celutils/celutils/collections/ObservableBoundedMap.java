@@ -0,0 +1,150 @@
+package celutils.collections;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * An implementation of the <a href="#{@link}">{@link ObservableMap}</a>
+ * class with a bounded capacity, beyond which entries are evicted by an
+ * <a href="#{@link}">{@link EvictionPolicy}</a>.
+ * <p>
+ * The capacity is either a maximum number of entries, or a maximum total
+ * weight of the entries as determined by a weigher. Whenever a modification
+ * of this map leaves it over its capacity, entries are evicted before the
+ * modification returns, so that the map never remains over its capacity.
+ * Each eviction is reported to the map change listeners observing the
+ * evicted entry as an <a href="#{@link}">{@link MapChange.Type#EVICT}</a>
+ * change, which also counts as a removal, and modifies the map like any
+ * other removal.
+ * <p>
+ * Reading an entry through <a href="#{@link}">{@link #get(Object)}</a> or
+ * writing it counts as a use of the entry for the eviction policy, while
+ * membership tests and iteration do not. Replacing the value of an entry
+ * through one of the views of this map may evict other entries, after
+ * which iterators over the views are no longer valid.
+ * <p>
+ * Like the other observable maps apart from <a href="#{@link}">{@link
+ * ObservableConcurrentHashMap}</a>, this map is not thread-safe. Since even
+ * reads reorder the entries for the eviction policy, all accesses must be
+ * synchronized externally if it is shared between threads.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @see EvictionPolicy
+ * @author Max D
+ */
+public class ObservableBoundedMap<K, V> extends ObservableMap<K, V> {
+	
+	private static final long serialVersionUID = -4860612253096722043L;
+	
+	/**
+	 * The map used by this observable map.
+	 */
+	private final BoundedMap<K, V> map;
+	
+	/**
+	 * Creates a new ObservableBoundedMap given the map
+	 * argument.
+	 * 
+	 * @param map	The map to create this map from.
+	 */
+	private ObservableBoundedMap(BoundedMap<K, V> map) {
+		super(map);
+		this.map = map;
+	}
+	
+	/**
+	 * Creates a new empty ObservableBoundedMap holding up to the given
+	 * number of entries.
+	 * 
+	 * @param policy		The policy choosing the entries to evict.
+	 * @param maximumSize	The maximum number of entries.
+	 * @throws IllegalArgumentException if the maximum size is not positive
+	 */
+	public ObservableBoundedMap(EvictionPolicy policy, long maximumSize) {
+		this(policy, maximumSize, (k, v) -> 1);
+	}
+	
+	/**
+	 * Creates a new empty ObservableBoundedMap holding entries up to the
+	 * given total weight.
+	 * 
+	 * @param policy		The policy choosing the entries to evict.
+	 * @param maximumWeight	The maximum total weight of the entries.
+	 * @param weigher		The function determining the non-negative weight of an entry.
+	 * @throws IllegalArgumentException if the maximum weight is not positive
+	 */
+	public ObservableBoundedMap(EvictionPolicy policy, long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+		this(new BoundedMap<K, V>(Objects.requireNonNull(policy), checkMaximum(maximumWeight), Objects.requireNonNull(weigher)));
+	}
+	
+	/**
+	 * Creates a new ObservableBoundedMap holding up to the given number
+	 * of entries, and containing the entries of the given map that fit.
+	 * 
+	 * @param policy		The policy choosing the entries to evict.
+	 * @param maximumSize	The maximum number of entries.
+	 * @param m				The map to copy the entries from.
+	 * @throws IllegalArgumentException if the maximum size is not positive
+	 */
+	public ObservableBoundedMap(EvictionPolicy policy, long maximumSize, Map<? extends K, ? extends V> m) {
+		this(policy, maximumSize);
+		putAll(m);
+	}
+	
+	/**
+	 * Returns the maximum number of entries, or maximum total weight of
+	 * the entries, that this map holds.
+	 * 
+	 * @return	The capacity of this map.
+	 */
+	public long getCapacity() {
+		return map.maximum();
+	}
+	
+	/**
+	 * Returns the total weight of the entries of this map, which is the
+	 * number of entries unless this map was created with a weigher.
+	 * 
+	 * @return	The weighted size of this map.
+	 */
+	public long getWeight() {
+		return map.weight();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Evicts entries until this map is within its capacity, recording
+	 * each eviction.
+	 */
+	@Override
+	protected void modified() {
+		super.modified();
+		Entry<K, V> evicted;
+		while((evicted = map.evict()) != null) {
+			recordEviction(evicted.getKey(), evicted.getValue());
+			super.modified();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Map<K, V> getMap() {
+		return map;
+	}
+	
+	/**
+	 * Checks that a maximum size or weight is positive.
+	 */
+	private static long checkMaximum(long maximum) {
+		if(maximum <= 0)
+			throw new IllegalArgumentException("Capacity must be positive: " + maximum);
+		return maximum;
+	}
+	
+}
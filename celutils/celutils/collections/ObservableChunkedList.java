@@ -0,0 +1,116 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe, chunked implementation of the <a href="#{@link}">
+ * {@link ObservableList}</a> class.
+ * <p>
+ * This list is best suited to workloads with many reader threads and
+ * occasional writers. Its elements are stored in small immutable chunks
+ * so that readers never lock, and its iterators operate on a snapshot
+ * of the list taken when they are created. A modification only copies
+ * the chunks it affects rather than the entire list. Replacing or
+ * appending an element only locks the stripe of the chunk it falls
+ * into, while insertions and removals elsewhere lock every stripe.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+public class ObservableChunkedList<E> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = 4213896602317749130L;
+	
+	/**
+	 * The list used by this observable list.
+	 */
+	private final ChunkedList<E> list;
+	
+	/**
+	 * The modification count of this list, kept in a contention-free
+	 * counter rather than in a plain field.
+	 */
+	private final LongAdder version;
+	
+	/**
+	 * Creates a new ObservableChunkedList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	private ObservableChunkedList(ChunkedList<E> list) {
+		super(list);
+		this.list = list;
+		this.version = new LongAdder();
+	}
+	
+	/**
+	 * Creates a new empty ObservableChunkedList.
+	 */
+	public ObservableChunkedList() {
+		this(new ChunkedList<E>());
+	}
+	
+	/**
+	 * Creates a new ObservableChunkedList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	public ObservableChunkedList(Collection<? extends E> c) {
+		this(new ChunkedList<E>(c));
+	}
+	
+	/**
+	 * Creates a new ObservableChunkedList given the vararg
+	 * argument.
+	 * 
+	 * @param list	The vararg array to create this list from.
+	 */
+	@SafeVarargs
+	public ObservableChunkedList(E... c) {
+		this(new ChunkedList<E>(Arrays.asList(c)));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned spliterator traverses a snapshot of the list taken
+	 * when it is created, like the iterators of this list, so that streams
+	 * over this list are unaffected by any concurrent modification.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return list.spliterator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getList() {
+		return list;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getVersion() {
+		return version.sum();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void modified() {
+		version.increment();
+	}
+	
+}
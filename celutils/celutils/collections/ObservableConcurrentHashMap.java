@@ -0,0 +1,274 @@
+package celutils.collections;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A <a href="#{@link}">{@link ConcurrentHashMap}</a> implementation
+ * of the <a href="#{@link}">{@link ObservableMap}</a> class.
+ * <p>
+ * This map can be modified by any number of threads at the same time.
+ * Modifications of observed entries are recorded atomically with the
+ * modification itself, into a change buffer that is striped by key so
+ * that concurrent writers do not contend with each other. The changes
+ * recorded by all writers are merged during the next update, which is
+ * expected to be performed by a single thread at a time.
+ * <p>
+ * Like its official map, this map does not permit null keys or values.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+public class ObservableConcurrentHashMap<K, V> extends ObservableMap<K, V> implements ConcurrentMap<K, V> {
+	
+	private static final long serialVersionUID = 2924616436290311405L;
+	
+	/**
+	 * The map used by this observable map.
+	 */
+	private final ConcurrentHashMap<K, V> map;
+	
+	/**
+	 * The modification count of this map, kept in a contention-free
+	 * counter rather than in a plain field.
+	 */
+	private final LongAdder version;
+	
+	/**
+	 * Creates a new ObservableConcurrentHashMap given the map
+	 * argument.
+	 * 
+	 * @param map	The map to create this map from.
+	 */
+	private ObservableConcurrentHashMap(ConcurrentHashMap<K, V> map) {
+		super(map, true);
+		this.map = map;
+		this.version = new LongAdder();
+	}
+	
+	/**
+	 * Creates a new empty ObservableConcurrentHashMap.
+	 */
+	public ObservableConcurrentHashMap() {
+		this(new ConcurrentHashMap<K, V>());
+	}
+	
+	/**
+	 * Creates a new ObservableConcurrentHashMap given the map
+	 * argument.
+	 * 
+	 * @param map	The map to create this map from.
+	 */
+	public ObservableConcurrentHashMap(Map<? extends K, ? extends V> m) {
+		this(new ConcurrentHashMap<K, V>(m));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Map<K, V> getMap() {
+		return map;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getVersion() {
+		return version.sum();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void modified() {
+		version.increment();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V put(K key, V value) {
+		if(isTracked(key))
+			return change(key, (k, old) -> value, false);
+		
+		V old = map.put(key, value);
+		modified();
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if(isTracked(key))
+			return change((K) key, (k, old) -> null, false);
+		
+		V old = map.remove(key);
+		if(old != null)
+			modified();
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		if(!isTracking()) {
+			map.clear();
+			modified();
+			return;
+		}
+		
+		for(K key : map.keySet())
+			remove(key);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		if(!isTracking()) {
+			map.replaceAll(function);
+			modified();
+			return;
+		}
+		
+		for(K key : map.keySet())
+			change(key, (k, old) -> old == null ? null : Objects.requireNonNull(function.apply(k, old)), false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
+		Objects.requireNonNull(value);
+		return change(key, (k, old) -> old == null ? value : old, false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object key, Object value) {
+		if(value == null) return false;
+		return value.equals(change((K) key, (k, old) -> value.equals(old) ? null : old, false));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Objects.requireNonNull(oldValue);
+		Objects.requireNonNull(newValue);
+		return oldValue.equals(change(key, (k, old) -> oldValue.equals(old) ? newValue : old, false));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V replace(K key, V value) {
+		Objects.requireNonNull(value);
+		return change(key, (k, old) -> old == null ? null : value, false);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		return change(key, (k, old) -> old == null ? mappingFunction.apply(k) : old, true);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return change(key, (k, old) -> old == null ? null : remappingFunction.apply(k, old), true);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return change(key, remappingFunction, true);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		return change(key, (k, old) -> old == null ? value : remappingFunction.apply(old, value), true);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void removeEntry(Iterator<Entry<K, V>> it, Entry<K, V> entry) {
+		remove(entry.getKey());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The value is replaced and recorded atomically through the official
+	 * map, as the entries of a concurrent map are only snapshots. The new
+	 * value is then held by the entry returned from the entry view.
+	 */
+	@Override
+	V setEntryValue(Entry<K, V> entry, V value) {
+		return put(entry.getKey(), value);
+	}
+	
+	/**
+	 * Atomically replaces the value of the entry with the given key by
+	 * the result of the given function, and records the modification
+	 * while the entry is still locked by the official map. This ensures
+	 * that the modifications of an entry are recorded in the same order
+	 * in which they were made, no matter which threads made them.
+	 * 
+	 * @param key			The key of the entry to modify.
+	 * @param function		The function computing the new value of the entry, or null to remove it.
+	 * @param returnNew		Whether to return the new value of the entry rather than the old one.
+	 * @return				The old or new value of the entry.
+	 */
+	@SuppressWarnings("unchecked")
+	private V change(K key, BiFunction<? super K, ? super V, ? extends V> function, boolean returnNew) {
+		Object[] previous = new Object[1];
+		V value = map.compute(key, (k, old) -> {
+			V result = function.apply(k, old);
+			previous[0] = old;
+			if(result != old) {
+				record(k, old != null, old, result != null, result);
+				modified();
+			}
+			return result;
+		});
+		return returnNew ? value : (V) previous[0];
+	}
+	
+}
@@ -0,0 +1,113 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A <a href="#{@link}">{@link CopyOnWriteArrayList}</a> implementation
+ * of the <a href="#{@link}">{@link ObservableList}</a> class.
+ * <p>
+ * This list is best suited to workloads with many reader threads and
+ * rare writers. Readers never lock, and its iterators operate on a
+ * snapshot of the list taken when they are created. Every modification
+ * copies the entire list.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+public class ObservableCopyOnWriteArrayList<E> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = -6123931540472318594L;
+	
+	/**
+	 * The list used by this observable list.
+	 */
+	private final CopyOnWriteArrayList<E> list;
+	
+	/**
+	 * The modification count of this list, kept in a contention-free
+	 * counter rather than in a plain field.
+	 */
+	private final LongAdder version;
+	
+	/**
+	 * Creates a new ObservableCopyOnWriteArrayList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	private ObservableCopyOnWriteArrayList(CopyOnWriteArrayList<E> list) {
+		super(list);
+		this.list = list;
+		this.version = new LongAdder();
+	}
+	
+	/**
+	 * Creates a new empty ObservableCopyOnWriteArrayList.
+	 */
+	public ObservableCopyOnWriteArrayList() {
+		this(new CopyOnWriteArrayList<E>());
+	}
+	
+	/**
+	 * Creates a new ObservableCopyOnWriteArrayList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	public ObservableCopyOnWriteArrayList(Collection<? extends E> c) {
+		this(new CopyOnWriteArrayList<E>(c));
+	}
+	
+	/**
+	 * Creates a new ObservableCopyOnWriteArrayList given the vararg
+	 * argument.
+	 * 
+	 * @param list	The vararg array to create this list from.
+	 */
+	@SafeVarargs
+	public ObservableCopyOnWriteArrayList(E... c) {
+		this(new CopyOnWriteArrayList<E>(Arrays.asList(c)));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned spliterator traverses the snapshot of the list taken
+	 * when it is created, like the iterators of this list.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return list.spliterator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getList() {
+		return list;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getVersion() {
+		return version.sum();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void modified() {
+		version.increment();
+	}
+	
+}
@@ -0,0 +1,292 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An observable list of {@code double} values, backed by a growable
+ * {@code double[]} array.
+ * <p>
+ * Elements are stored unboxed, and are only boxed when accessed
+ * through the <a href="#{@link}">{@link #boxed()}</a> view of this
+ * list.
+ * 
+ * @see ObservablePrimitiveList
+ * @author Max D
+ */
+public class ObservableDoubleList extends ObservablePrimitiveList<Double> {
+	
+	private static final long serialVersionUID = -2869921070218519460L;
+	
+	/**
+	 * Creates a new empty ObservableDoubleList.
+	 */
+	public ObservableDoubleList() {
+		super(new double[10], 0);
+	}
+	
+	/**
+	 * Creates a new ObservableDoubleList given the array argument.
+	 * 
+	 * @param values	The array to create this list from.
+	 */
+	public ObservableDoubleList(double[] values) {
+		super(values.clone(), values.length);
+	}
+	
+	/**
+	 * Creates a new ObservableDoubleList given the collection argument.
+	 * 
+	 * @param c	The collection to create this list from.
+	 */
+	public ObservableDoubleList(Collection<? extends Double> c) {
+		super(new double[Math.max(10, c.size())], 0);
+		double[] data = data();
+		for(Double value : c)
+			data[size++] = value;
+	}
+	
+	/**
+	 * Returns the element at the given index of this list.
+	 * 
+	 * @param index	The index of the element to return.
+	 * @return		The element at the given index.
+	 */
+	public double get(int index) {
+		checkIndex(index);
+		return data()[index];
+	}
+	
+	/**
+	 * Replaces the element at the given index of this list.
+	 * 
+	 * @param index	The index of the element to replace.
+	 * @param value	The element to be stored at the given index.
+	 * @return		The element previously at the given index.
+	 */
+	public double set(int index, double value) {
+		checkIndex(index);
+		double[] data = data();
+		double old = data[index];
+		data[index] = value;
+		modified(index, index + 1);
+		return old;
+	}
+	
+	/**
+	 * Replaces the elements of this list starting at the given index
+	 * with the elements of the given array.
+	 * 
+	 * @param from		The index of the first element to replace.
+	 * @param values	The elements to be stored starting at the given index.
+	 */
+	public void set(int from, double[] values) {
+		replace(from, values, values.length);
+	}
+	
+	/**
+	 * Replaces every element whose index is between {@code from},
+	 * inclusive, and {@code to}, exclusive, with the given value.
+	 * 
+	 * @param from	The index of the first element to replace.
+	 * @param to	The index after the last element to replace.
+	 * @param value	The element to be stored in the given range.
+	 */
+	public void fill(int from, int to, double value) {
+		checkRange(from, to);
+		Arrays.fill(data(), from, to, value);
+		modified(from, to);
+	}
+	
+	/**
+	 * Appends the given element to the end of this list.
+	 * 
+	 * @param value	The element to be appended.
+	 * @return		{@code true}
+	 */
+	public boolean add(double value) {
+		add(size, value);
+		return true;
+	}
+	
+	/**
+	 * Inserts the given element at the given index of this list,
+	 * shifting any subsequent elements to the right.
+	 * 
+	 * @param index	The index at which the element is to be inserted.
+	 * @param value	The element to be inserted.
+	 */
+	public void add(int index, double value) {
+		insert(index, 1);
+		data()[index] = value;
+	}
+	
+	/**
+	 * Appends all of the elements of the given array to the end of
+	 * this list.
+	 * 
+	 * @param values	The elements to be appended.
+	 */
+	public void addAll(double[] values) {
+		insertAll(size, values, values.length);
+	}
+	
+	/**
+	 * Inserts all of the elements of the given array at the given index
+	 * of this list, shifting any subsequent elements to the right.
+	 * 
+	 * @param index		The index at which the elements are to be inserted.
+	 * @param values	The elements to be inserted.
+	 */
+	public void addAll(int index, double[] values) {
+		insertAll(index, values, values.length);
+	}
+	
+	/**
+	 * Removes the element at the given index of this list, shifting
+	 * any subsequent elements to the left.
+	 * 
+	 * @param index	The index of the element to be removed.
+	 * @return		The element previously at the given index.
+	 */
+	public double remove(int index) {
+		double old = get(index);
+		removeRange(index, index + 1);
+		return old;
+	}
+	
+	/**
+	 * Removes the first occurrence of the given element from this list.
+	 * 
+	 * @param value	The element to be removed.
+	 * @return		{@code true} if this list contained the element
+	 */
+	public boolean removeValue(double value) {
+		int index = indexOf(value);
+		if(index < 0) return false;
+		removeRange(index, index + 1);
+		return true;
+	}
+	
+	/**
+	 * Returns the index of the first occurrence of the given element
+	 * in this list, or -1 if this list does not contain it.
+	 * <p>
+	 * Elements are compared the same way their boxed equivalents would
+	 * be compared by {@code equals}.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		The index of the first occurrence of the element.
+	 */
+	public int indexOf(double value) {
+		double[] data = data();
+		long bits = Double.doubleToLongBits(value);
+		for(int i = 0; i < size; i++) {
+			if(Double.doubleToLongBits(data[i]) == bits)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the index of the last occurrence of the given element
+	 * in this list, or -1 if this list does not contain it.
+	 * <p>
+	 * Elements are compared the same way their boxed equivalents would
+	 * be compared by {@code equals}.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		The index of the last occurrence of the element.
+	 */
+	public int lastIndexOf(double value) {
+		double[] data = data();
+		long bits = Double.doubleToLongBits(value);
+		for(int i = size - 1; i >= 0; i--) {
+			if(Double.doubleToLongBits(data[i]) == bits)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns whether or not this list contains the given element.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		{@code true} if this list contains the element
+	 */
+	public boolean contains(double value) {
+		return indexOf(value) >= 0;
+	}
+	
+	/**
+	 * Sorts the elements of this list into ascending numerical order.
+	 */
+	public void sort() {
+		if(size < 2) return;
+		Arrays.sort(data(), 0, size);
+		modified(0, size);
+	}
+	
+	/**
+	 * Returns an array containing all of the elements of this list.
+	 * 
+	 * @return	A copy of the elements of this list.
+	 */
+	public double[] toArray() {
+		return (double[]) copy(0, size);
+	}
+	
+	/**
+	 * Returns an array containing the elements of this list whose index
+	 * is between {@code from}, inclusive, and {@code to}, exclusive.
+	 * 
+	 * @param from	The index of the first element to copy.
+	 * @param to	The index after the last element to copy.
+	 * @return		A copy of the elements in the given range.
+	 */
+	public double[] toArray(int from, int to) {
+		return (double[]) copy(from, to);
+	}
+	
+	/**
+	 * Returns the array holding the elements of this list.
+	 * 
+	 * @return	The array of this list.
+	 */
+	private double[] data() {
+		return (double[]) data;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Object newArray(int length) {
+		return new double[length];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Double getElement(int index) {
+		return data()[index];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Double setElement(int index, Double element) {
+		return set(index, (double) element);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void insertElement(int index, Double element) {
+		add(index, (double) element);
+	}
+	
+}
@@ -0,0 +1,134 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An <a href="#{@link}">{@link java.util.ArrayList}</a> implementation
+ * of the <a href="#{@link}">{@link ObservableList}</a> class that keeps
+ * a hash index of its elements.
+ * <p>
+ * Membership tests such as <a href="#{@link}">{@link #contains(Object)}
+ * </a> and <a href="#{@link}">{@link #containsAll(Collection)}</a> run in
+ * constant time per element on average, regardless of the size of the
+ * list. The positions of each element are indexed as well, so that
+ * <a href="#{@link}">{@link #indexOf(Object)}</a> and <a href="#{@link}">
+ * {@link #lastIndexOf(Object)}</a> run in constant time while elements
+ * are only appended, replaced or removed from the end of the list. An
+ * insertion or removal elsewhere shifts the following elements, and the
+ * positions are then rebuilt by the next positional query.
+ * <p>
+ * Elements must not change their hash code or equality while they are
+ * contained in this list.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+public class ObservableIndexedList<E> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = -1405093346297563420L;
+	
+	/**
+	 * The list used by this observable list.
+	 */
+	private final IndexedArrayList<E> list;
+	
+	/**
+	 * Creates a new ObservableIndexedList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	private ObservableIndexedList(IndexedArrayList<E> list) {
+		super(list);
+		this.list = list;
+	}
+	
+	/**
+	 * Creates a new empty ObservableIndexedList.
+	 */
+	public ObservableIndexedList() {
+		this(new IndexedArrayList<E>());
+	}
+	
+	/**
+	 * Creates a new ObservableIndexedList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	public ObservableIndexedList(Collection<? extends E> c) {
+		this(new IndexedArrayList<E>(c));
+	}
+	
+	/**
+	 * Creates a new ObservableIndexedList given the vararg
+	 * argument.
+	 * 
+	 * @param list	The vararg array to create this list from.
+	 */
+	@SafeVarargs
+	public ObservableIndexedList(E... c) {
+		this(new IndexedArrayList<E>(Arrays.asList(c)));
+	}
+	
+	/**
+	 * Returns the number of elements of this list equal to the given
+	 * object, in constant time on average.
+	 * 
+	 * @param o	The object to count.
+	 * @return	The number of occurrences of the object in this list.
+	 */
+	public int count(Object o) {
+		return list.count(o);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only the elements of the given collection that are contained in
+	 * this list are looked up while scanning it, through a hash set.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Set<Object> present = present(c);
+		return !present.isEmpty() && super.removeAll(present);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The elements of the given collection are looked up while scanning
+	 * this list through a hash set.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return super.retainAll(present(c));
+	}
+	
+	/**
+	 * Returns the elements of the given collection that are contained
+	 * in this list.
+	 */
+	private Set<Object> present(Collection<?> c) {
+		Set<Object> present = new HashSet<Object>();
+		for(Object o : c) {
+			if(list.contains(o))
+				present.add(o);
+		}
+		return present;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getList() {
+		return list;
+	}
+	
+}
@@ -1,11 +1,20 @@
 package celutils.collections;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import celutils.beans.observable.ChangeListener;
 import celutils.beans.observable.EventListener;
 import celutils.beans.observable.ObservableImpl;
@@ -15,7 +24,11 @@ import celutils.beans.observable.ObservableImpl;
  * another list type inside of an observable implementation.
  * <p>
  * This list can be observed with listeners similar to any
- * other observable value.
+ * other observable value. In addition, <a href="#{@link}">
+ * {@link ListChangeListener}</a>s are notified of every range of
+ * elements that has been added, removed or replaced, which allows
+ * live views such as <a href="#{@link}">{@link #filtered(Predicate)}
+ * </a> to be maintained incrementally.
  * 
  * @param <E> the type of elements in this list
  * 
@@ -26,6 +39,40 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	
 	private static final long serialVersionUID = 3550282726273645892L;
 	
+	/**
+	 * The maximum number of insertions and deletions searched for by
+	 * <a href="#{@link}">{@link #set(Collection)}</a>, beyond which the
+	 * differing range is replaced as a whole.
+	 */
+	private static final int MAX_DIFF_EDITS = 1024;
+	
+	/**
+	 * The modification count of this list. It is incremented by every
+	 * operation that modifies the list, including those made through
+	 * its iterators and sub-lists.
+	 */
+	private long version;
+	
+	/**
+	 * The modification count observed during the last update. Used for
+	 * detecting changes without comparing the contents of the list.
+	 */
+	private long lastVersion;
+	
+	/**
+	 * The list change listeners of this list, along with the index
+	 * of the first pending change that each of them is to receive.
+	 */
+	private final List<Subscription<E>> listListeners;
+	
+	/**
+	 * The changes recorded since the last update, or null if there
+	 * are none. Changes at an index below {@link #sealed} predate the
+	 * registration of a listener, and may no longer be merged with.
+	 */
+	private List<ListChange<E>> changes;
+	private int sealed;
+	
 	/**
 	 * Creates a new observable list with an initial
 	 * official list value.
@@ -34,6 +81,7 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	protected ObservableList(List<E> initialList) {
 		super(new ArrayList<ChangeListener<List<E>>>(), new ArrayList<EventListener>(), initialList);
+		this.listListeners = new CopyOnWriteArrayList<Subscription<E>>();
 	}
 	
 
@@ -46,6 +94,133 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	protected abstract List<E> getList();
 	
+	/**
+	 * Returns the modification count of this list. The value returned
+	 * is guaranteed to differ from any previously returned value if and
+	 * only if this list has been modified since.
+	 * 
+	 * @return	The modification count of this list.
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Records a modification of this list. Called by every mutator of
+	 * this class after the official list has been changed.
+	 */
+	protected void modified() {
+		version++;
+	}
+	
+	/**
+	 * Adds a <a href="#{@link}">{@link ListChangeListener}</a> to this
+	 * list. The listener will be executed for every change made to this
+	 * list after it has been added.
+	 * <p>
+	 * While any list change listener is attached, modifications made
+	 * directly on this list are serialized on the list itself, so that
+	 * the recorded indices remain consistent for concurrent lists.
+	 * 
+	 * @param listener	The list change listener to be added.
+	 */
+	public void addListListener(ListChangeListener<E> listener) {
+		synchronized(this) {
+			if(changes != null)
+				sealed = changes.size();
+			listListeners.add(new Subscription<E>(listener, sealed));
+		}
+	}
+	
+	/**
+	 * Removes a pre-existing <a href="#{@link}">{@link ListChangeListener}</a>
+	 * from this list's list of list change listeners.
+	 * 
+	 * @param listener	The list change listener to be removed.
+	 */
+	public void removeListListener(ListChangeListener<E> listener) {
+		synchronized(this) {
+			for(Subscription<E> subscription : listListeners) {
+				if(subscription.listener.equals(listener)) {
+					listListeners.remove(subscription);
+					break;
+				}
+			}
+			if(listListeners.isEmpty()) {
+				changes = null;
+				sealed = 0;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the list of all list change listeners observing this list.
+	 * 
+	 * @return	This list's list of list change listeners.
+	 */
+	public List<ListChangeListener<E>> getListListeners() {
+		List<ListChangeListener<E>> listeners = new ArrayList<ListChangeListener<E>>(listListeners.size());
+		for(Subscription<E> subscription : listListeners)
+			listeners.add(subscription.listener);
+		return Collections.unmodifiableList(listeners);
+	}
+	
+	/**
+	 * Returns whether or not this list is being observed by a list
+	 * change listener.
+	 * 
+	 * @return	Whether or not element-level changes are being recorded.
+	 */
+	boolean isTracking() {
+		return !listListeners.isEmpty();
+	}
+	
+	/**
+	 * Records that the given removed elements have been replaced by the
+	 * given added elements at the given index, merging the change with
+	 * the previous one where possible. The given lists are owned by the
+	 * recorded change from then on.
+	 * <p>
+	 * Must only be called while this list is being tracked, and while
+	 * holding the lock of this list if it may be modified concurrently.
+	 * 
+	 * @param from		The index at which the change starts.
+	 * @param removed	The elements removed at the given index.
+	 * @param added		The elements added at the given index.
+	 */
+	void record(int from, List<E> removed, List<E> added) {
+		if(changes == null)
+			changes = new ArrayList<ListChange<E>>();
+		int size = changes.size();
+		if(size > sealed && changes.get(size - 1).merge(from, removed, added))
+			return;
+		changes.add(new ListChange<E>(from, removed, added));
+	}
+	
+	/**
+	 * Records the differences between the contents of this list before
+	 * and after an operation that does not change its size, as one
+	 * replacement for every range of differing elements.
+	 * 
+	 * @param before	The contents of this list before the operation.
+	 * @param after		The contents of this list after the operation.
+	 */
+	@SuppressWarnings("unchecked")
+	private void recordReplacements(Object[] before, Object[] after) {
+		int i = 0;
+		while(i < before.length) {
+			if(before[i] == after[i]) {
+				i++;
+				continue;
+			}
+			int from = i;
+			while(i < before.length && before[i] != after[i])
+				i++;
+			record(from, (List<E>) new ArrayList<Object>(Arrays.asList(before).subList(from, i)),
+					(List<E>) new ArrayList<Object>(Arrays.asList(after).subList(from, i)));
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -75,9 +250,23 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public Iterator<E> iterator() {
-		return getList().iterator();
+		return new Itr(getList().iterator(), 0, 0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned spliterator splits by halving its range of indices. If
+	 * the official list supports fast random access, the spliterator is
+	 * fail-fast, detecting modifications through the version of this list.
+	 * Otherwise it traverses a copy of the list taken when it is first
+	 * used, which parallel streams can split evenly.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new ListSpliterator<E>(this);
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -99,7 +288,20 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean add(E e) {
-		return getList().add(e);
+		if(isTracking()) {
+			synchronized(this) {
+				int index = getList().size();
+				if(!getList().add(e))
+					return false;
+				modified();
+				record(index, Collections.<E>emptyList(), Collections.singletonList(e));
+				return true;
+			}
+		}
+		if(!getList().add(e))
+			return false;
+		modified();
+		return true;
 	}
 
 	/**
@@ -107,7 +309,21 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean remove(Object o) {
-		return getList().remove(o);
+		if(isTracking()) {
+			synchronized(this) {
+				int index = getList().indexOf(o);
+				if(index < 0)
+					return false;
+				E old = getList().remove(index);
+				modified();
+				record(index, Collections.singletonList(old), Collections.<E>emptyList());
+				return true;
+			}
+		}
+		if(!getList().remove(o))
+			return false;
+		modified();
+		return true;
 	}
 
 	/**
@@ -135,7 +351,15 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean addAll(Collection<? extends E> c) {
-		return getList().addAll(c);
+		if(isTracking()) {
+			synchronized(this) {
+				return addAll(getList().size(), c);
+			}
+		}
+		if(!getList().addAll(c))
+			return false;
+		modified();
+		return true;
 	}
 	
 	/**
@@ -154,7 +378,20 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean addAll(int index, Collection<? extends E> c) {
-		return getList().addAll(index, c);
+		if(isTracking()) {
+			synchronized(this) {
+				List<E> added = new ArrayList<E>(c);
+				if(!getList().addAll(index, added))
+					return false;
+				modified();
+				record(index, Collections.<E>emptyList(), added);
+				return true;
+			}
+		}
+		if(!getList().addAll(index, c))
+			return false;
+		modified();
+		return true;
 	}
 	
 	/**
@@ -173,7 +410,12 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		return getList().removeAll(c);
+		if(isTracking())
+			return removeIf(e -> c.contains(e));
+		if(!getList().removeAll(c))
+			return false;
+		modified();
+		return true;
 	}
 	
 	/**
@@ -192,7 +434,12 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		return getList().retainAll(c);
+		if(isTracking())
+			return removeIf(e -> !c.contains(e));
+		if(!getList().retainAll(c))
+			return false;
+		modified();
+		return true;
 	}
 	
 	/**
@@ -211,7 +458,92 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public void clear() {
+		if(isTracking()) {
+			synchronized(this) {
+				if(getList().isEmpty())
+					return;
+				List<E> removed = new ArrayList<E>(getList());
+				getList().clear();
+				modified();
+				record(0, removed, Collections.<E>emptyList());
+				return;
+			}
+		}
+		if(getList().isEmpty())
+			return;
 		getList().clear();
+		modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		if(isTracking()) {
+			synchronized(this) {
+				/* The removed elements are collected along with their index in the resulting list,
+				 * and only recorded once the official list has accepted the removal */
+				List<E> removed = new ArrayList<E>();
+				List<Integer> indices = new ArrayList<Integer>();
+				int[] kept = new int[1];
+				boolean result = getList().removeIf(e -> {
+					if(!filter.test(e)) {
+						kept[0]++;
+						return false;
+					}
+					removed.add(e);
+					indices.add(kept[0]);
+					return true;
+				});
+				if(!result)
+					return false;
+				modified();
+				for(int i = 0; i < removed.size(); i++)
+					record(indices.get(i), Collections.singletonList(removed.get(i)), Collections.<E>emptyList());
+				return true;
+			}
+		}
+		if(!getList().removeIf(filter))
+			return false;
+		modified();
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void replaceAll(UnaryOperator<E> operator) {
+		if(isTracking()) {
+			synchronized(this) {
+				Object[] before = getList().toArray();
+				getList().replaceAll(operator);
+				modified();
+				recordReplacements(before, getList().toArray());
+				return;
+			}
+		}
+		getList().replaceAll(operator);
+		modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sort(Comparator<? super E> c) {
+		if(isTracking()) {
+			synchronized(this) {
+				Object[] before = getList().toArray();
+				getList().sort(c);
+				modified();
+				recordReplacements(before, getList().toArray());
+				return;
+			}
+		}
+		getList().sort(c);
+		modified();
 	}
 
 	/**
@@ -227,18 +559,96 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public E set(int index, E element) {
-		return getList().set(index, element);
+		if(isTracking()) {
+			synchronized(this) {
+				E old = getList().set(index, element);
+				modified();
+				record(index, Collections.singletonList(old), Collections.singletonList(element));
+				return old;
+			}
+		}
+		E old = getList().set(index, element);
+		modified();
+		return old;
 	}
 	
 	/**
 	 * Sets this list to be equivalent to the given
 	 * list.
+	 * <p>
+	 * Rather than replacing every element, this method computes a minimal
+	 * sequence of insertions and deletions between the current and the
+	 * given contents, and applies only those. Deletions and insertions at
+	 * the same index are applied as replacements of single elements. If
+	 * the contents differ by too many edits to search for, then the range
+	 * between their common prefix and suffix is replaced as a whole.
 	 * 
 	 * @param c	The list to set equal to.
 	 */
 	public void set(Collection<? extends E> c) {
-		clear();
-		addAll(c);
+		synchronized(this) {
+			Object[] a = getList().toArray();
+			Object[] b = c.toArray();
+			int limit = Math.min(a.length, b.length);
+			int prefix = 0;
+			while(prefix < limit && equals(a[prefix], b[prefix]))
+				prefix++;
+			int suffix = 0;
+			while(suffix < limit - prefix && equals(a[a.length - suffix - 1], b[b.length - suffix - 1]))
+				suffix++;
+			
+			Object[] removed = Arrays.copyOfRange(a, prefix, a.length - suffix);
+			Object[] added = Arrays.copyOfRange(b, prefix, b.length - suffix);
+			byte[] script = removed.length == 0 || added.length == 0 ? null : ListDiff.script(removed, added, MAX_DIFF_EDITS);
+			if(script == null) {
+				replace(prefix, removed.length, added, 0, added.length, false);
+				return;
+			}
+			
+			int index = prefix, from = 0, i = 0;
+			while(i < script.length) {
+				if(script[i] == ListDiff.EQUAL) {
+					index++;
+					from++;
+					i++;
+					continue;
+				}
+				int deletions = 0, to = from;
+				for(; i < script.length && script[i] != ListDiff.EQUAL; i++) {
+					if(script[i] == ListDiff.DELETE)
+						deletions++;
+					else
+						to++;
+				}
+				replace(index, deletions, added, from, to, true);
+				index += to - from;
+				from = to;
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the given number of elements at the given index of this
+	 * list by the given range of elements. If paired, then as many elements
+	 * as possible are replaced one by one, otherwise the elements are all
+	 * removed before the new ones are inserted.
+	 * 
+	 * @param index		The index of the first element to replace.
+	 * @param count		The number of elements to replace.
+	 * @param elements	The array holding the new elements.
+	 * @param from		The index of the first new element in the array.
+	 * @param to		The index following the last new element in the array.
+	 * @param paired	Whether or not to replace elements one by one.
+	 */
+	@SuppressWarnings("unchecked")
+	private void replace(int index, int count, Object[] elements, int from, int to, boolean paired) {
+		int replaced = paired ? Math.min(count, to - from) : 0;
+		for(int i = 0; i < replaced; i++)
+			set(index + i, (E) elements[from + i]);
+		if(count > replaced)
+			subList(index + replaced, index + count).clear();
+		if(to - from > replaced)
+			addAll(index + replaced, (List<E>) Arrays.asList(elements).subList(from + replaced, to));
 	}
 	
 	/**
@@ -248,8 +658,7 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 * @param c	The vararg collection of objects.
 	 */
 	public void set(@SuppressWarnings("unchecked") E... c) {
-		clear();
-		addAll(c);
+		set(Arrays.asList(c));
 	}
 
 	/**
@@ -257,7 +666,16 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public void add(int index, E element) {
+		if(isTracking()) {
+			synchronized(this) {
+				getList().add(index, element);
+				modified();
+				record(index, Collections.<E>emptyList(), Collections.singletonList(element));
+				return;
+			}
+		}
 		getList().add(index, element);
+		modified();
 	}
 	
 	/**
@@ -275,7 +693,17 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public E remove(int index) {
-		return getList().remove(index);
+		if(isTracking()) {
+			synchronized(this) {
+				E old = getList().remove(index);
+				modified();
+				record(index, Collections.singletonList(old), Collections.<E>emptyList());
+				return old;
+			}
+		}
+		E old = getList().remove(index);
+		modified();
+		return old;
 	}
 
 	/**
@@ -299,7 +727,7 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public ListIterator<E> listIterator() {
-		return getList().listIterator();
+		return new ListItr(getList().listIterator(), 0, 0);
 	}
 
 	/**
@@ -307,7 +735,7 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public ListIterator<E> listIterator(int index) {
-		return getList().listIterator(index);
+		return new ListItr(getList().listIterator(index), 0, index);
 	}
 
 	/**
@@ -315,7 +743,7 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 	 */
 	@Override
 	public List<E> subList(int fromIndex, int toIndex) {
-		return getList().subList(fromIndex, toIndex);
+		return new SubList(getList().subList(fromIndex, toIndex), fromIndex);
 	}
 
 	/**
@@ -326,4 +754,429 @@ public abstract class ObservableList<E> extends ObservableImpl<List<E>> implemen
 		return getList();
 	}
 	
+	/**
+	 * Returns a live view of the elements of this list that satisfy the
+	 * given predicate, in the order they occur in this list.
+	 * <p>
+	 * The view is maintained incrementally from the changes of this list
+	 * delivered during its updates, at a cost of O(k log n) for k changed
+	 * elements. The predicate should therefore only depend on the elements
+	 * themselves, and not on any other mutable state.
+	 * 
+	 * @param predicate	The predicate that elements of the view satisfy.
+	 * @return			The filtered view of this list.
+	 */
+	public ObservableListView<E, E> filtered(Predicate<? super E> predicate) {
+		return new FilteredList<E>(this, predicate);
+	}
+	
+	/**
+	 * Returns a live view of the results of applying the given function
+	 * to each element of this list.
+	 * <p>
+	 * The results are computed once for every element added to this list,
+	 * and maintained incrementally from the changes of this list delivered
+	 * during its updates, at a cost of O(k log n) for k changed elements.
+	 * 
+	 * @param mapper	The function to apply to each element.
+	 * @return			The mapped view of this list.
+	 */
+	public <R> ObservableListView<R, E> mapped(Function<? super E, ? extends R> mapper) {
+		return new MappedList<R, E>(this, mapper);
+	}
+	
+	/**
+	 * Returns a live view of the elements of this list sorted by the given
+	 * comparator, or by their natural ordering if the comparator is null.
+	 * The relative order of equal elements is unspecified.
+	 * <p>
+	 * The view is maintained incrementally from the changes of this list
+	 * delivered during its updates, at a cost of O(k log n) for k changed
+	 * elements.
+	 * 
+	 * @param comparator	The comparator used to order the view.
+	 * @return				The sorted view of this list.
+	 */
+	public ObservableListView<E, E> sorted(Comparator<? super E> comparator) {
+		return new SortedList<E>(this, comparator);
+	}
+	
+	/**
+	 * Executes every change listener of this list. The list itself is
+	 * given as both the old and the new value, unless a subclass keeps
+	 * snapshots of its previous contents.
+	 */
+	void fireChanged() {
+		List<E> list = getList();
+		for(ChangeListener<List<E>> listener : getListeners())
+			listener.changed(this, list, list);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Changes are detected by comparing the modification count of this
+	 * list against the one observed during the last update, rather than
+	 * by comparing the contents of the list.
+	 * <p>
+	 * After the change listeners, every list change listener is executed
+	 * for each change made since the last update, in order.
+	 */
+	@Override
+	public void update() {
+		long version = getVersion();
+		if(version == lastVersion)
+			return;
+		lastVersion = version;
+		
+		fireChanged();
+		
+		List<ListChange<E>> changes;
+		List<Subscription<E>> subscriptions;
+		int[] starts;
+		synchronized(this) {
+			changes = this.changes;
+			if(changes == null)
+				return;
+			this.changes = null;
+			this.sealed = 0;
+			subscriptions = new ArrayList<Subscription<E>>(listListeners);
+			starts = new int[subscriptions.size()];
+			for(int i = 0; i < starts.length; i++) {
+				starts[i] = subscriptions.get(i).start;
+				subscriptions.get(i).start = 0;
+			}
+		}
+		for(int i = 0; i < changes.size(); i++) {
+			ListChange<E> change = changes.get(i);
+			for(int j = 0; j < starts.length; j++) {
+				if(i >= starts[j])
+					subscriptions.get(j).listener.changed(this, change);
+			}
+		}
+	}
+	
+	/**
+	 * A list change listener registered on this list, along with the
+	 * index of the first pending change that it is to receive.
+	 */
+	private static final class Subscription<E> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 4618030584417353213L;
+		
+		/**
+		 * The registered listener.
+		 */
+		private final ListChangeListener<E> listener;
+		
+		/**
+		 * The index of the first pending change to deliver to the listener.
+		 */
+		private int start;
+		
+		/**
+		 * Creates a new subscription of the given listener.
+		 * 
+		 * @param listener	The registered listener.
+		 * @param start		The index of the first pending change to deliver.
+		 */
+		private Subscription(ListChangeListener<E> listener, int start) {
+			this.listener = listener;
+			this.start = start;
+		}
+		
+	}
+	
+	/**
+	 * An iterator over the official list that records any
+	 * modification made through it.
+	 */
+	private class Itr implements Iterator<E> {
+		
+		/**
+		 * The iterator of the official list.
+		 */
+		private final Iterator<E> it;
+		
+		/**
+		 * The index in this list of the first element covered by the
+		 * iterator, which is non-zero for iterators over a sub-list.
+		 */
+		final int offset;
+		
+		/**
+		 * The index of the element to be returned by the next call to
+		 * next, relative to the offset, and the index of the element
+		 * returned by the last call to next or previous, or -1.
+		 */
+		int cursor;
+		int lastRet = -1;
+		
+		/**
+		 * The element returned by the last call to next or previous.
+		 */
+		E last;
+		
+		/**
+		 * Creates a new iterator wrapping the given iterator.
+		 * 
+		 * @param it		The iterator of the official list.
+		 * @param offset	The index in this list of the first element covered.
+		 * @param cursor	The index of the next element, relative to the offset.
+		 */
+		private Itr(Iterator<E> it, int offset, int cursor) {
+			this.it = it;
+			this.offset = offset;
+			this.cursor = cursor;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E next() {
+			E e = it.next();
+			last = e;
+			lastRet = cursor++;
+			return e;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void remove() {
+			it.remove();
+			modified();
+			if(isTracking())
+				record(offset + lastRet, Collections.singletonList(last), Collections.<E>emptyList());
+			cursor = lastRet;
+			lastRet = -1;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			it.forEachRemaining(e -> {
+				last = e;
+				lastRet = cursor++;
+				action.accept(e);
+			});
+		}
+		
+	}
+	
+	/**
+	 * A list iterator over the official list that records any
+	 * modification made through it.
+	 */
+	private class ListItr extends Itr implements ListIterator<E> {
+		
+		/**
+		 * The list iterator of the official list.
+		 */
+		private final ListIterator<E> it;
+		
+		/**
+		 * Creates a new list iterator wrapping the given list iterator.
+		 * 
+		 * @param it		The list iterator of the official list.
+		 * @param offset	The index in this list of the first element covered.
+		 * @param cursor	The index of the next element, relative to the offset.
+		 */
+		private ListItr(ListIterator<E> it, int offset, int cursor) {
+			super(it, offset, cursor);
+			this.it = it;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return it.hasPrevious();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E previous() {
+			E e = it.previous();
+			last = e;
+			lastRet = --cursor;
+			return e;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int nextIndex() {
+			return it.nextIndex();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int previousIndex() {
+			return it.previousIndex();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void set(E e) {
+			it.set(e);
+			modified();
+			if(isTracking())
+				record(offset + lastRet, Collections.singletonList(last), Collections.singletonList(e));
+			last = e;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void add(E e) {
+			it.add(e);
+			modified();
+			if(isTracking())
+				record(offset + cursor, Collections.<E>emptyList(), Collections.singletonList(e));
+			cursor++;
+			lastRet = -1;
+		}
+		
+	}
+	
+	/**
+	 * A view of a portion of the official list that records any
+	 * modification made through it.
+	 */
+	private class SubList extends AbstractList<E> {
+		
+		/**
+		 * The sub-list of the official list.
+		 */
+		private final List<E> list;
+		
+		/**
+		 * The index in this list of the first element of the sub-list.
+		 */
+		private final int offset;
+		
+		/**
+		 * Creates a new sub-list wrapping the given sub-list.
+		 * 
+		 * @param list		The sub-list of the official list.
+		 * @param offset	The index in this list of the first element of the sub-list.
+		 */
+		private SubList(List<E> list, int offset) {
+			this.list = list;
+			this.offset = offset;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E get(int index) {
+			return list.get(index);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return list.size();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E set(int index, E element) {
+			E old = list.set(index, element);
+			modified();
+			if(isTracking())
+				record(offset + index, Collections.singletonList(old), Collections.singletonList(element));
+			return old;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void add(int index, E element) {
+			list.add(index, element);
+			modified();
+			if(isTracking())
+				record(offset + index, Collections.<E>emptyList(), Collections.singletonList(element));
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E remove(int index) {
+			E old = list.remove(index);
+			modified();
+			if(isTracking())
+				record(offset + index, Collections.singletonList(old), Collections.<E>emptyList());
+			return old;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			if(list.isEmpty())
+				return;
+			List<E> removed = isTracking() ? new ArrayList<E>(list) : null;
+			list.clear();
+			modified();
+			if(removed != null)
+				record(offset, removed, Collections.<E>emptyList());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<E> iterator() {
+			return new Itr(list.iterator(), offset, 0);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public ListIterator<E> listIterator(int index) {
+			return new ListItr(list.listIterator(index), offset, index);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			return new SubList(list.subList(fromIndex, toIndex), offset + fromIndex);
+		}
+		
+	}
+	
 }
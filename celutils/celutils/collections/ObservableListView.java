@@ -0,0 +1,156 @@
+package celutils.collections;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A read-only <a href="#{@link}">{@link ObservableList}</a> whose
+ * contents are derived from a source list, such as the views returned
+ * by <a href="#{@link}">{@link ObservableList#filtered(java.util.function.Predicate)}</a>,
+ * <a href="#{@link}">{@link ObservableList#mapped(java.util.function.Function)}</a>
+ * and <a href="#{@link}">{@link ObservableList#sorted(java.util.Comparator)}</a>.
+ * <p>
+ * A view observes its source through a <a href="#{@link}">
+ * {@link ListChangeListener}</a>, and applies only the changes made to
+ * the source rather than rebuilding itself. It is therefore brought up
+ * to date whenever its source is updated, and notifies its own
+ * listeners when it is updated itself. Since views are observable
+ * lists, they can be derived from one another.
+ * <p>
+ * A view remains attached to its source until it is disposed.
+ * 
+ * @param <E> the type of elements in this view
+ * @param <S> the type of elements in the source list
+ * 
+ * @author Max D
+ */
+public abstract class ObservableListView<E, S> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = 7165084211436587342L;
+	
+	/**
+	 * The list from which this view is derived.
+	 */
+	private final ObservableList<S> source;
+	
+	/**
+	 * The listener applying the changes of the source to this view.
+	 */
+	private final ListChangeListener<S> listener;
+	
+	/**
+	 * The read-only list used by this observable list.
+	 */
+	private final List<E> list;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new view of the given source list. The view must be
+	 * attached by its subclass once it is fully constructed.
+	 * 
+	 * @param source	The list from which this view is derived.
+	 */
+	ObservableListView(ObservableList<S> source) {
+		super(null);
+		this.source = source;
+		this.listener = (list, change) -> {
+			synchronized(this) {
+				sourceChanged(change);
+			}
+		};
+		this.list = new View();
+	}
+	
+	/**
+	 * Initializes this view from the current contents of its source and
+	 * starts observing the source, without any change of the source
+	 * being missed or applied twice.
+	 */
+	final void attach() {
+		synchronized(source) {
+			source.addListListener(listener);
+			initialize(source);
+		}
+	}
+	
+	/**
+	 * Returns the list from which this view is derived.
+	 * 
+	 * @return	The source list of this view.
+	 */
+	public ObservableList<S> getSource() {
+		return source;
+	}
+	
+	/**
+	 * Stops observing the source list. The contents of this view are
+	 * no longer updated afterwards.
+	 */
+	public void dispose() {
+		source.removeListListener(listener);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected final List<E> getList() {
+		return list;
+	}
+	
+	/**
+	 * Builds the contents of this view from the given contents of its source.
+	 * 
+	 * @param contents	The current contents of the source.
+	 */
+	abstract void initialize(List<S> contents);
+	
+	/**
+	 * Applies a change of the source to this view, recording the
+	 * resulting changes of this view.
+	 * 
+	 * @param change	The change of the source.
+	 */
+	abstract void sourceChanged(ListChange<S> change);
+	
+	/**
+	 * Returns the element of this view at the given index.
+	 * 
+	 * @param index	The index of the element.
+	 * @return		The element at that index.
+	 */
+	abstract E element(int index);
+	
+	/**
+	 * Returns the number of elements in this view.
+	 * 
+	 * @return	The number of elements in this view.
+	 */
+	abstract int length();
+	
+	/**
+	 * The read-only list used by this view, reading through to the
+	 * structure maintained by the subclass.
+	 */
+	private class View extends AbstractList<E> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E get(int index) {
+			return element(index);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return length();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,284 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An observable list of {@code long} values, backed by a growable
+ * {@code long[]} array.
+ * <p>
+ * Elements are stored unboxed, and are only boxed when accessed
+ * through the <a href="#{@link}">{@link #boxed()}</a> view of this
+ * list.
+ * 
+ * @see ObservablePrimitiveList
+ * @author Max D
+ */
+public class ObservableLongList extends ObservablePrimitiveList<Long> {
+	
+	private static final long serialVersionUID = 7362185370964011937L;
+	
+	/**
+	 * Creates a new empty ObservableLongList.
+	 */
+	public ObservableLongList() {
+		super(new long[10], 0);
+	}
+	
+	/**
+	 * Creates a new ObservableLongList given the array argument.
+	 * 
+	 * @param values	The array to create this list from.
+	 */
+	public ObservableLongList(long[] values) {
+		super(values.clone(), values.length);
+	}
+	
+	/**
+	 * Creates a new ObservableLongList given the collection argument.
+	 * 
+	 * @param c	The collection to create this list from.
+	 */
+	public ObservableLongList(Collection<? extends Long> c) {
+		super(new long[Math.max(10, c.size())], 0);
+		long[] data = data();
+		for(Long value : c)
+			data[size++] = value;
+	}
+	
+	/**
+	 * Returns the element at the given index of this list.
+	 * 
+	 * @param index	The index of the element to return.
+	 * @return		The element at the given index.
+	 */
+	public long get(int index) {
+		checkIndex(index);
+		return data()[index];
+	}
+	
+	/**
+	 * Replaces the element at the given index of this list.
+	 * 
+	 * @param index	The index of the element to replace.
+	 * @param value	The element to be stored at the given index.
+	 * @return		The element previously at the given index.
+	 */
+	public long set(int index, long value) {
+		checkIndex(index);
+		long[] data = data();
+		long old = data[index];
+		data[index] = value;
+		modified(index, index + 1);
+		return old;
+	}
+	
+	/**
+	 * Replaces the elements of this list starting at the given index
+	 * with the elements of the given array.
+	 * 
+	 * @param from		The index of the first element to replace.
+	 * @param values	The elements to be stored starting at the given index.
+	 */
+	public void set(int from, long[] values) {
+		replace(from, values, values.length);
+	}
+	
+	/**
+	 * Replaces every element whose index is between {@code from},
+	 * inclusive, and {@code to}, exclusive, with the given value.
+	 * 
+	 * @param from	The index of the first element to replace.
+	 * @param to	The index after the last element to replace.
+	 * @param value	The element to be stored in the given range.
+	 */
+	public void fill(int from, int to, long value) {
+		checkRange(from, to);
+		Arrays.fill(data(), from, to, value);
+		modified(from, to);
+	}
+	
+	/**
+	 * Appends the given element to the end of this list.
+	 * 
+	 * @param value	The element to be appended.
+	 * @return		{@code true}
+	 */
+	public boolean add(long value) {
+		add(size, value);
+		return true;
+	}
+	
+	/**
+	 * Inserts the given element at the given index of this list,
+	 * shifting any subsequent elements to the right.
+	 * 
+	 * @param index	The index at which the element is to be inserted.
+	 * @param value	The element to be inserted.
+	 */
+	public void add(int index, long value) {
+		insert(index, 1);
+		data()[index] = value;
+	}
+	
+	/**
+	 * Appends all of the elements of the given array to the end of
+	 * this list.
+	 * 
+	 * @param values	The elements to be appended.
+	 */
+	public void addAll(long[] values) {
+		insertAll(size, values, values.length);
+	}
+	
+	/**
+	 * Inserts all of the elements of the given array at the given index
+	 * of this list, shifting any subsequent elements to the right.
+	 * 
+	 * @param index		The index at which the elements are to be inserted.
+	 * @param values	The elements to be inserted.
+	 */
+	public void addAll(int index, long[] values) {
+		insertAll(index, values, values.length);
+	}
+	
+	/**
+	 * Removes the element at the given index of this list, shifting
+	 * any subsequent elements to the left.
+	 * 
+	 * @param index	The index of the element to be removed.
+	 * @return		The element previously at the given index.
+	 */
+	public long remove(int index) {
+		long old = get(index);
+		removeRange(index, index + 1);
+		return old;
+	}
+	
+	/**
+	 * Removes the first occurrence of the given element from this list.
+	 * 
+	 * @param value	The element to be removed.
+	 * @return		{@code true} if this list contained the element
+	 */
+	public boolean removeValue(long value) {
+		int index = indexOf(value);
+		if(index < 0) return false;
+		removeRange(index, index + 1);
+		return true;
+	}
+	
+	/**
+	 * Returns the index of the first occurrence of the given element
+	 * in this list, or -1 if this list does not contain it.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		The index of the first occurrence of the element.
+	 */
+	public int indexOf(long value) {
+		long[] data = data();
+		for(int i = 0; i < size; i++) {
+			if(data[i] == value)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the index of the last occurrence of the given element
+	 * in this list, or -1 if this list does not contain it.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		The index of the last occurrence of the element.
+	 */
+	public int lastIndexOf(long value) {
+		long[] data = data();
+		for(int i = size - 1; i >= 0; i--) {
+			if(data[i] == value)
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns whether or not this list contains the given element.
+	 * 
+	 * @param value	The element to search for.
+	 * @return		{@code true} if this list contains the element
+	 */
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+	
+	/**
+	 * Sorts the elements of this list into ascending numerical order.
+	 */
+	public void sort() {
+		if(size < 2) return;
+		Arrays.sort(data(), 0, size);
+		modified(0, size);
+	}
+	
+	/**
+	 * Returns an array containing all of the elements of this list.
+	 * 
+	 * @return	A copy of the elements of this list.
+	 */
+	public long[] toArray() {
+		return (long[]) copy(0, size);
+	}
+	
+	/**
+	 * Returns an array containing the elements of this list whose index
+	 * is between {@code from}, inclusive, and {@code to}, exclusive.
+	 * 
+	 * @param from	The index of the first element to copy.
+	 * @param to	The index after the last element to copy.
+	 * @return		A copy of the elements in the given range.
+	 */
+	public long[] toArray(int from, int to) {
+		return (long[]) copy(from, to);
+	}
+	
+	/**
+	 * Returns the array holding the elements of this list.
+	 * 
+	 * @return	The array of this list.
+	 */
+	private long[] data() {
+		return (long[]) data;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Object newArray(int length) {
+		return new long[length];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Long getElement(int index) {
+		return data()[index];
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	Long setElement(int index, Long element) {
+		return set(index, (long) element);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void insertElement(int index, Long element) {
+		add(index, (long) element);
+	}
+	
+}
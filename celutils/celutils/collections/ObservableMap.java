@@ -1,9 +1,24 @@
 package celutils.collections;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
+import celutils.beans.observable.ChangeListener;
 import celutils.beans.observable.ObservableImpl;
 
 /**
@@ -12,6 +27,13 @@ import celutils.beans.observable.ObservableImpl;
  * <p>
  * This map can be observed with listeners similar to any
  * other observable value.
+ * <p>
+ * In addition to regular change listeners, entry-level changes
+ * can be observed with <a href="#{@link}">{@link MapChangeListener}
+ * </a> implementations, either for every entry of the map or only
+ * for the entries with a given key. These changes are only recorded
+ * for entries that are being observed, and are delivered during the
+ * next update.
  * 
  * @param <K> the type of keys maintained by this map
  * @param <V> the type of mapped values
@@ -23,6 +45,54 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	
 	private static final long serialVersionUID = -1859581557738586787L;
 	
+	/**
+	 * The modification count of this map. It is incremented by every
+	 * operation that modifies the map, including those made through
+	 * its key, value and entry views.
+	 */
+	private long version;
+	
+	/**
+	 * The modification count observed during the last update. Used for
+	 * detecting changes without comparing the contents of the map.
+	 */
+	private long lastVersion;
+	
+	/**
+	 * The number of values replaced through the entries of the views of
+	 * this map, which the spliterators of its views tolerate.
+	 */
+	private long replacements;
+	
+	/**
+	 * The list of map change listeners observing every entry of this map.
+	 */
+	private final Collection<MapChangeListener<K, V>> mapListeners;
+	
+	/**
+	 * The map change listeners observing a single entry of this map,
+	 * indexed by the key of the entry.
+	 */
+	private final Map<K, Collection<MapChangeListener<K, V>>> keyListeners;
+	
+	/**
+	 * The observed entries that have been modified since the last update.
+	 */
+	private final MapChangeRecorder<K, V> changes;
+	
+	/**
+	 * The entry properties of this map that are still in use, indexed by
+	 * their masked key, or null if no property has been created yet.
+	 */
+	private transient volatile Map<Object, PropertyReference<K, V>> properties;
+	
+	/**
+	 * The queue of references to entry properties that have been garbage
+	 * collected, which are removed from the cache whenever a property is
+	 * requested and whenever this map is updated.
+	 */
+	private transient ReferenceQueue<EntryProperty<K, V>> collected;
+	
 	/**
 	 * Creates a new observable map with an initial
 	 * official map value.
@@ -30,7 +100,32 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 * @param initialMap	The official map that serves as the initial value.
 	 */
 	protected ObservableMap(Map<K, V> initialMap) {
+		this(initialMap, false);
+	}
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new observable map with an initial official map value.
+	 * If the map is concurrent, then its map change listeners can be
+	 * added and removed, and its entry-level changes recorded, safely
+	 * from any number of threads.
+	 * 
+	 * @param initialMap	The official map that serves as the initial value.
+	 * @param concurrent	Whether or not the official map is a concurrent map.
+	 */
+	ObservableMap(Map<K, V> initialMap, boolean concurrent) {
 		super(new ObservableArrayList<>(), new ObservableArrayList<>(), initialMap);
+		if(concurrent) {
+			this.mapListeners = new CopyOnWriteArrayList<>();
+			this.keyListeners = new ConcurrentHashMap<>();
+			this.changes = new StripedMapChangeBuffer<>();
+		}
+		else {
+			this.mapListeners = new ArrayList<>();
+			this.keyListeners = new HashMap<>();
+			this.changes = new MapChangeBuffer<>();
+		}
 	}
 	
 	/**
@@ -42,6 +137,265 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	protected abstract Map<K, V> getMap(); 
 	
+	/**
+	 * Returns the modification count of this map. The value returned
+	 * is guaranteed to differ from any previously returned value if and
+	 * only if this map has been modified since.
+	 * 
+	 * @return	The modification count of this map.
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Returns the modification count of this map, excluding the values
+	 * replaced through the entries of its views. Used by the spliterators
+	 * of the views for detecting concurrent modifications, while allowing
+	 * a stream to replace the values of the entries it traverses.
+	 * 
+	 * @return	The structural modification count of this map.
+	 */
+	long getStructuralVersion() {
+		return getVersion() - replacements;
+	}
+	
+	/**
+	 * Records a modification of this map. Called by every mutator of
+	 * this class after the official map has been changed.
+	 */
+	protected void modified() {
+		version++;
+	}
+	
+	/**
+	 * Adds a <a href="#{@link}">{@link MapChangeListener}</a> to this
+	 * map. The listener will be executed for every entry of this map
+	 * that undergoes a change.
+	 * 
+	 * @param listener	The map change listener to be added.
+	 */
+	public void addMapListener(MapChangeListener<K, V> listener) {
+		mapListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a pre-existing <a href="#{@link}">{@link MapChangeListener}</a>
+	 * from this map's list of map change listeners.
+	 * 
+	 * @param listener	The map change listener to be removed.
+	 */
+	public void removeMapListener(MapChangeListener<K, V> listener) {
+		mapListeners.remove(listener);
+	}
+	
+	/**
+	 * Returns the list of all map change listeners observing every
+	 * entry of this map.
+	 * 
+	 * @return	This map's list of map change listeners.
+	 */
+	public Collection<MapChangeListener<K, V>> getMapListeners() {
+		return mapListeners;
+	}
+	
+	/**
+	 * Adds a <a href="#{@link}">{@link MapChangeListener}</a> to the
+	 * entry of this map with the given key. The listener will only be
+	 * executed when that entry undergoes a change, regardless of the
+	 * number of other entries that have changed.
+	 * 
+	 * @param key		The key of the entry to observe.
+	 * @param listener	The map change listener to be added.
+	 */
+	public void addKeyListener(K key, MapChangeListener<K, V> listener) {
+		keyListeners.compute(key, (k, listeners) -> {
+			if(listeners == null)
+				listeners = new CopyOnWriteArrayList<>();
+			listeners.add(listener);
+			return listeners;
+		});
+	}
+	
+	/**
+	 * Removes a pre-existing <a href="#{@link}">{@link MapChangeListener}</a>
+	 * from the entry of this map with the given key.
+	 * 
+	 * @param key		The key of the observed entry.
+	 * @param listener	The map change listener to be removed.
+	 */
+	public void removeKeyListener(K key, MapChangeListener<K, V> listener) {
+		keyListeners.computeIfPresent(key, (k, listeners) -> {
+			listeners.remove(listener);
+			return listeners.isEmpty() ? null : listeners;
+		});
+	}
+	
+	/**
+	 * Returns the list of all map change listeners observing the entry
+	 * of this map with the given key.
+	 * 
+	 * @param key	The key of the observed entry.
+	 * @return		The list of map change listeners of that entry.
+	 */
+	public Collection<MapChangeListener<K, V>> getKeyListeners(K key) {
+		Collection<MapChangeListener<K, V>> listeners = keyListeners.get(key);
+		return listeners == null ? Collections.emptyList() : Collections.unmodifiableCollection(listeners);
+	}
+	
+	/**
+	 * Returns whether or not any entry of this map is being observed
+	 * by a map change listener.
+	 * 
+	 * @return	Whether or not entry-level changes are being recorded.
+	 */
+	boolean isTracking() {
+		Map<Object, PropertyReference<K, V>> properties = this.properties;
+		return !mapListeners.isEmpty() || !keyListeners.isEmpty() || (properties != null && !properties.isEmpty());
+	}
+	
+	/**
+	 * Returns whether or not the entry with the given key is being
+	 * observed by a map change listener or an entry property.
+	 * 
+	 * @param key	The key of the entry.
+	 * @return		Whether or not changes to that entry are being recorded.
+	 */
+	boolean isTracked(Object key) {
+		if(!mapListeners.isEmpty() || (!keyListeners.isEmpty() && keyListeners.containsKey(key)))
+			return true;
+		Map<Object, PropertyReference<K, V>> properties = this.properties;
+		return properties != null && !properties.isEmpty() && properties.containsKey(mask(key));
+	}
+	
+	/**
+	 * Returns a property holding the value of the entry of this map with
+	 * the given key, or null while that entry does not exist. Setting the
+	 * property puts its value into this map, or removes the entry if the
+	 * value is null.
+	 * <p>
+	 * Unlike a property polling <a href="#{@link}">{@link #get(Object)}</a>,
+	 * the returned property is notified by this map during its updates,
+	 * and only when the entry with the given key has changed. Properties
+	 * are created lazily and cached weakly: the same property is returned
+	 * for a key as long as it is referenced elsewhere, after which it is
+	 * garbage collected and the entry is no longer observed.
+	 * 
+	 * @param key	The key of the entry.
+	 * @return		The property of that entry.
+	 * @see EntryProperty
+	 */
+	public EntryProperty<K, V> propertyFor(K key) {
+		Map<Object, PropertyReference<K, V>> properties = this.properties;
+		if(properties == null) {
+			synchronized(this) {
+				if(this.properties == null) {
+					collected = new ReferenceQueue<>();
+					this.properties = new ConcurrentHashMap<>();
+				}
+				properties = this.properties;
+			}
+		}
+		expungeProperties();
+		
+		Object masked = mask(key);
+		PropertyReference<K, V> reference = properties.get(masked);
+		EntryProperty<K, V> property = reference == null ? null : reference.get();
+		if(property != null)
+			return property;
+			
+		synchronized(properties) {
+			reference = properties.get(masked);
+			property = reference == null ? null : reference.get();
+			if(property == null) {
+				property = new EntryProperty<>(this, key, getMap().get(key));
+				properties.put(masked, new PropertyReference<>(masked, property, collected));
+			}
+		}
+		return property;
+	}
+	
+	/**
+	 * Returns the entry property of the given key, if it is still in use.
+	 */
+	private EntryProperty<K, V> property(Object key) {
+		Map<Object, PropertyReference<K, V>> properties = this.properties;
+		if(properties == null || properties.isEmpty())
+			return null;
+		PropertyReference<K, V> reference = properties.get(mask(key));
+		return reference == null ? null : reference.get();
+	}
+	
+	/**
+	 * Removes the references to entry properties that have been garbage
+	 * collected from the cache.
+	 */
+	private void expungeProperties() {
+		for(Object ref; (ref = collected.poll()) != null;) {
+			@SuppressWarnings("unchecked")
+			PropertyReference<K, V> reference = (PropertyReference<K, V>) ref;
+			properties.remove(reference.key, reference);
+		}
+	}
+	
+	/**
+	 * Masks a null key, which the property cache cannot hold.
+	 */
+	private static Object mask(Object key) {
+		return key == null ? PropertyReference.NULL_KEY : key;
+	}
+	
+	/**
+	 * Records a modification of the entry with the given key, if that
+	 * entry is being observed. Must be called for every modified entry
+	 * in addition to <a href="#{@link}">{@link #modified()}</a>.
+	 * 
+	 * @param key		The key of the modified entry.
+	 * @param present	Whether or not the entry existed before the modification.
+	 * @param oldValue	The value of the entry before the modification.
+	 * @param exists	Whether or not the entry exists after the modification.
+	 * @param newValue	The value of the entry after the modification.
+	 */
+	void record(K key, boolean present, V oldValue, boolean exists, V newValue) {
+		if(isTracked(key))
+			changes.record(key, present, oldValue, exists, newValue);
+	}
+	
+	/**
+	 * Records the eviction of the entry with the given key, if that
+	 * entry is being observed. Must be called for every evicted entry
+	 * in addition to <a href="#{@link}">{@link #modified()}</a>.
+	 * 
+	 * @param key		The key of the evicted entry.
+	 * @param oldValue	The value of the entry before its eviction.
+	 */
+	void recordEviction(K key, V oldValue) {
+		if(isTracked(key))
+			changes.recordEviction(key, oldValue);
+	}
+	
+	/**
+	 * Performs the given action for every entry of this map as it was
+	 * before its pending changes, that is the contents to which the
+	 * changes delivered during the next update apply. Used for seeding
+	 * state that is subsequently maintained by a map change listener.
+	 * 
+	 * @param action	The action to perform for each entry.
+	 */
+	void forEachCommitted(BiConsumer<? super K, ? super V> action) {
+		Map<Object, MapChangeBuffer.Pending<K, V>> pending = new HashMap<>();
+		changes.forEach(entry -> pending.put(entry.key, entry));
+		
+		for(Entry<K, V> entry : getMap().entrySet()) {
+			if(!pending.containsKey(entry.getKey()))
+				action.accept(entry.getKey(), entry.getValue());
+		}
+		for(MapChangeBuffer.Pending<K, V> entry : pending.values()) {
+			if(entry.present)
+				action.accept(entry.key, entry.oldValue);
+		}
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -87,15 +441,33 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public V put(K key, V value) {
-		return getMap().put(key, value);
+		Map<K, V> map = getMap();
+		V old;
+		if(isTracked(key)) {
+			boolean present = map.containsKey(key);
+			old = map.put(key, value);
+			changes.record(key, present, old, true, value);
+		}
+		else
+			old = map.put(key, value);
+		modified();
+		return old;
 	}
 	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public V remove(Object key) {
-		return getMap().remove(key);
+		Map<K, V> map = getMap();
+		int size = map.size();
+		V old = map.remove(key);
+		if(map.size() != size) {
+			record((K) key, true, old, false, null);
+			modified();
+		}
+		return old;
 	}
 	
 	/**
@@ -103,7 +475,15 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public void putAll(Map<? extends K, ? extends V> m) {
+		if(m.isEmpty())
+			return;
+		if(isTracking()) {
+			for(Entry<? extends K, ? extends V> entry : m.entrySet())
+				put(entry.getKey(), entry.getValue());
+			return;
+		}
 		getMap().putAll(m);
+		modified();
 	}
 	
 	/**
@@ -111,7 +491,48 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public void clear() {
-		getMap().clear();
+		Map<K, V> map = getMap();
+		if(map.isEmpty())
+			return;
+		if(!mapListeners.isEmpty()) {
+			for(Entry<K, V> entry : map.entrySet())
+				changes.record(entry.getKey(), true, entry.getValue(), false, null);
+		}
+		else {
+			for(K key : keyListeners.keySet()) {
+				V value = map.get(key);
+				if(value != null || map.containsKey(key))
+					changes.record(key, true, value, false, null);
+			}
+			Map<Object, PropertyReference<K, V>> properties = this.properties;
+			if(properties != null) {
+				for(PropertyReference<K, V> reference : properties.values()) {
+					K key = reference.key == PropertyReference.NULL_KEY ? null : reference.getKey();
+					V value = map.get(key);
+					if(value != null || map.containsKey(key))
+						changes.record(key, true, value, false, null);
+				}
+			}
+		}
+		map.clear();
+		modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		if(isTracking()) {
+			for(Entry<K, V> entry : getMap().entrySet()) {
+				V value = function.apply(entry.getKey(), entry.getValue());
+				V old = entry.setValue(value);
+				record(entry.getKey(), true, old, true, value);
+			}
+		}
+		else
+			getMap().replaceAll(function);
+		modified();
 	}
 	
 	/**
@@ -119,7 +540,7 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public Set<K> keySet() {
-		return getMap().keySet();
+		return new KeySet();
 	}
 	
 	/**
@@ -127,7 +548,7 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public Collection<V> values() {
-		return getMap().values();
+		return new Values();
 	}
 	
 	/**
@@ -135,7 +556,7 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 	 */
 	@Override
 	public Set<Entry<K, V>> entrySet() {
-		return getMap().entrySet();
+		return new EntrySet();
 	}
 	
 	/**
@@ -146,4 +567,508 @@ public abstract class ObservableMap<K, V> extends ObservableImpl<Map<K, V>> impl
 		return getMap();
 	}
 	
+	/**
+	 * Returns a spliterator over the entries of the official map, from
+	 * which the spliterators of every view of this map are created.
+	 * 
+	 * @return	The spliterator over the entries of the official map.
+	 */
+	Spliterator<Entry<K, V>> entrySpliterator() {
+		return getMap().entrySet().spliterator();
+	}
+	
+	/**
+	 * Removes the entry last returned by an iterator over the entries
+	 * of the official map. Called by the iterators of every view of
+	 * this map.
+	 * 
+	 * @param it	The iterator over the entries of the official map.
+	 * @param entry	The entry last returned by that iterator.
+	 */
+	void removeEntry(Iterator<Entry<K, V>> it, Entry<K, V> entry) {
+		K key = entry.getKey();
+		V value = entry.getValue();
+		it.remove();
+		record(key, true, value, false, null);
+		modified();
+	}
+	
+	/**
+	 * Replaces the value of an entry of the official map. Called by
+	 * the entries returned from the entry view of this map.
+	 * 
+	 * @param entry	The entry of the official map.
+	 * @param value	The new value of the entry.
+	 * @return		The old value of the entry.
+	 */
+	V setEntryValue(Entry<K, V> entry, V value) {
+		V old = entry.setValue(value);
+		record(entry.getKey(), true, old, true, value);
+		modified();
+		return old;
+	}
+	
+	/**
+	 * Executes every change listener of this map. The map itself is
+	 * given as both the old and the new value, unless a subclass keeps
+	 * snapshots of its previous contents.
+	 */
+	void fireChanged() {
+		Map<K, V> map = getMap();
+		for(ChangeListener<Map<K, V>> listener : getListeners())
+			listener.changed(this, map, map);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Changes are detected by comparing the modification count of this
+	 * map against the one observed during the last update, rather than
+	 * by comparing the contents of the map.
+	 * <p>
+	 * After the change listeners, every map change listener is executed
+	 * for each observed entry that has changed since the last update.
+	 */
+	@Override
+	public void update() {
+		if(properties != null)
+			expungeProperties();
+			
+		long version = getVersion();
+		if(version == lastVersion)
+			return;
+		lastVersion = version;
+		
+		fireChanged();
+		
+		changes.drain(this::dispatch);
+	}
+	
+	/**
+	 * Determines the net change of a modified entry since its first
+	 * modification, and executes every map change listener observing
+	 * that entry.
+	 * 
+	 * @param entry	The state of the modified entry.
+	 */
+	private void dispatch(MapChangeBuffer.Pending<K, V> entry) {
+		MapChange.Type type;
+		if(entry.present && entry.exists) {
+			if(equals(entry.oldValue, entry.newValue)) return;
+			type = MapChange.Type.REPLACE;
+		}
+		else if(entry.present)
+			type = entry.evicted ? MapChange.Type.EVICT : MapChange.Type.REMOVE;
+		else if(entry.exists)
+			type = MapChange.Type.PUT;
+		else
+			return;
+		
+		fire(new MapChange<K, V>(type, entry.key, entry.oldValue, entry.newValue));
+	}
+	
+	/**
+	 * Executes every map change listener observing the entry described
+	 * by the given change, and updates the property of that entry if it
+	 * is in use.
+	 * 
+	 * @param change	The change to deliver.
+	 */
+	void fire(MapChange<K, V> change) {
+		for(MapChangeListener<K, V> listener : mapListeners)
+			listener.changed(this, change);
+		
+		Collection<MapChangeListener<K, V>> listeners = keyListeners.get(change.getKey());
+		if(listeners != null) {
+			for(MapChangeListener<K, V> listener : listeners)
+				listener.changed(this, change);
+		}
+		
+		EntryProperty<K, V> property = property(change.getKey());
+		if(property != null)
+			property.changed(change.getNewValue());
+	}
+	
+	/**
+	 * An iterator over one of the views of the official map that
+	 * records any removal made through it.
+	 * 
+	 * @param <T>	The type of elements returned by this iterator.
+	 */
+	private abstract class Itr<T> implements Iterator<T> {
+		
+		/**
+		 * The iterator over the entries of the official map.
+		 */
+		private final Iterator<Entry<K, V>> it = getMap().entrySet().iterator();
+		
+		/**
+		 * The entry last returned by this iterator.
+		 */
+		private Entry<K, V> last;
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T next() {
+			return element(last = it.next());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void remove() {
+			if(last == null) throw new IllegalStateException("remove");
+			removeEntry(it, last);
+			last = null;
+		}
+		
+		/**
+		 * Returns the element of this iterator's view for the given entry.
+		 * 
+		 * @param entry	The entry of the official map.
+		 * @return		The corresponding element of the view.
+		 */
+		protected abstract T element(Entry<K, V> entry);
+		
+	}
+	
+	/**
+	 * A view of the keys of the official map that records any
+	 * modification made through it.
+	 */
+	private final class KeySet extends AbstractSet<K> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return getMap().size();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return getMap().containsKey(o);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean remove(Object o) {
+			int size = size();
+			ObservableMap.this.remove(o);
+			return size() != size;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			ObservableMap.this.clear();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Spliterator<K> spliterator() {
+			return new MapSpliterator<K, V, K>(ObservableMap.this, entrySpliterator(), Entry::getKey, ~Spliterator.SORTED);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<K> iterator() {
+			return new Itr<K>() {
+				
+				/**
+				 * {@inheritDoc}
+				 */
+				@Override
+				protected K element(Entry<K, V> entry) {
+					return entry.getKey();
+				}
+				
+			};
+		}
+		
+	}
+	
+	/**
+	 * A view of the values of the official map that records any
+	 * modification made through it.
+	 */
+	private final class Values extends AbstractCollection<V> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return getMap().size();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return getMap().containsValue(o);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			ObservableMap.this.clear();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Spliterator<V> spliterator() {
+			return new MapSpliterator<K, V, V>(ObservableMap.this, entrySpliterator(), Entry::getValue, ~(Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL));
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<V> iterator() {
+			return new Itr<V>() {
+				
+				/**
+				 * {@inheritDoc}
+				 */
+				@Override
+				protected V element(Entry<K, V> entry) {
+					return entry.getValue();
+				}
+				
+			};
+		}
+		
+	}
+	
+	/**
+	 * A view of the entries of the official map that records any
+	 * modification made through it, including through the {@code
+	 * setValue} method of its entries.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return getMap().size();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return getMap().entrySet().contains(o);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean remove(Object o) {
+			if(!contains(o))
+				return false;
+			ObservableMap.this.remove(((Entry<?, ?>) o).getKey());
+			return true;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			ObservableMap.this.clear();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() {
+			return new MapSpliterator<K, V, Entry<K, V>>(ObservableMap.this, entrySpliterator(), EntryWrapper::new, ~Spliterator.SORTED);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new Itr<Entry<K, V>>() {
+				
+				/**
+				 * {@inheritDoc}
+				 */
+				@Override
+				protected Entry<K, V> element(Entry<K, V> entry) {
+					return new EntryWrapper(entry);
+				}
+				
+			};
+		}
+		
+	}
+	
+	/**
+	 * An entry of the official map that records any modification
+	 * made through its {@code setValue} method.
+	 */
+	private final class EntryWrapper implements Entry<K, V> {
+		
+		/**
+		 * The entry of the official map.
+		 */
+		private final Entry<K, V> entry;
+		
+		/**
+		 * The value set through this entry, if the entry of the official map
+		 * is a snapshot that did not take the new value, as with concurrent
+		 * maps.
+		 */
+		private V value;
+		private boolean replaced;
+		
+		/**
+		 * Creates a new entry wrapping the given entry.
+		 * 
+		 * @param entry	The entry of the official map.
+		 */
+		private EntryWrapper(Entry<K, V> entry) {
+			this.entry = entry;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public K getKey() {
+			return entry.getKey();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public V getValue() {
+			return replaced ? value : entry.getValue();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public V setValue(V value) {
+			long version = getVersion();
+			V old = setEntryValue(entry, value);
+			replacements += getVersion() - version;
+			if(entry.getValue() != value) {
+				this.value = value;
+				this.replaced = true;
+			}
+			else {
+				this.value = null;
+				this.replaced = false;
+			}
+			return old;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof Entry)) return false;
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+		
+	}
+	
+	/**
+	 * A weak reference to an entry property, which remembers the masked
+	 * key of the property so that it can be removed from the cache once
+	 * the property has been garbage collected.
+	 */
+	private static final class PropertyReference<K, V> extends WeakReference<EntryProperty<K, V>> {
+		
+		/**
+		 * The key standing in for null in the property cache.
+		 */
+		private static final Object NULL_KEY = new Object();
+		
+		/**
+		 * The masked key of the property.
+		 */
+		private final Object key;
+		
+		/**
+		 * Creates a new reference to the given property.
+		 * 
+		 * @param key		The masked key of the property.
+		 * @param property	The entry property to refer to.
+		 * @param queue		The queue to which this reference is enqueued once the property is collected.
+		 */
+		private PropertyReference(Object key, EntryProperty<K, V> property, ReferenceQueue<EntryProperty<K, V>> queue) {
+			super(property, queue);
+			this.key = key;
+		}
+		
+		/**
+		 * Returns the key of the property, which must not be the masked null key.
+		 * 
+		 * @return	The key of the property.
+		 */
+		@SuppressWarnings("unchecked")
+		private K getKey() {
+			return (K) key;
+		}
+		
+	}
+	
 }
@@ -0,0 +1,130 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+
+import celutils.beans.observable.ChangeListener;
+
+/**
+ * An implementation of the <a href="#{@link}">{@link ObservableList}</a>
+ * class backed by a persistent vector, whose contents can be captured as
+ * an immutable snapshot in constant time.
+ * <p>
+ * The list is stored as a 32-way trie of arrays. A snapshot shares the
+ * trie with the list, and later modifications copy only the nodes along
+ * the path that they change, so a snapshot remains unchanged while the
+ * list keeps being modified, and may be read from any thread. Between
+ * snapshots, modifications edit the trie in place. Access by index runs
+ * in O(log<sub>32</sub> n) time, and appending or removing the last
+ * element in amortized constant time, while insertions and removals
+ * elsewhere shift the following elements as with an array list.
+ * <p>
+ * When this list is updated, its change listeners are given the snapshot
+ * taken at the previous update as the old value and a snapshot of the
+ * current contents as the new value, rather than the list itself.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+public class ObservablePersistentList<E> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = 8307345419416683209L;
+	
+	/**
+	 * The list used by this observable list.
+	 */
+	private final VectorTrie<E> list;
+	
+	/**
+	 * The snapshot given to the change listeners as the new value at the
+	 * previous update.
+	 */
+	private List<E> previous;
+	
+	/**
+	 * Creates a new ObservablePersistentList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	private ObservablePersistentList(VectorTrie<E> list) {
+		super(list);
+		this.list = list;
+		this.previous = list.snapshot();
+	}
+	
+	/**
+	 * Creates a new empty ObservablePersistentList.
+	 */
+	public ObservablePersistentList() {
+		this(new VectorTrie<E>());
+	}
+	
+	/**
+	 * Creates a new ObservablePersistentList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	public ObservablePersistentList(Collection<? extends E> c) {
+		this(new VectorTrie<E>(c));
+	}
+	
+	/**
+	 * Creates a new ObservablePersistentList given the vararg
+	 * argument.
+	 * 
+	 * @param list	The vararg array to create this list from.
+	 */
+	@SafeVarargs
+	public ObservablePersistentList(E... c) {
+		this(new VectorTrie<E>(Arrays.asList(c)));
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the current contents of this list,
+	 * in constant time. The snapshot is not affected by any later
+	 * modification of this list, and may be read from any thread.
+	 * 
+	 * @return	The snapshot of this list.
+	 */
+	public List<E> snapshot() {
+		return list.snapshot();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned spliterator traverses a snapshot taken when it is
+	 * created, so that streams over this list are unaffected by any
+	 * concurrent modification.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return list.snapshot().spliterator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void fireChanged() {
+		List<E> current = list.snapshot();
+		List<E> old = previous;
+		previous = current;
+		for(ChangeListener<List<E>> listener : getListeners())
+			listener.changed(this, old, current);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getList() {
+		return list;
+	}
+	
+}
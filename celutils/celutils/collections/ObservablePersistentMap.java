@@ -0,0 +1,115 @@
+package celutils.collections;
+
+import java.util.Map;
+import java.util.Spliterator;
+
+import celutils.beans.observable.ChangeListener;
+
+/**
+ * An implementation of the <a href="#{@link}">{@link ObservableMap}</a>
+ * class backed by a hash array mapped trie, whose contents can be
+ * captured as an immutable snapshot in constant time.
+ * <p>
+ * A snapshot shares the trie with the map, and later modifications copy
+ * only the nodes along the path that they change, so a snapshot remains
+ * unchanged while the map keeps being modified, and may be read from
+ * any thread. Between snapshots, modifications edit the trie in place.
+ * Lookups, insertions and removals run in O(log<sub>32</sub> n) time.
+ * <p>
+ * When this map is updated, its change listeners are given the snapshot
+ * taken at the previous update as the old value and a snapshot of the
+ * current contents as the new value, rather than the map itself.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+public class ObservablePersistentMap<K, V> extends ObservableMap<K, V> {
+	
+	private static final long serialVersionUID = -2306178417587049035L;
+	
+	/**
+	 * The map used by this observable map.
+	 */
+	private final HashTrieMap<K, V> map;
+	
+	/**
+	 * The snapshot given to the change listeners as the new value at the
+	 * previous update.
+	 */
+	private Map<K, V> previous;
+	
+	/**
+	 * Creates a new ObservablePersistentMap given the map
+	 * argument.
+	 * 
+	 * @param map	The map to create this map from.
+	 */
+	private ObservablePersistentMap(HashTrieMap<K, V> map) {
+		super(map);
+		this.map = map;
+		this.previous = map.snapshot();
+	}
+	
+	/**
+	 * Creates a new empty ObservablePersistentMap.
+	 */
+	public ObservablePersistentMap() {
+		this(new HashTrieMap<K, V>());
+	}
+	
+	/**
+	 * Creates a new ObservablePersistentMap given the map
+	 * argument.
+	 * 
+	 * @param map	The map to create this map from.
+	 */
+	public ObservablePersistentMap(Map<? extends K, ? extends V> m) {
+		this(new HashTrieMap<K, V>(m));
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the current contents of this map,
+	 * in constant time. The snapshot is not affected by any later
+	 * modification of this map, and may be read from any thread.
+	 * 
+	 * @return	The snapshot of this map.
+	 */
+	public Map<K, V> snapshot() {
+		return map.snapshot();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The views of this map are split over a snapshot taken when their
+	 * spliterator is created, so that streams over them are unaffected by
+	 * any concurrent modification.
+	 */
+	@Override
+	Spliterator<Entry<K, V>> entrySpliterator() {
+		return map.snapshot().entrySet().spliterator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void fireChanged() {
+		Map<K, V> current = map.snapshot();
+		Map<K, V> old = previous;
+		previous = current;
+		for(ChangeListener<Map<K, V>> listener : getListeners())
+			listener.changed(this, old, current);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Map<K, V> getMap() {
+		return map;
+	}
+	
+}
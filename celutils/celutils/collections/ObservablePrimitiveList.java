@@ -0,0 +1,448 @@
+package celutils.collections;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import celutils.beans.observable.ChangeListener;
+import celutils.beans.observable.EventListener;
+import celutils.beans.observable.ObservableImpl;
+
+/**
+ * The base class of observable lists that store their elements in
+ * a growable array of a primitive type rather than as objects.
+ * <p>
+ * These lists can be observed with listeners similar to any other
+ * observable list. In addition to the version counter used for
+ * detecting changes, they track the range of indices that have been
+ * modified since the last update, which is reported to every <a href=
+ * "#{@link}">{@link RangeChangeListener}</a> during the next update.
+ * <p>
+ * A boxed <a href="#{@link}">{@link List}</a> view of the list is
+ * available through <a href="#{@link}">{@link #boxed()}</a>, and is
+ * the value given to regular change listeners.
+ * 
+ * @param <E> the boxed type of elements in this list
+ * 
+ * @see ObservableIntList
+ * @see ObservableLongList
+ * @see ObservableDoubleList
+ * @author Max D
+ */
+public abstract class ObservablePrimitiveList<E> extends ObservableImpl<List<E>> {
+	
+	private static final long serialVersionUID = -4427085932913569960L;
+	
+	/**
+	 * The array holding the elements of this list. Only the first
+	 * {@code size} elements are part of this list.
+	 */
+	Object data;
+	
+	/**
+	 * The number of elements in this list.
+	 */
+	int size;
+	
+	/**
+	 * The modification count of this list, and the one observed during
+	 * the last update.
+	 */
+	private long version;
+	private long lastVersion;
+	
+	/**
+	 * The range of indices modified since the last update.
+	 */
+	private int dirtyFrom;
+	private int dirtyTo;
+	
+	/**
+	 * The list of range change listeners attached to this list.
+	 */
+	private final Collection<RangeChangeListener<E>> rangeListeners;
+	
+	/**
+	 * The boxed view of this list.
+	 */
+	private final List<E> boxed;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new primitive list holding the first elements of the
+	 * given array.
+	 * 
+	 * @param data	The array holding the elements of the list.
+	 * @param size	The number of elements of the array that are part of the list.
+	 */
+	ObservablePrimitiveList(Object data, int size) {
+		super(new ArrayList<ChangeListener<List<E>>>(), new ArrayList<EventListener>(), null);
+		this.data = data;
+		this.size = size;
+		this.dirtyFrom = Integer.MAX_VALUE;
+		this.dirtyTo = 0;
+		this.rangeListeners = new ArrayList<>();
+		this.boxed = new Boxed();
+	}
+	
+	/**
+	 * Returns the number of elements in this list.
+	 * 
+	 * @return	The number of elements in this list.
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns whether or not this list contains no elements.
+	 * 
+	 * @return	{@code true} if this list contains no elements
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all of the elements from this list.
+	 */
+	public void clear() {
+		if(size == 0) return;
+		modified(0, size);
+		size = 0;
+	}
+	
+	/**
+	 * Removes all of the elements whose index is between {@code from},
+	 * inclusive, and {@code to}, exclusive.
+	 * 
+	 * @param from	The index of the first element to be removed.
+	 * @param to	The index after the last element to be removed.
+	 */
+	public void removeRange(int from, int to) {
+		checkRange(from, to);
+		if(from == to) return;
+		System.arraycopy(data, to, data, from, size - to);
+		modified(from, size);
+		size -= to - from;
+	}
+	
+	/**
+	 * Increases the capacity of this list, if necessary, so that it
+	 * can hold at least the given number of elements without growing.
+	 * 
+	 * @param capacity	The desired minimum capacity.
+	 */
+	public void ensureCapacity(int capacity) {
+		int length = Array.getLength(data);
+		if(capacity > length)
+			resize(Math.max(capacity, length + (length >> 1)));
+	}
+	
+	/**
+	 * Trims the capacity of this list to its current size.
+	 */
+	public void trimToSize() {
+		if(size < Array.getLength(data))
+			resize(size);
+	}
+	
+	/**
+	 * Returns a boxed view of this list. Modifications made through the
+	 * view are made to this list, and are recorded as such.
+	 * 
+	 * @return	The boxed view of this list.
+	 */
+	public List<E> boxed() {
+		return boxed;
+	}
+	
+	/**
+	 * Returns the modification count of this list. The value returned
+	 * is guaranteed to differ from any previously returned value if and
+	 * only if this list has been modified since.
+	 * 
+	 * @return	The modification count of this list.
+	 */
+	public long getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Records a modification of the given range of indices of this list.
+	 * Called by every mutator of this list. Empty ranges are ignored.
+	 * 
+	 * @param from	The first modified index (inclusive).
+	 * @param to	The last modified index (exclusive).
+	 */
+	void modified(int from, int to) {
+		if(from >= to) return;
+		if(from < dirtyFrom) dirtyFrom = from;
+		if(to > dirtyTo) dirtyTo = to;
+		version++;
+	}
+	
+	/**
+	 * Adds a <a href="#{@link}">{@link RangeChangeListener}</a> to this
+	 * list. The listener will be executed every time this list has been
+	 * modified since the last update.
+	 * 
+	 * @param listener	The range change listener to be added.
+	 */
+	public void addRangeListener(RangeChangeListener<E> listener) {
+		rangeListeners.add(listener);
+	}
+	
+	/**
+	 * Removes a pre-existing <a href="#{@link}">{@link RangeChangeListener}</a>
+	 * from this list's list of range change listeners.
+	 * 
+	 * @param listener	The range change listener to be removed.
+	 */
+	public void removeRangeListener(RangeChangeListener<E> listener) {
+		rangeListeners.remove(listener);
+	}
+	
+	/**
+	 * Returns the list of all range change listeners attached to this list.
+	 * 
+	 * @return	This list's list of range change listeners.
+	 */
+	public Collection<RangeChangeListener<E>> getRangeListeners() {
+		return rangeListeners;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getValue() {
+		return boxed;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Changes are detected by comparing the modification count of this
+	 * list against the one observed during the last update. Change
+	 * listeners are given the boxed view of this list, while range change
+	 * listeners are given the range of indices modified since the last
+	 * update.
+	 */
+	@Override
+	public void update() {
+		long version = this.version;
+		if(version == lastVersion)
+			return;
+		lastVersion = version;
+		
+		int from = dirtyFrom;
+		int to = dirtyTo;
+		dirtyFrom = Integer.MAX_VALUE;
+		dirtyTo = 0;
+		
+		for(ChangeListener<List<E>> listener : getListeners())
+			listener.changed(this, boxed, boxed);
+		for(RangeChangeListener<E> listener : rangeListeners)
+			listener.changed(this, from, to);
+	}
+	
+	/**
+	 * Checks that the given index is the index of an element of this list.
+	 * 
+	 * @param index	The index to check.
+	 */
+	void checkIndex(int index) {
+		if(index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+	
+	/**
+	 * Checks that the given range is a range of elements of this list.
+	 * 
+	 * @param from	The first index of the range (inclusive).
+	 * @param to	The last index of the range (exclusive).
+	 */
+	void checkRange(int from, int to) {
+		if(from < 0 || to > size || from > to)
+			throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + size);
+	}
+	
+	/**
+	 * Opens a gap of the given number of elements at the given index of
+	 * this list, shifting any subsequent elements to the right, and records
+	 * the modification. The caller stores the new elements in the gap.
+	 * 
+	 * @param index	The index of the gap.
+	 * @param count	The number of elements in the gap.
+	 */
+	void insert(int index, int count) {
+		if(index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		ensureCapacity(size + count);
+		System.arraycopy(data, index, data, index + count, size - index);
+		size += count;
+		modified(index, size);
+	}
+	
+	/**
+	 * Inserts the given number of elements of the given array at the given
+	 * index of this list, shifting any subsequent elements to the right.
+	 * 
+	 * @param index		The index at which the elements are to be inserted.
+	 * @param values	The array of the elements to be inserted.
+	 * @param length	The number of elements to be inserted.
+	 */
+	void insertAll(int index, Object values, int length) {
+		insert(index, length);
+		System.arraycopy(values, 0, data, index, length);
+	}
+	
+	/**
+	 * Replaces the elements of this list starting at the given index with
+	 * the given number of elements of the given array.
+	 * 
+	 * @param from		The index of the first element to replace.
+	 * @param values	The array of the elements to be stored.
+	 * @param length	The number of elements to be stored.
+	 */
+	void replace(int from, Object values, int length) {
+		checkRange(from, from + length);
+		System.arraycopy(values, 0, data, from, length);
+		modified(from, from + length);
+	}
+	
+	/**
+	 * Returns a new array holding the elements of this list whose index is
+	 * between {@code from}, inclusive, and {@code to}, exclusive.
+	 * 
+	 * @param from	The index of the first element to copy.
+	 * @param to	The index after the last element to copy.
+	 * @return		The new array.
+	 */
+	Object copy(int from, int to) {
+		checkRange(from, to);
+		Object copy = newArray(to - from);
+		System.arraycopy(data, from, copy, 0, to - from);
+		return copy;
+	}
+	
+	/**
+	 * Replaces the array of this list by one of the given length holding
+	 * the same elements.
+	 * 
+	 * @param length	The length of the new array.
+	 */
+	private void resize(int length) {
+		Object resized = newArray(length);
+		System.arraycopy(data, 0, resized, 0, size);
+		data = resized;
+	}
+	
+	/**
+	 * Creates a new array of the primitive type of this list.
+	 * 
+	 * @param length	The length of the array.
+	 * @return			The new array.
+	 */
+	abstract Object newArray(int length);
+	
+	/**
+	 * Returns the boxed element at the given index.
+	 * 
+	 * @param index	The index of the element.
+	 * @return		The boxed element.
+	 */
+	abstract E getElement(int index);
+	
+	/**
+	 * Replaces the element at the given index by the given boxed element.
+	 * 
+	 * @param index		The index of the element.
+	 * @param element	The new boxed element.
+	 * @return			The old boxed element.
+	 */
+	abstract E setElement(int index, E element);
+	
+	/**
+	 * Inserts the given boxed element at the given index.
+	 * 
+	 * @param index		The index at which to insert the element.
+	 * @param element	The boxed element to insert.
+	 */
+	abstract void insertElement(int index, E element);
+	
+	/**
+	 * The boxed view of a primitive list.
+	 */
+	private final class Boxed extends AbstractList<E> implements RandomAccess {
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E get(int index) {
+			checkIndex(index);
+			return getElement(index);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E set(int index, E element) {
+			checkIndex(index);
+			return setElement(index, element);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void add(int index, E element) {
+			if(index < 0 || index > size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			insertElement(index, element);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E remove(int index) {
+			E old = get(index);
+			ObservablePrimitiveList.this.removeRange(index, index + 1);
+			return old;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			ObservablePrimitiveList.this.removeRange(fromIndex, toIndex);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void clear() {
+			ObservablePrimitiveList.this.clear();
+		}
+		
+	}
+	
+}
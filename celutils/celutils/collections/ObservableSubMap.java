@@ -0,0 +1,385 @@
+package celutils.collections;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.function.BiFunction;
+
+/**
+ * An observable view of the entries of an <a href="#{@link}">{@link
+ * ObservableTreeMap}</a> whose keys are within a range, such as the ones
+ * returned by <a href="#{@link}">{@link ObservableTreeMap#observeSubMap(
+ * Object, boolean, Object, boolean)}</a>, <a href="#{@link}">{@link
+ * ObservableTreeMap#observeHeadMap(Object, boolean)}</a> and <a href=
+ * "#{@link}">{@link ObservableTreeMap#observeTailMap(Object, boolean)}</a>.
+ * <p>
+ * A range view reads and writes through to the entries of its map, and
+ * rejects any key outside of its range. Every modification made through
+ * a view is recorded by its map, and the changes of the map within the
+ * range are delivered to the view when the map is updated, through the
+ * same interval index as the range listeners of the map. The view is then
+ * updated along with its map, so that its own listeners are only executed
+ * for entries within the range, and its version only changes when such
+ * entries do.
+ * <p>
+ * A view remains attached to its map until it is disposed. The plain
+ * sorted map views returned by <a href="#{@link}">{@link #subMap(Object,
+ * Object)}</a>, <a href="#{@link}">{@link #headMap(Object)}</a> and <a
+ * href="#{@link}">{@link #tailMap(Object)}</a>, and by the same methods
+ * of the map, are never attached, so that their changes are only
+ * observable through the map and its attached views.
+ * 
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ * 
+ * @see ObservableTreeMap
+ * @author Max D
+ */
+public final class ObservableSubMap<K, V> extends ObservableMap<K, V> implements SortedMap<K, V> {
+	
+	private static final long serialVersionUID = -8190325773516296254L;
+	
+	/**
+	 * The map of which this map is a view.
+	 */
+	private final ObservableTreeMap<K, V> parent;
+	
+	/**
+	 * The range of keys of this view.
+	 */
+	private final KeyRange<K> range;
+	
+	/**
+	 * The entries of the map within the range.
+	 */
+	private final NavigableMap<K, V> map;
+	
+	/**
+	 * The listener applying the changes of the map within the range to
+	 * this view.
+	 */
+	private final MapChangeListener<K, V> listener;
+	
+	/**
+	 * Package-level constructor.
+	 * <p>
+	 * Creates a new view of the given map within the given range. The
+	 * view only observes the map once it is attached by the map itself.
+	 * 
+	 * @param parent	The map of which to create a view.
+	 * @param range		The range of keys of the view.
+	 * @param map		The entries of the map within the range.
+	 */
+	ObservableSubMap(ObservableTreeMap<K, V> parent, KeyRange<K> range, NavigableMap<K, V> map) {
+		super(map);
+		this.parent = parent;
+		this.range = range;
+		this.map = map;
+		this.listener = (source, change) -> changed(change);
+	}
+	
+	/**
+	 * Returns the range of keys of this view.
+	 * 
+	 * @return	The range of this view.
+	 */
+	KeyRange<K> getRange() {
+		return range;
+	}
+	
+	/**
+	 * Returns the listener applying the changes of the map within the
+	 * range to this view.
+	 * 
+	 * @return	The listener of this view.
+	 */
+	MapChangeListener<K, V> getRangeListener() {
+		return listener;
+	}
+	
+	/**
+	 * Returns the map of which this map is a view.
+	 * 
+	 * @return	The map of this view.
+	 */
+	public ObservableTreeMap<K, V> getSource() {
+		return parent;
+	}
+	
+	/**
+	 * Detaches this view from its map. The view no longer receives the
+	 * changes of the map afterwards. Disposing a view that is not attached
+	 * has no effect.
+	 */
+	public void dispose() {
+		parent.detach(this);
+	}
+	
+	/**
+	 * Records a change of the map within the range of this view.
+	 * 
+	 * @param change	The change of the map.
+	 */
+	private void changed(MapChange<K, V> change) {
+		K key = change.getKey();
+		switch(change.getType()) {
+		case PUT:
+			record(key, false, null, true, change.getNewValue());
+			break;
+		case REPLACE:
+			record(key, true, change.getOldValue(), true, change.getNewValue());
+			break;
+		case REMOVE:
+			record(key, true, change.getOldValue(), false, null);
+			break;
+		case EVICT:
+			recordEviction(key, change.getOldValue());
+			break;
+		}
+		modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException if the key is outside of the range of this view
+	 */
+	@Override
+	public V put(K key, V value) {
+		if(!range.contains(key, comparator()))
+			throw new IllegalArgumentException("key out of range");
+		return parent.put(key, value);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public V remove(Object key) {
+		return range.contains(key, comparator()) ? parent.remove(key) : null;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException if a key is outside of the range of this view
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		for(Entry<? extends K, ? extends V> entry : m.entrySet())
+			put(entry.getKey(), entry.getValue());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		if(map.isEmpty())
+			return;
+		if(parent.isTracking()) {
+			for(Entry<K, V> entry : map.entrySet())
+				parent.record(entry.getKey(), true, entry.getValue(), false, null);
+		}
+		map.clear();
+		parent.modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		for(Entry<K, V> entry : map.entrySet()) {
+			V value = function.apply(entry.getKey(), entry.getValue());
+			V old = entry.setValue(value);
+			parent.record(entry.getKey(), true, old, true, value);
+		}
+		parent.modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void removeEntry(Iterator<Entry<K, V>> it, Entry<K, V> entry) {
+		K key = entry.getKey();
+		V value = entry.getValue();
+		it.remove();
+		parent.record(key, true, value, false, null);
+		parent.modified();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	V setEntryValue(Entry<K, V> entry, V value) {
+		V old = entry.setValue(value);
+		parent.record(entry.getKey(), true, old, true, value);
+		parent.modified();
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Comparator<? super K> comparator() {
+		return parent.comparator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public K firstKey() {
+		return map.firstKey();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public K lastKey() {
+		return map.lastKey();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to the map.
+	 */
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		return subMap(fromKey, true, toKey, false);
+	}
+	
+	/**
+	 * Returns a view of the entries of this view whose keys are within
+	 * the given range. The view is not observable, and is never attached
+	 * to the map.
+	 * 
+	 * @param fromKey		The lower bound of the range.
+	 * @param fromInclusive	Whether or not the lower bound is included.
+	 * @param toKey			The upper bound of the range.
+	 * @param toInclusive	Whether or not the upper bound is included.
+	 * @return				The view of the range.
+	 * @throws IllegalArgumentException if the range is out of order or outside of this view
+	 */
+	public SortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		map.subMap(fromKey, fromInclusive, toKey, toInclusive);
+		return parent.view(range.from(fromKey, fromInclusive).to(toKey, toInclusive));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to the map.
+	 */
+	@Override
+	public SortedMap<K, V> headMap(K toKey) {
+		return headMap(toKey, false);
+	}
+	
+	/**
+	 * Returns a view of the entries of this view whose keys are less
+	 * than, or equal to if inclusive, the given key. The view is not
+	 * observable, and is never attached to the map.
+	 * 
+	 * @param toKey		The upper bound of the range.
+	 * @param inclusive	Whether or not the upper bound is included.
+	 * @return			The view of the range.
+	 * @throws IllegalArgumentException if the bound is outside of this view
+	 */
+	public SortedMap<K, V> headMap(K toKey, boolean inclusive) {
+		map.headMap(toKey, inclusive);
+		return parent.view(range.to(toKey, inclusive));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to the map.
+	 */
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey) {
+		return tailMap(fromKey, true);
+	}
+	
+	/**
+	 * Returns a view of the entries of this view whose keys are greater
+	 * than, or equal to if inclusive, the given key. The view is not
+	 * observable, and is never attached to the map.
+	 * 
+	 * @param fromKey	The lower bound of the range.
+	 * @param inclusive	Whether or not the lower bound is included.
+	 * @return			The view of the range.
+	 * @throws IllegalArgumentException if the bound is outside of this view
+	 */
+	public SortedMap<K, V> tailMap(K fromKey, boolean inclusive) {
+		map.tailMap(fromKey, inclusive);
+		return parent.view(range.from(fromKey, inclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this view whose keys
+	 * are within the given range. The view is attached to the map until
+	 * it is disposed.
+	 * 
+	 * @param fromKey		The lower bound of the range.
+	 * @param fromInclusive	Whether or not the lower bound is included.
+	 * @param toKey			The upper bound of the range.
+	 * @param toInclusive	Whether or not the upper bound is included.
+	 * @return				The view of the range.
+	 * @throws IllegalArgumentException if the range is out of order or outside of this view
+	 * @see #dispose()
+	 */
+	public ObservableSubMap<K, V> observeSubMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		map.subMap(fromKey, fromInclusive, toKey, toInclusive);
+		return parent.attach(range.from(fromKey, fromInclusive).to(toKey, toInclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this view whose keys
+	 * are less than, or equal to if inclusive, the given key. The view is
+	 * attached to the map until it is disposed.
+	 * 
+	 * @param toKey		The upper bound of the range.
+	 * @param inclusive	Whether or not the upper bound is included.
+	 * @return			The view of the range.
+	 * @throws IllegalArgumentException if the bound is outside of this view
+	 * @see #dispose()
+	 */
+	public ObservableSubMap<K, V> observeHeadMap(K toKey, boolean inclusive) {
+		map.headMap(toKey, inclusive);
+		return parent.attach(range.to(toKey, inclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this view whose keys
+	 * are greater than, or equal to if inclusive, the given key. The view
+	 * is attached to the map until it is disposed.
+	 * 
+	 * @param fromKey	The lower bound of the range.
+	 * @param inclusive	Whether or not the lower bound is included.
+	 * @return			The view of the range.
+	 * @throws IllegalArgumentException if the bound is outside of this view
+	 * @see #dispose()
+	 */
+	public ObservableSubMap<K, V> observeTailMap(K fromKey, boolean inclusive) {
+		map.tailMap(fromKey, inclusive);
+		return parent.attach(range.from(fromKey, inclusive));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected Map<K, V> getMap() {
+		return map;
+	}
+	
+}
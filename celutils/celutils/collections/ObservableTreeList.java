@@ -0,0 +1,81 @@
+package celutils.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An implementation of the <a href="#{@link}">{@link ObservableList}</a>
+ * class backed by a balanced order-statistics tree.
+ * <p>
+ * Unlike an array list, which shifts the following elements, and a linked
+ * list, which walks to the position, this list accesses, inserts and
+ * removes elements at any position in O(log n) expected time. Ranges of
+ * elements, such as the ones added by <a href="#{@link}">{@link
+ * #addAll(int, Collection)}</a> or cleared from a <a href="#{@link}">
+ * {@link #subList(int, int)}</a>, are inserted in O(k + log n) and
+ * removed in O(log n) expected time. This makes it suited to large lists
+ * that are frequently modified away from their ends, at the cost of
+ * slower access than an array list.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+public class ObservableTreeList<E> extends ObservableList<E> {
+	
+	private static final long serialVersionUID = 3562097640135238871L;
+	
+	/**
+	 * The list used by this observable list.
+	 */
+	private final TreeList<E> list;
+	
+	/**
+	 * Creates a new ObservableTreeList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	private ObservableTreeList(TreeList<E> list) {
+		super(list);
+		this.list = list;
+	}
+	
+	/**
+	 * Creates a new empty ObservableTreeList.
+	 */
+	public ObservableTreeList() {
+		this(new TreeList<E>());
+	}
+	
+	/**
+	 * Creates a new ObservableTreeList given the list
+	 * argument.
+	 * 
+	 * @param list	The list to create this list from.
+	 */
+	public ObservableTreeList(Collection<? extends E> c) {
+		this(new TreeList<E>(c));
+	}
+	
+	/**
+	 * Creates a new ObservableTreeList given the vararg
+	 * argument.
+	 * 
+	 * @param list	The vararg array to create this list from.
+	 */
+	@SafeVarargs
+	public ObservableTreeList(E... c) {
+		this(new TreeList<E>(Arrays.asList(c)));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected List<E> getList() {
+		return list;
+	}
+	
+}
@@ -1,18 +1,43 @@
 package celutils.collections;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * An <a href="#{@link}">{@link TreeMap}</a> implementation
+ * A <a href="#{@link}">{@link TreeMap}</a> implementation
  * of the <a href="#{@link}">{@link ObservableMap}</a> class.
+ * <p>
+ * Besides the listeners of every map, a tree map supports range listeners,
+ * which are only executed for the entries whose keys are within a range,
+ * and observable views of the entries within a range, which are returned
+ * by <a href="#{@link}">{@link #observeSubMap(Object, boolean, Object,
+ * boolean)}</a>, <a href="#{@link}">{@link #observeHeadMap(Object,
+ * boolean)}</a> and <a href="#{@link}">{@link #observeTailMap(Object,
+ * boolean)}</a>. The ranges of both are kept in an interval index, so
+ * that each change is routed only to the listeners and views whose range
+ * contains its key, in time that grows logarithmically with the number
+ * of ranges.
+ * <p>
+ * An observable view remains attached to this map, and is updated along
+ * with it, until it is disposed. The views returned by <a href="#{@link}">
+ * {@link #subMap(Object, Object)}</a>, <a href="#{@link}">{@link
+ * #headMap(Object)}</a>, <a href="#{@link}">{@link #tailMap(Object)}</a>
+ * and their variants with inclusive bounds are plain sorted maps instead,
+ * which read and write through to this map, recording every modification,
+ * but are never attached to it and need not be disposed.
  * 
  * @param <K> the type of keys maintained by this map
  * @param <V> the type of mapped values
  * 
  * @author Max D
  */
-public class ObservableTreeMap<K, V> extends ObservableMap<K, V> {
+public class ObservableTreeMap<K, V> extends ObservableMap<K, V> implements SortedMap<K, V> {
 	
 	private static final long serialVersionUID = -1915228526272213541L;
 	
@@ -21,6 +46,17 @@ public class ObservableTreeMap<K, V> extends ObservableMap<K, V> {
 	 */
 	private final TreeMap<K, V> map;
 	
+	/**
+	 * The range listeners of this map, including those of its views,
+	 * indexed by their ranges.
+	 */
+	private final IntervalIndex<K, MapChangeListener<K, V>> ranges;
+	
+	/**
+	 * The views of this map, which are updated along with it.
+	 */
+	private final Collection<ObservableSubMap<K, V>> views;
+	
 	/**
 	 * Creates a new ObservableTreeMap given the map
 	 * argument.
@@ -30,6 +66,8 @@ public class ObservableTreeMap<K, V> extends ObservableMap<K, V> {
 	private ObservableTreeMap(TreeMap<K, V> map) {
 		super(map);
 		this.map = map;
+		this.ranges = new IntervalIndex<>(map.comparator());
+		this.views = new CopyOnWriteArrayList<>();
 	}
 	
 	/**
@@ -49,6 +87,286 @@ public class ObservableTreeMap<K, V> extends ObservableMap<K, V> {
 		this(new TreeMap<K, V>(m));
 	}
 	
+	/**
+	 * Adds a <a href="#{@link}">{@link MapChangeListener}</a> to the
+	 * entries of this map whose keys are within the given half-open range.
+	 * The listener will only be executed when such an entry undergoes a
+	 * change.
+	 * 
+	 * @param fromKey	The lower bound of the range (inclusive).
+	 * @param toKey		The upper bound of the range (exclusive).
+	 * @param listener	The map change listener to be added.
+	 * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+	 */
+	public void addRangeListener(K fromKey, K toKey, MapChangeListener<K, V> listener) {
+		addRangeListener(fromKey, true, toKey, false, listener);
+	}
+	
+	/**
+	 * Adds a <a href="#{@link}">{@link MapChangeListener}</a> to the
+	 * entries of this map whose keys are within the given range. The
+	 * listener will only be executed when such an entry undergoes a
+	 * change.
+	 * 
+	 * @param fromKey		The lower bound of the range.
+	 * @param fromInclusive	Whether or not the lower bound is included.
+	 * @param toKey			The upper bound of the range.
+	 * @param toInclusive	Whether or not the upper bound is included.
+	 * @param listener		The map change listener to be added.
+	 * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+	 */
+	public void addRangeListener(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive, MapChangeListener<K, V> listener) {
+		KeyRange<K> range = KeyRange.<K>all().from(fromKey, fromInclusive).to(toKey, toInclusive);
+		range.slice(map);
+		ranges.add(range, listener);
+	}
+	
+	/**
+	 * Removes a pre-existing <a href="#{@link}">{@link MapChangeListener}</a>
+	 * from every range of this map to which it was added.
+	 * 
+	 * @param listener	The map change listener to be removed.
+	 */
+	public void removeRangeListener(MapChangeListener<K, V> listener) {
+		ranges.remove(listener);
+	}
+	
+	/**
+	 * Creates a new view of the entries of this map within the given
+	 * range, without attaching it to this map.
+	 * 
+	 * @param range	The range of keys of the view.
+	 * @return		The view.
+	 */
+	ObservableSubMap<K, V> view(KeyRange<K> range) {
+		return new ObservableSubMap<>(this, range, range.slice(map));
+	}
+	
+	/**
+	 * Attaches a new view of the entries of this map within the given
+	 * range to this map.
+	 * 
+	 * @param range	The range of keys of the view.
+	 * @return		The view.
+	 */
+	ObservableSubMap<K, V> attach(KeyRange<K> range) {
+		ObservableSubMap<K, V> view = view(range);
+		ranges.add(range, view.getRangeListener());
+		views.add(view);
+		return view;
+	}
+	
+	/**
+	 * Detaches a view from this map.
+	 * 
+	 * @param view	The view to detach.
+	 */
+	void detach(ObservableSubMap<K, V> view) {
+		if(views.remove(view))
+			ranges.remove(view.getRangeListener());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	boolean isTracking() {
+		return super.isTracking() || !ranges.isEmpty();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	boolean isTracked(Object key) {
+		return super.isTracked(key) || (!ranges.isEmpty() && ranges.contains(key));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * After the map change listeners and the listeners of the entry, the
+	 * listeners of every range containing the key of the entry are executed.
+	 */
+	@Override
+	void fire(MapChange<K, V> change) {
+		super.fire(change);
+		if(ranges.isEmpty())
+			return;
+			
+		List<MapChangeListener<K, V>> listeners = new ArrayList<>();
+		ranges.stab(change.getKey(), listeners::add);
+		for(MapChangeListener<K, V> listener : listeners)
+			listener.changed(this, change);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		if(!ranges.isEmpty() && getMapListeners().isEmpty()) {
+			ranges.forEach((range, listener) -> {
+				for(Entry<K, V> entry : range.slice(map).entrySet())
+					record(entry.getKey(), true, entry.getValue(), false, null);
+			});
+		}
+		super.clear();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The views of this map are updated afterwards.
+	 */
+	@Override
+	public void update() {
+		super.update();
+		for(ObservableSubMap<K, V> view : views)
+			view.update();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Comparator<? super K> comparator() {
+		return map.comparator();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public K firstKey() {
+		return map.firstKey();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public K lastKey() {
+		return map.lastKey();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to this map.
+	 */
+	@Override
+	public SortedMap<K, V> subMap(K fromKey, K toKey) {
+		return subMap(fromKey, true, toKey, false);
+	}
+	
+	/**
+	 * Returns a view of the entries of this map whose keys are within
+	 * the given range. The view is not observable, and is never attached
+	 * to this map.
+	 * 
+	 * @param fromKey		The lower bound of the range.
+	 * @param fromInclusive	Whether or not the lower bound is included.
+	 * @param toKey			The upper bound of the range.
+	 * @param toInclusive	Whether or not the upper bound is included.
+	 * @return				The view of the range.
+	 * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+	 */
+	public SortedMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		return view(KeyRange.<K>all().from(fromKey, fromInclusive).to(toKey, toInclusive));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to this map.
+	 */
+	@Override
+	public SortedMap<K, V> headMap(K toKey) {
+		return headMap(toKey, false);
+	}
+	
+	/**
+	 * Returns a view of the entries of this map whose keys are less than,
+	 * or equal to if inclusive, the given key. The view is not observable,
+	 * and is never attached to this map.
+	 * 
+	 * @param toKey		The upper bound of the range.
+	 * @param inclusive	Whether or not the upper bound is included.
+	 * @return			The view of the range.
+	 */
+	public SortedMap<K, V> headMap(K toKey, boolean inclusive) {
+		return view(KeyRange.<K>all().to(toKey, inclusive));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned view is not observable, and is never attached to this map.
+	 */
+	@Override
+	public SortedMap<K, V> tailMap(K fromKey) {
+		return tailMap(fromKey, true);
+	}
+	
+	/**
+	 * Returns a view of the entries of this map whose keys are greater
+	 * than, or equal to if inclusive, the given key. The view is not
+	 * observable, and is never attached to this map.
+	 * 
+	 * @param fromKey	The lower bound of the range.
+	 * @param inclusive	Whether or not the lower bound is included.
+	 * @return			The view of the range.
+	 */
+	public SortedMap<K, V> tailMap(K fromKey, boolean inclusive) {
+		return view(KeyRange.<K>all().from(fromKey, inclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this map whose keys
+	 * are within the given range. The view is attached to this map until
+	 * it is disposed.
+	 * 
+	 * @param fromKey		The lower bound of the range.
+	 * @param fromInclusive	Whether or not the lower bound is included.
+	 * @param toKey			The upper bound of the range.
+	 * @param toInclusive	Whether or not the upper bound is included.
+	 * @return				The view of the range.
+	 * @throws IllegalArgumentException if the lower bound is greater than the upper bound
+	 * @see ObservableSubMap#dispose()
+	 */
+	public ObservableSubMap<K, V> observeSubMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+		return attach(KeyRange.<K>all().from(fromKey, fromInclusive).to(toKey, toInclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this map whose keys
+	 * are less than, or equal to if inclusive, the given key. The view is
+	 * attached to this map until it is disposed.
+	 * 
+	 * @param toKey		The upper bound of the range.
+	 * @param inclusive	Whether or not the upper bound is included.
+	 * @return			The view of the range.
+	 * @see ObservableSubMap#dispose()
+	 */
+	public ObservableSubMap<K, V> observeHeadMap(K toKey, boolean inclusive) {
+		return attach(KeyRange.<K>all().to(toKey, inclusive));
+	}
+	
+	/**
+	 * Returns an observable view of the entries of this map whose keys
+	 * are greater than, or equal to if inclusive, the given key. The view
+	 * is attached to this map until it is disposed.
+	 * 
+	 * @param fromKey	The lower bound of the range.
+	 * @param inclusive	Whether or not the lower bound is included.
+	 * @return			The view of the range.
+	 * @see ObservableSubMap#dispose()
+	 */
+	public ObservableSubMap<K, V> observeTailMap(K fromKey, boolean inclusive) {
+		return attach(KeyRange.<K>all().from(fromKey, inclusive));
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,36 @@
+package celutils.collections;
+
+/**
+ * This interface defines a response to a change of a range of
+ * elements of an <a href="#{@link}">{@link ObservablePrimitiveList}
+ * </a> detected since a previous update.
+ * <p>
+ * Rather than being given the old and new contents of the list, a
+ * range change listener is given the bounds of the range of indices
+ * at which elements may have changed, which allows listeners of very
+ * large lists to only process the part that has been modified.
+ * 
+ * @param <E> the boxed type of elements in the list
+ * 
+ * @see ObservablePrimitiveList#addRangeListener(RangeChangeListener)
+ * @author Max D
+ */
+public interface RangeChangeListener<E> extends java.io.Serializable {
+	
+	/**
+	 * Called once during any given update sequence when it is
+	 * confirmed that the list containing this listener has been
+	 * modified since the last update.
+	 * <p>
+	 * Every index at which the old and new contents of the list
+	 * may differ is within the given range. Note that the range can
+	 * extend past the current size of the list if elements have been
+	 * removed.
+	 * 
+	 * @param list	The list that has changed.
+	 * @param from	The first index of the changed range (inclusive).
+	 * @param to	The last index of the changed range (exclusive).
+	 */
+	public void changed(ObservablePrimitiveList<E> list, int from, int to);
+	
+}
@@ -0,0 +1,534 @@
+package celutils.collections;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+
+/**
+ * Package-level class.
+ * <p>
+ * A sequence of elements stored in an implicit treap, that is a
+ * randomized balanced binary tree ordered by position rather than
+ * by key. Every node keeps the size of its subtree, which gives
+ * positional access, insertion and removal in O(log n) expected time.
+ * <p>
+ * Elements can additionally be marked. Every node keeps the number of
+ * marked elements in its subtree, so that the rank of a position among
+ * the marked elements, and the position of the k-th marked element, can
+ * be determined in O(log n) as well. If the elements are kept in the
+ * order of a comparator, then positions can be searched by value.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @param <E> the type of elements in this tree
+ * 
+ * @author Max D
+ */
+final class RankTree<E> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -1733425187623840941L;
+	
+	/**
+	 * The root of the tree, or null if the tree is empty.
+	 */
+	private Node<E> root;
+	
+	/**
+	 * The state of the generator of node priorities.
+	 */
+	private int seed = 0x2545F491;
+	
+	/**
+	 * The results of the last split, holding the nodes before and
+	 * after the split position respectively.
+	 */
+	private transient Node<E> left, right;
+	
+	/**
+	 * Returns the number of elements in this tree.
+	 * 
+	 * @return	The number of elements in this tree.
+	 */
+	int size() {
+		return size(root);
+	}
+	
+	/**
+	 * Returns the number of marked elements in this tree.
+	 * 
+	 * @return	The number of marked elements in this tree.
+	 */
+	int marked() {
+		return marks(root);
+	}
+	
+	/**
+	 * Returns the element at the given position.
+	 * 
+	 * @param index	The position of the element.
+	 * @return		The element at that position.
+	 */
+	E get(int index) {
+		return node(index).value;
+	}
+	
+	/**
+	 * Returns whether or not the element at the given position is marked.
+	 * 
+	 * @param index	The position of the element.
+	 * @return		Whether or not the element at that position is marked.
+	 */
+	boolean isMarked(int index) {
+		return node(index).marked;
+	}
+	
+	/**
+	 * Replaces the element at the given position, keeping its mark.
+	 * 
+	 * @param index	The position of the element.
+	 * @param value	The new element.
+	 * @return		The element previously at that position.
+	 */
+	E set(int index, E value) {
+		Node<E> node = node(index);
+		E old = node.value;
+		node.value = value;
+		return old;
+	}
+	
+	/**
+	 * Marks or unmarks the element at the given position.
+	 * 
+	 * @param index		The position of the element.
+	 * @param marked	Whether or not the element is to be marked.
+	 */
+	void mark(int index, boolean marked) {
+		mark(root, index, marked);
+	}
+	
+	/**
+	 * Inserts an element at the given position.
+	 * 
+	 * @param index		The position at which the element is inserted.
+	 * @param value		The element to insert.
+	 * @param marked	Whether or not the element is marked.
+	 * @return			The node holding the element, which remains valid until it is removed.
+	 */
+	Node<E> insert(int index, E value, boolean marked) {
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		
+		Node<E> node = new Node<E>(value, marked, seed);
+		setRoot(insert(root, index, node));
+		left = right = null;
+		return node;
+	}
+	
+	/**
+	 * Removes the element at the given position.
+	 * 
+	 * @param index	The position of the element.
+	 * @return		Whether or not the removed element was marked.
+	 */
+	boolean remove(int index) {
+		if(index < 0 || index >= size())
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		boolean marked = node(index).marked;
+		setRoot(remove(root, index));
+		return marked;
+	}
+	
+	/**
+	 * Returns the position of the given node, by walking up from the node
+	 * to the root.
+	 * 
+	 * @param node	A node of this tree, as returned by <a href="#{@link}">{@link #insert(int, Object, boolean)}</a>.
+	 * @return		The position of the element held by the node.
+	 */
+	int indexOf(Node<E> node) {
+		int index = size(node.left);
+		for(Node<E> t = node; t.parent != null; t = t.parent) {
+			if(t == t.parent.right)
+				index += size(t.parent.left) + 1;
+		}
+		return index;
+	}
+	
+	/**
+	 * Returns the node at the given position, or null if the position is
+	 * equal to the size of this tree.
+	 * 
+	 * @param index	The position of the node, which may be equal to the size of the tree.
+	 * @return		The node at that position, or null if there is none.
+	 */
+	Node<E> nodeAt(int index) {
+		return index == size() ? null : node(index);
+	}
+	
+	/**
+	 * Returns the node following the given node in order, by walking
+	 * down its right subtree or else up to its first ancestor on the
+	 * right. Walking the whole tree this way takes O(n) time.
+	 * 
+	 * @param node	A node of this tree.
+	 * @return		The next node, or null if the given node is the last one.
+	 */
+	static <E> Node<E> successor(Node<E> node) {
+		Node<E> t = node.right;
+		if(t != null) {
+			while(t.left != null)
+				t = t.left;
+			return t;
+		}
+		for(t = node; t.parent != null && t == t.parent.right; t = t.parent);
+		return t.parent;
+	}
+	
+	/**
+	 * Returns the node preceding the given node in order, by walking
+	 * down its left subtree or else up to its first ancestor on the
+	 * left. Walking the whole tree this way takes O(n) time.
+	 * 
+	 * @param node	A node of this tree.
+	 * @return		The previous node, or null if the given node is the first one.
+	 */
+	static <E> Node<E> predecessor(Node<E> node) {
+		Node<E> t = node.left;
+		if(t != null) {
+			while(t.right != null)
+				t = t.right;
+			return t;
+		}
+		for(t = node; t.parent != null && t == t.parent.left; t = t.parent);
+		return t.parent;
+	}
+	
+	/**
+	 * Inserts the given elements, unmarked and in order, at the given
+	 * position.
+	 * <p>
+	 * The elements are first built into a treap of their own in O(k) time,
+	 * by keeping the right spine of the treap on a stack, which is then
+	 * joined with the two halves of this tree in O(log n) expected time.
+	 * 
+	 * @param index		The position at which the elements are inserted.
+	 * @param values	The elements to insert.
+	 */
+	void insertAll(int index, Collection<? extends E> values) {
+		Deque<Node<E>> spine = new ArrayDeque<Node<E>>();
+		for(E value : values) {
+			seed ^= seed << 13;
+			seed ^= seed >>> 17;
+			seed ^= seed << 5;
+			Node<E> node = new Node<E>(value, false, seed), last = null;
+			while(!spine.isEmpty() && spine.peek().priority < node.priority)
+				last = pull(spine.pop());
+			node.left = last;
+			if(!spine.isEmpty())
+				spine.peek().right = node;
+			spine.push(node);
+		}
+		Node<E> inserted = null;
+		while(!spine.isEmpty())
+			inserted = pull(spine.pop());
+		split(root, index);
+		Node<E> after = right;
+		setRoot(merge(merge(left, inserted), after));
+		left = right = null;
+	}
+	
+	/**
+	 * Removes the elements between the given positions.
+	 * 
+	 * @param fromIndex	The position of the first element to remove.
+	 * @param toIndex	The position after the last element to remove.
+	 */
+	void removeRange(int fromIndex, int toIndex) {
+		split(root, fromIndex);
+		Node<E> before = left;
+		split(right, toIndex - fromIndex);
+		setRoot(merge(before, right));
+		left = right = null;
+	}
+	
+	/**
+	 * Copies the elements of this tree, in order, into the given array.
+	 * 
+	 * @param array	The array to copy the elements into, which must be large enough.
+	 * @return		The array.
+	 */
+	Object[] toArray(Object[] array) {
+		Deque<Node<E>> path = new ArrayDeque<Node<E>>();
+		Node<E> t = root;
+		int i = 0;
+		while(t != null || !path.isEmpty()) {
+			while(t != null) {
+				path.push(t);
+				t = t.left;
+			}
+			t = path.pop();
+			array[i++] = t.value;
+			t = t.right;
+		}
+		return array;
+	}
+	
+	/**
+	 * Removes every element from this tree.
+	 */
+	void clear() {
+		root = null;
+	}
+	
+	/**
+	 * Returns the number of marked elements before the given position.
+	 * 
+	 * @param index	The position, which may be equal to the size of the tree.
+	 * @return		The rank of that position among the marked elements.
+	 */
+	int rank(int index) {
+		int rank = 0;
+		Node<E> t = root;
+		while(t != null) {
+			int size = size(t.left);
+			if(index <= size)
+				t = t.left;
+			else {
+				rank += marks(t.left) + (t.marked ? 1 : 0);
+				index -= size + 1;
+				t = t.right;
+			}
+		}
+		return rank;
+	}
+	
+	/**
+	 * Returns the position of the marked element with the given rank.
+	 * 
+	 * @param rank	The rank of the element among the marked elements.
+	 * @return		The position of that element.
+	 */
+	int select(int rank) {
+		if(rank < 0 || rank >= marked())
+			throw new IndexOutOfBoundsException("Index: " + rank + ", Size: " + marked());
+		int index = 0;
+		Node<E> t = root;
+		while(true) {
+			int marks = marks(t.left);
+			if(rank < marks)
+				t = t.left;
+			else if(rank == marks && t.marked)
+				return index + size(t.left);
+			else {
+				rank -= marks + (t.marked ? 1 : 0);
+				index += size(t.left) + 1;
+				t = t.right;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of elements that precede the given value in
+	 * the order of the given comparator, assuming that this tree is
+	 * sorted by it. If inclusive, elements equal to the value are
+	 * counted as well.
+	 * 
+	 * @param value			The value to search for.
+	 * @param comparator	The comparator by which this tree is sorted.
+	 * @param inclusive		Whether or not to count elements equal to the value.
+	 * @return				The first position after the counted elements.
+	 */
+	int bound(E value, Comparator<? super E> comparator, boolean inclusive) {
+		int index = 0;
+		Node<E> t = root;
+		while(t != null) {
+			int c = comparator.compare(t.value, value);
+			if(c < 0 || (inclusive && c == 0)) {
+				index += size(t.left) + 1;
+				t = t.right;
+			}
+			else
+				t = t.left;
+		}
+		return index;
+	}
+	
+	/**
+	 * Makes the given subtree the whole tree.
+	 */
+	private void setRoot(Node<E> t) {
+		if(t != null)
+			t.parent = null;
+		root = t;
+	}
+	
+	/**
+	 * Returns the node at the given position.
+	 */
+	private Node<E> node(int index) {
+		if(index < 0 || index >= size())
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		Node<E> t = root;
+		while(true) {
+			int size = size(t.left);
+			if(index < size)
+				t = t.left;
+			else if(index == size)
+				return t;
+			else {
+				index -= size + 1;
+				t = t.right;
+			}
+		}
+	}
+	
+	/**
+	 * Inserts a node at the given position of the given subtree, and
+	 * returns the root of the result. The node descends until its priority
+	 * exceeds that of the subtree, which is then split around it.
+	 */
+	private Node<E> insert(Node<E> t, int index, Node<E> node) {
+		if(t == null)
+			return node;
+		if(node.priority > t.priority) {
+			split(t, index);
+			node.left = left;
+			node.right = right;
+			return pull(node);
+		}
+		int size = size(t.left);
+		if(index <= size)
+			t.left = insert(t.left, index, node);
+		else
+			t.right = insert(t.right, index - size - 1, node);
+		return pull(t);
+	}
+	
+	/**
+	 * Removes the node at the given position of the given subtree, and
+	 * returns the root of the result.
+	 */
+	private Node<E> remove(Node<E> t, int index) {
+		int size = size(t.left);
+		if(index < size)
+			t.left = remove(t.left, index);
+		else if(index > size)
+			t.right = remove(t.right, index - size - 1);
+		else
+			return merge(t.left, t.right);
+		return pull(t);
+	}
+	
+	/**
+	 * Marks or unmarks the element at the given position of the given
+	 * subtree, and recounts the marked elements along the way back.
+	 */
+	private void mark(Node<E> t, int index, boolean marked) {
+		int size = size(t.left);
+		if(index < size)
+			mark(t.left, index, marked);
+		else if(index > size)
+			mark(t.right, index - size - 1, marked);
+		else
+			t.marked = marked;
+		pull(t);
+	}
+	
+	/**
+	 * Splits the given subtree into its first given number of nodes,
+	 * stored in {@link #left}, and the remaining ones, stored in
+	 * {@link #right}.
+	 */
+	private void split(Node<E> t, int index) {
+		if(t == null) {
+			left = right = null;
+			return;
+		}
+		int size = size(t.left);
+		if(size < index) {
+			split(t.right, index - size - 1);
+			t.right = left;
+			left = pull(t);
+		}
+		else {
+			split(t.left, index);
+			t.left = right;
+			right = pull(t);
+		}
+	}
+	
+	/**
+	 * Concatenates the given subtrees and returns the root of the result.
+	 */
+	private Node<E> merge(Node<E> a, Node<E> b) {
+		if(a == null)
+			return b;
+		if(b == null)
+			return a;
+		if(a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			return pull(a);
+		}
+		b.left = merge(a, b.left);
+		return pull(b);
+	}
+	
+	/**
+	 * Recomputes the counts of the given node from its children, and makes
+	 * it the parent of its children.
+	 */
+	private static <E> Node<E> pull(Node<E> t) {
+		if(t.left != null)
+			t.left.parent = t;
+		if(t.right != null)
+			t.right.parent = t;
+		t.size = size(t.left) + size(t.right) + 1;
+		t.marks = marks(t.left) + marks(t.right) + (t.marked ? 1 : 0);
+		return t;
+	}
+	
+	private static int size(Node<?> t) {
+		return t == null ? 0 : t.size;
+	}
+	
+	private static int marks(Node<?> t) {
+		return t == null ? 0 : t.marks;
+	}
+	
+	/**
+	 * A node of the tree, holding an element and the counts of its subtree.
+	 * Its element can be read through <a href="#{@link}">{@link #value()}</a>.
+	 */
+	static final class Node<E> implements java.io.Serializable {
+		
+		private static final long serialVersionUID = 5082715317464950116L;
+		
+		private E value;
+		private boolean marked;
+		private final int priority;
+		private int size;
+		private int marks;
+		private Node<E> left, right, parent;
+		
+		private Node(E value, boolean marked, int priority) {
+			this.value = value;
+			this.marked = marked;
+			this.priority = priority;
+			this.size = 1;
+			this.marks = marked ? 1 : 0;
+		}
+		
+		/**
+		 * Returns the element held by this node.
+		 * 
+		 * @return	The element held by this node.
+		 */
+		E value() {
+			return value;
+		}
+		
+	}
+	
+}
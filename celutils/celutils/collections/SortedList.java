@@ -0,0 +1,158 @@
+package celutils.collections;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Package-level class.
+ * <p>
+ * A live view of the elements of a source list sorted by a comparator.
+ * The elements are kept in a <a href="#{@link}">{@link RankTree}</a>
+ * in sorted order, so that the position of an added element can be
+ * found by a binary search in O(log n). The node holding every element
+ * of the source is indexed by the identity of the element, so that the
+ * position of a removed element is found in O(log n) as well, however
+ * many elements compare equal to it.
+ * 
+ * @param <E> the type of elements in this view
+ * 
+ * @see ObservableList#sorted(Comparator)
+ * @author Max D
+ */
+final class SortedList<E> extends ObservableListView<E, E> {
+	
+	private static final long serialVersionUID = -8843409627263150125L;
+	
+	/**
+	 * The comparator by which this view is sorted.
+	 */
+	private final Comparator<? super E> comparator;
+	
+	/**
+	 * The elements of the source, in sorted order.
+	 */
+	private final RankTree<E> tree;
+	
+	/**
+	 * The nodes of the tree holding every element of the source, indexed
+	 * by the identity of the element. The value is a single node, or a
+	 * deque of nodes if the same instance occurs more than once.
+	 */
+	private final Map<E, Object> nodes;
+	
+	/**
+	 * Creates a new sorted view of the given source list.
+	 * 
+	 * @param source		The list from which this view is derived.
+	 * @param comparator	The comparator by which this view is sorted,
+	 * 						or null for the natural ordering.
+	 */
+	@SuppressWarnings("unchecked")
+	SortedList(ObservableList<E> source, Comparator<? super E> comparator) {
+		super(source);
+		this.comparator = comparator != null ? comparator : (Comparator<? super E>) Comparator.naturalOrder();
+		this.tree = new RankTree<E>();
+		this.nodes = new IdentityHashMap<E, Object>();
+		attach();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	void initialize(List<E> contents) {
+		for(E e : contents)
+			index(e, tree.insert(tree.bound(e, comparator, true), e, false));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Every removed or added element is reported as a separate change,
+	 * since elements that are adjacent in the source are generally not
+	 * adjacent in this view.
+	 */
+	@Override
+	void sourceChanged(ListChange<E> change) {
+		for(E e : change.removed) {
+			int index = tree.indexOf(unindex(e));
+			tree.remove(index);
+			modified();
+			if(isTracking())
+				record(index, Collections.singletonList(e), Collections.<E>emptyList());
+		}
+		for(E e : change.added) {
+			int index = tree.bound(e, comparator, true);
+			index(e, tree.insert(index, e, false));
+			modified();
+			if(isTracking())
+				record(index, Collections.<E>emptyList(), Collections.singletonList(e));
+		}
+	}
+	
+	/**
+	 * Indexes the node holding the given element of the source.
+	 * 
+	 * @param e		The element.
+	 * @param node	The node holding the element.
+	 */
+	@SuppressWarnings("unchecked")
+	private void index(E e, RankTree.Node<E> node) {
+		Object existing = nodes.putIfAbsent(e, node);
+		if(existing == null)
+			return;
+		Deque<RankTree.Node<E>> deque;
+		if(existing instanceof ArrayDeque)
+			deque = (Deque<RankTree.Node<E>>) existing;
+		else {
+			deque = new ArrayDeque<RankTree.Node<E>>();
+			deque.push((RankTree.Node<E>) existing);
+			nodes.put(e, deque);
+		}
+		deque.push(node);
+	}
+	
+	/**
+	 * Removes a node holding the given element of the source from the index.
+	 * 
+	 * @param e	The element.
+	 * @return	The node holding the element.
+	 */
+	@SuppressWarnings("unchecked")
+	private RankTree.Node<E> unindex(E e) {
+		Object existing = nodes.get(e);
+		if(existing == null)
+			throw new IllegalStateException("Element not found in sorted view: " + e);
+		if(!(existing instanceof ArrayDeque)) {
+			nodes.remove(e);
+			return (RankTree.Node<E>) existing;
+		}
+		Deque<RankTree.Node<E>> deque = (Deque<RankTree.Node<E>>) existing;
+		RankTree.Node<E> node = deque.pop();
+		if(deque.size() == 1)
+			nodes.put(e, deque.pop());
+		return node;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	E element(int index) {
+		return tree.get(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	int length() {
+		return tree.size();
+	}
+	
+}
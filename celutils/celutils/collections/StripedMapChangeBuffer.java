@@ -0,0 +1,105 @@
+package celutils.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A package-level, thread-safe <a href="#{@link}">{@link MapChangeRecorder}
+ * </a> that spreads its entries over several independently locked
+ * <a href="#{@link}">{@link MapChangeBuffer}</a> stripes.
+ * <p>
+ * Threads recording modifications of entries that fall into different
+ * stripes never contend with each other. Draining the buffer only locks
+ * each stripe for as long as it takes to detach its entries.
+ * 
+ * @param <K> the type of keys maintained by the map
+ * @param <V> the type of mapped values
+ * 
+ * @author Max D
+ */
+final class StripedMapChangeBuffer<K, V> implements MapChangeRecorder<K, V> {
+	
+	private static final long serialVersionUID = 1863609553011592337L;
+	
+	/**
+	 * The stripes of this buffer. Each stripe is guarded by its own monitor.
+	 */
+	private final List<MapChangeBuffer<K, V>> stripes;
+	
+	/**
+	 * Creates a new striped buffer with a number of stripes suited to
+	 * the number of available processors.
+	 */
+	StripedMapChangeBuffer() {
+		int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+		this.stripes = new ArrayList<MapChangeBuffer<K, V>>(count);
+		for(int i = 0; i < count; i++)
+			stripes.add(new MapChangeBuffer<>());
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void record(K key, boolean present, V oldValue, boolean exists, V newValue) {
+		MapChangeBuffer<K, V> stripe = stripeOf(key);
+		synchronized(stripe) {
+			stripe.record(key, present, oldValue, exists, newValue);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void recordEviction(K key, V oldValue) {
+		MapChangeBuffer<K, V> stripe = stripeOf(key);
+		synchronized(stripe) {
+			stripe.recordEviction(key, oldValue);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEach(Consumer<MapChangeBuffer.Pending<K, V>> action) {
+		for(MapChangeBuffer<K, V> stripe : stripes) {
+			synchronized(stripe) {
+				stripe.forEach(action);
+			}
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void drain(Consumer<MapChangeBuffer.Pending<K, V>> sink) {
+		for(MapChangeBuffer<K, V> stripe : stripes) {
+			Map<K, MapChangeBuffer.Pending<K, V>> drained;
+			synchronized(stripe) {
+				drained = stripe.take();
+			}
+			if(drained == null) continue;
+			
+			for(MapChangeBuffer.Pending<K, V> entry : drained.values())
+				sink.accept(entry);
+		}
+	}
+	
+	/**
+	 * Returns the stripe responsible for the entry with the given key.
+	 * 
+	 * @param key	The key of the entry.
+	 * @return		The stripe of that entry.
+	 */
+	private MapChangeBuffer<K, V> stripeOf(Object key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		return stripes.get(h & (stripes.size() - 1));
+	}
+	
+}
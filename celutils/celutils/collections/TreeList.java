@@ -0,0 +1,347 @@
+package celutils.collections;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Package-level class.
+ * <p>
+ * A list stored in a balanced order-statistics tree, giving positional
+ * access, insertion and removal in O(log n) expected time regardless of
+ * the position. Ranges of elements are inserted and removed in O(k +
+ * log n) and O(log n) expected time respectively, through splitting and
+ * concatenating the tree.
+ * <p>
+ * Since positional access is not constant-time, this list does not
+ * implement <a href="#{@link}">{@link java.util.RandomAccess}</a>. Its
+ * iterators instead walk the nodes of the tree in order, visiting every
+ * element in O(n) time overall, and remain fail-fast.
+ * <p>
+ * This class is not thread-safe.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @see RankTree
+ * @author Max D
+ */
+final class TreeList<E> extends AbstractList<E> implements java.io.Serializable {
+	
+	private static final long serialVersionUID = -4626389617103785912L;
+	
+	/**
+	 * The elements of this list.
+	 */
+	private final RankTree<E> tree = new RankTree<E>();
+	
+	/**
+	 * Creates a new empty list.
+	 */
+	TreeList() {
+	}
+	
+	/**
+	 * Creates a new list containing the given elements.
+	 * 
+	 * @param c	The elements to add to this list.
+	 */
+	TreeList(Collection<? extends E> c) {
+		tree.insertAll(0, c);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E get(int index) {
+		return tree.get(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return tree.size();
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E set(int index, E element) {
+		return tree.set(index, element);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void add(int index, E element) {
+		checkPosition(index);
+		tree.insert(index, element, false);
+		modCount++;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E remove(int index) {
+		E old = tree.get(index);
+		tree.remove(index);
+		modCount++;
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(tree.size(), c);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		checkPosition(index);
+		if(c.isEmpty())
+			return false;
+		tree.insertAll(index, c);
+		modCount++;
+		return true;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if(fromIndex >= toIndex)
+			return;
+		tree.removeRange(fromIndex, toIndex);
+		modCount++;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		tree.clear();
+		modCount++;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ListIterator<E> listIterator() {
+		return new Itr(0);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		checkPosition(index);
+		return new Itr(index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object[] toArray() {
+		return tree.toArray(new Object[tree.size()]);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		int size = tree.size();
+		if(a.length < size)
+			a = Arrays.copyOf(a, size);
+		tree.toArray(a);
+		if(a.length > size)
+			a[size] = null;
+		return a;
+	}
+	
+	/**
+	 * Checks that the given index is a valid insertion position.
+	 */
+	private void checkPosition(int index) {
+		if(index < 0 || index > tree.size())
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + tree.size());
+	}
+	
+	/**
+	 * A list iterator that walks the nodes of the tree in order. Moving
+	 * to the next or previous element takes amortized constant time,
+	 * while modifications through the iterator take O(log n) expected
+	 * time like those through the list.
+	 */
+	private final class Itr implements ListIterator<E> {
+		
+		/**
+		 * The node of the element returned by the next call to
+		 * <a href="#{@link}">{@link #next()}</a>, or null at the end of the list.
+		 */
+		private RankTree.Node<E> next;
+		
+		/**
+		 * The position of the cursor, which is the index of the next node.
+		 */
+		private int cursor;
+		
+		/**
+		 * The index of the element last returned, or -1 if there is none
+		 * or it has been removed.
+		 */
+		private int lastIndex = -1;
+		
+		/**
+		 * The modification count of the list expected by this iterator.
+		 */
+		private int expectedModCount = modCount;
+		
+		/**
+		 * Creates a new iterator starting at the given position.
+		 * 
+		 * @param index	The position of the cursor.
+		 */
+		private Itr(int index) {
+			this.next = tree.nodeAt(index);
+			this.cursor = index;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E next() {
+			checkModCount();
+			if(next == null)
+				throw new NoSuchElementException();
+			RankTree.Node<E> node = next;
+			next = RankTree.successor(node);
+			lastIndex = cursor++;
+			return node.value();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return cursor > 0;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E previous() {
+			checkModCount();
+			if(cursor == 0)
+				throw new NoSuchElementException();
+			next = next == null ? tree.nodeAt(cursor - 1) : RankTree.predecessor(next);
+			lastIndex = --cursor;
+			return next.value();
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int nextIndex() {
+			return cursor;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int previousIndex() {
+			return cursor - 1;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void remove() {
+			if(lastIndex < 0)
+				throw new IllegalStateException();
+			checkModCount();
+			if(lastIndex == cursor)
+				next = RankTree.successor(next);
+			else
+				cursor--;
+			tree.remove(lastIndex);
+			lastIndex = -1;
+			expectedModCount = ++modCount;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void set(E e) {
+			if(lastIndex < 0)
+				throw new IllegalStateException();
+			checkModCount();
+			tree.set(lastIndex, e);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void add(E e) {
+			checkModCount();
+			tree.insert(cursor++, e, false);
+			lastIndex = -1;
+			expectedModCount = ++modCount;
+		}
+		
+		/**
+		 * Throws an exception if the list has been modified other than
+		 * through this iterator.
+		 */
+		private void checkModCount() {
+			if(modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+		}
+		
+	}
+	
+}
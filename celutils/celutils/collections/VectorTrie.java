@@ -0,0 +1,471 @@
+package celutils.collections;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Package-level class.
+ * <p>
+ * A list stored as a 32-way trie of arrays, whose contents can be
+ * captured as an immutable snapshot in constant time.
+ * <p>
+ * The elements are held in the leaves of the trie, except for the last
+ * block of up to 32 elements, which is held in a separate tail array so
+ * that appending and removing the last element run in amortized constant
+ * time. Access by index descends one level per 5 bits of the index, and
+ * therefore runs in O(log<sub>32</sub> n) time.
+ * <p>
+ * Every node of the trie is tagged with the owner that created it. While
+ * no snapshot is taken, all of the nodes belong to the list, which edits
+ * them in place. Taking a snapshot shares the current trie with the
+ * snapshot and gives the list a new owner, so that later modifications
+ * copy the nodes along the path they change instead of altering the ones
+ * seen by the snapshot. Snapshots are thereby immutable, share all of
+ * the unmodified nodes with the list, and may be read from any thread.
+ * <p>
+ * Insertions and removals other than at the end of the list shift the
+ * following elements, which costs O(n) time as with an array list.
+ * Structural modifications and snapshots are synchronized on the list,
+ * while reads are not, and are meant for the thread modifying the list.
+ * 
+ * @param <E> the type of elements in this list
+ * 
+ * @author Max D
+ */
+final class VectorTrie<E> extends AbstractList<E> implements RandomAccess, java.io.Serializable {
+	
+	private static final long serialVersionUID = 3216794427719061652L;
+	
+	/**
+	 * The number of bits of an index consumed by each level of the trie,
+	 * and the corresponding number of children of a node.
+	 */
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	
+	/**
+	 * The number of elements in this list.
+	 */
+	private int count;
+	
+	/**
+	 * The number of index bits above the leaves of the trie.
+	 */
+	private int shift = BITS;
+	
+	/**
+	 * The root of the trie.
+	 */
+	private Node root = new Node(null, new Object[WIDTH]);
+	
+	/**
+	 * The last block of elements, which is not part of the trie.
+	 */
+	private Object[] tail = new Object[WIDTH];
+	
+	/**
+	 * Whether or not the tail array is not shared with a snapshot.
+	 */
+	private transient boolean tailOwned = true;
+	
+	/**
+	 * The owner of the nodes that this list may edit in place.
+	 */
+	private transient Object owner;
+	
+	/**
+	 * The snapshot of the current contents of this list, if it has already
+	 * been taken.
+	 */
+	private transient Snapshot<E> snapshot;
+	
+	/**
+	 * Creates a new empty list.
+	 */
+	VectorTrie() {
+	}
+	
+	/**
+	 * Creates a new list containing the given elements.
+	 * 
+	 * @param c	The elements to add to this list.
+	 */
+	VectorTrie(Collection<? extends E> c) {
+		for(E e : c)
+			push(e);
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the current contents of this list,
+	 * in constant time.
+	 * 
+	 * @return	The snapshot.
+	 */
+	synchronized List<E> snapshot() {
+		if(snapshot == null) {
+			snapshot = new Snapshot<E>(count, shift, root, tail);
+			owner = null;
+			tailOwned = false;
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public E get(int index) {
+		if(index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		return element(count, shift, root, tail, index);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized E set(int index, E element) {
+		E old = get(index);
+		snapshot = null;
+		if(index >= tailOffset(count)) {
+			ownTail();
+			tail[index & MASK] = element;
+		}
+		else
+			root = assign(shift, root, index, element);
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void add(int index, E element) {
+		if(index < 0 || index > count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		modCount++;
+		if(index == count)
+			push(element);
+		else {
+			List<E> following = truncate(index);
+			push(element);
+			for(E e : following)
+				push(e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized E remove(int index) {
+		E old = get(index);
+		modCount++;
+		List<E> following = truncate(index);
+		for(int i = 1; i < following.size(); i++)
+			push(following.get(i));
+		return old;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected synchronized void removeRange(int fromIndex, int toIndex) {
+		if(fromIndex >= toIndex)
+			return;
+		modCount++;
+		List<E> following = truncate(fromIndex);
+		for(int i = toIndex - fromIndex; i < following.size(); i++)
+			push(following.get(i));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void clear() {
+		modCount++;
+		snapshot = null;
+		count = 0;
+		shift = BITS;
+		root = new Node(owner(), new Object[WIDTH]);
+		tail = new Object[WIDTH];
+		tailOwned = true;
+	}
+	
+	/**
+	 * Removes the elements from the given index to the end of this list.
+	 * 
+	 * @param index	The index of the first element to remove.
+	 * @return		The removed elements, in order.
+	 */
+	private List<E> truncate(int index) {
+		List<E> removed = new ArrayList<E>(count - index);
+		for(int i = index; i < count; i++)
+			removed.add(get(i));
+		if(index == 0)
+			clear();
+		else {
+			while(count > index)
+				pop();
+		}
+		return removed;
+	}
+	
+	/**
+	 * Appends an element to the end of this list.
+	 * 
+	 * @param element	The element to append.
+	 */
+	private void push(E element) {
+		snapshot = null;
+		if(count - tailOffset(count) < WIDTH) {
+			ownTail();
+			tail[count & MASK] = element;
+			count++;
+			return;
+		}
+		
+		/* The tail is full, so it is moved into the trie */
+		Node leaf = new Node(owner(), tailOwned ? tail : tail.clone());
+		tail = new Object[WIDTH];
+		tail[0] = element;
+		tailOwned = true;
+		if((count >>> BITS) > (1 << shift)) {
+			Node newRoot = new Node(owner(), new Object[WIDTH]);
+			newRoot.array[0] = root;
+			newRoot.array[1] = path(shift, leaf);
+			root = newRoot;
+			shift += BITS;
+		}
+		else
+			root = pushLeaf(shift, root, leaf);
+		count++;
+	}
+	
+	/**
+	 * Removes the last element of this list.
+	 */
+	private void pop() {
+		snapshot = null;
+		if(count == 1 || ((count - 1) & MASK) > 0) {
+			ownTail();
+			tail[(count - 1) & MASK] = null;
+			count--;
+			return;
+		}
+		
+		/* The tail becomes empty, so the last leaf is moved out of the trie */
+		Object[] newTail = leaf(count - 2);
+		Node newRoot = popLeaf(shift, root);
+		if(newRoot == null)
+			newRoot = new Node(owner(), new Object[WIDTH]);
+		if(shift > BITS && newRoot.array[1] == null) {
+			newRoot = (Node) newRoot.array[0];
+			shift -= BITS;
+		}
+		root = newRoot;
+		tail = newTail;
+		tailOwned = false;
+		count--;
+	}
+	
+	/**
+	 * Returns the leaf array of the trie holding the element at the given
+	 * index.
+	 */
+	private Object[] leaf(int index) {
+		Node node = root;
+		for(int level = shift; level > 0; level -= BITS)
+			node = (Node) node.array[(index >>> level) & MASK];
+		return node.array;
+	}
+	
+	/**
+	 * Replaces the element at the given index in a subtrie, returning the
+	 * subtrie, copied if it is not owned by this list.
+	 */
+	private Node assign(int level, Node node, int index, Object element) {
+		Node result = editable(node);
+		if(level == 0)
+			result.array[index & MASK] = element;
+		else {
+			int i = (index >>> level) & MASK;
+			result.array[i] = assign(level - BITS, (Node) node.array[i], index, element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Appends a leaf to a subtrie, returning the subtrie, copied if it is
+	 * not owned by this list.
+	 */
+	private Node pushLeaf(int level, Node parent, Node leaf) {
+		Node result = editable(parent);
+		int i = ((count - 1) >>> level) & MASK;
+		Node child;
+		if(level == BITS)
+			child = leaf;
+		else {
+			Node existing = (Node) parent.array[i];
+			child = existing != null ? pushLeaf(level - BITS, existing, leaf) : path(level - BITS, leaf);
+		}
+		result.array[i] = child;
+		return result;
+	}
+	
+	/**
+	 * Removes the last leaf from a subtrie, returning the subtrie, copied if
+	 * it is not owned by this list, or null if the subtrie becomes empty.
+	 */
+	private Node popLeaf(int level, Node node) {
+		int i = ((count - 2) >>> level) & MASK;
+		if(level > BITS) {
+			Node child = popLeaf(level - BITS, (Node) node.array[i]);
+			if(child == null && i == 0)
+				return null;
+			Node result = editable(node);
+			result.array[i] = child;
+			return result;
+		}
+		else if(i == 0)
+			return null;
+		else {
+			Node result = editable(node);
+			result.array[i] = null;
+			return result;
+		}
+	}
+	
+	/**
+	 * Creates a chain of nodes from the given level down to a leaf.
+	 */
+	private Node path(int level, Node leaf) {
+		if(level == 0)
+			return leaf;
+		Node node = new Node(owner(), new Object[WIDTH]);
+		node.array[0] = path(level - BITS, leaf);
+		return node;
+	}
+	
+	/**
+	 * Returns the given node if it is owned by this list, or else a copy
+	 * of it owned by this list.
+	 */
+	private Node editable(Node node) {
+		Object owner = owner();
+		return node.owner == owner ? node : new Node(owner, node.array.clone());
+	}
+	
+	/**
+	 * Copies the tail array if it is shared with a snapshot.
+	 */
+	private void ownTail() {
+		if(!tailOwned) {
+			tail = Arrays.copyOf(tail, WIDTH);
+			tailOwned = true;
+		}
+	}
+	
+	/**
+	 * Returns the owner of the nodes that this list may edit in place,
+	 * creating a new one if the previous owner was given up to a snapshot.
+	 */
+	private Object owner() {
+		if(owner == null)
+			owner = new Object();
+		return owner;
+	}
+	
+	/**
+	 * Returns the index of the first element held in the tail array.
+	 */
+	private static int tailOffset(int count) {
+		return count < WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+	}
+	
+	/**
+	 * Returns the element at the given index of a trie.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> E element(int count, int shift, Node root, Object[] tail, int index) {
+		if(index >= tailOffset(count))
+			return (E) tail[index & MASK];
+		Node node = root;
+		for(int level = shift; level > 0; level -= BITS)
+			node = (Node) node.array[(index >>> level) & MASK];
+		return (E) node.array[index & MASK];
+	}
+	
+	/**
+	 * A node of the trie. The children of an inner node are nodes, and
+	 * those of a leaf are elements.
+	 */
+	private static final class Node implements java.io.Serializable {
+		
+		private static final long serialVersionUID = -1954108375254631372L;
+		
+		private final transient Object owner;
+		private final Object[] array;
+		
+		private Node(Object owner, Object[] array) {
+			this.owner = owner;
+			this.array = array;
+		}
+		
+	}
+	
+	/**
+	 * An immutable snapshot of the contents of a list.
+	 */
+	private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess, java.io.Serializable {
+		
+		private static final long serialVersionUID = 7436196312045893287L;
+		
+		private final int count;
+		private final int shift;
+		private final Node root;
+		private final Object[] tail;
+		
+		private Snapshot(int count, int shift, Node root, Object[] tail) {
+			this.count = count;
+			this.shift = shift;
+			this.root = root;
+			this.tail = tail;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public E get(int index) {
+			if(index < 0 || index >= count)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+			return element(count, shift, root, tail, index);
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int size() {
+			return count;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,27 @@
+package celutils.misc;
+
+/**
+ * A generic interface describing a clock that measures elapsed
+ * time in nanoseconds.
+ * <p>
+ * The implementation is used for timed properties and listeners,
+ * which measure the time between updates with it. Only the
+ * difference between two readings of the same clock is meaningful.
+ * 
+ * @author Max D
+ */
+public interface IClock extends java.io.Serializable {
+	
+	/**
+	 * The clock of the system, as returned by {@link System#nanoTime()}.
+	 */
+	public static final IClock SYSTEM = System::nanoTime;
+	
+	/**
+	 * Returns the current reading of this clock, in nanoseconds.
+	 * 
+	 * @return	This clock's current time.
+	 */
+	public long nanoTime();
+	
+}